@@ -0,0 +1,89 @@
+package hr.fer.zemris.linearna.benchmarks;
+
+import hr.fer.zemris.linearna.DenseMatrix;
+import hr.fer.zemris.linearna.IMatrix;
+import hr.fer.zemris.linearna.IVector;
+import hr.fer.zemris.linearna.Matrix;
+import hr.fer.zemris.linearna.MatrixSubMatrixView;
+import hr.fer.zemris.linearna.MatrixTransponseView;
+import hr.fer.zemris.linearna.Vector;
+import hr.fer.zemris.linearna.VectorMatrixView;
+
+import java.util.Random;
+
+/**
+ * Creates benchmark operands of requested implementation. Square matrices are diagonally dominant, so
+ * they can be inverted regardless of their size.
+ *
+ * @author filip
+ *
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static IMatrix matrix(String implementation, int size, long seed) {
+        Random random = new Random(seed);
+
+        switch(implementation) {
+            case "Matrix":
+                return new Matrix(elements(random, size, size));
+            case "DenseMatrix":
+                return DenseMatrix.from(new Matrix(elements(random, size, size)));
+            case "MatrixTransponseView":
+                return new MatrixTransponseView(new Matrix(elements(random, size, size)));
+            case "MatrixSubMatrixView":
+                return new MatrixSubMatrixView(new Matrix(elements(random, size + 1, size + 1)), size, size);
+            default:
+                throw new IllegalArgumentException("Unknown matrix implementation: " + implementation);
+        }
+    }
+
+    static IVector vector(String implementation, int dimension, long seed) {
+        Random random = new Random(seed);
+
+        switch(implementation) {
+            case "Vector":
+                return new Vector(elements(random, 1, dimension)[0]);
+            case "VectorMatrixView":
+                return new VectorMatrixView(new Matrix(elements(random, 1, dimension)), true);
+            default:
+                throw new IllegalArgumentException("Unknown vector implementation: " + implementation);
+        }
+    }
+
+    private static double[][] elements(Random random, int rows, int cols) {
+        double[][] elements = new double[rows][cols];
+
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                elements[i][j] = random.nextDouble() * 2 - 1;
+            }
+            if(i < cols) {
+                elements[i][i] += cols;
+            }
+        }
+
+        return elements;
+    }
+
+    static String matrixText(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < rows; ++i) {
+            if(i > 0) {
+                sb.append(" | ");
+            }
+            for(int j = 0; j < cols; ++j) {
+                if(j > 0) {
+                    sb.append(' ');
+                }
+                sb.append(random.nextDouble() * 2000 - 1000);
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package hr.fer.zemris.linearna.benchmarks;
+
+import hr.fer.zemris.linearna.IMatrix;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link IMatrix} operations over matrix implementations and live views.
+ *
+ * @author filip
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+
+    @Param({"3", "4", "16", "64", "256", "1024"})
+    private int size;
+
+    @Param({"Matrix", "DenseMatrix", "MatrixTransponseView", "MatrixSubMatrixView"})
+    private String implementation;
+
+    private IMatrix left;
+    private IMatrix right;
+
+    @Setup
+    public void setUp() {
+        left = BenchmarkData.matrix(implementation, size, 1);
+        right = BenchmarkData.matrix(implementation, size, 2);
+    }
+
+    @Benchmark
+    public IMatrix nMultiply() throws IncompatibleOperandException {
+        return left.nMultiply(right);
+    }
+
+    @Benchmark
+    public double determinant() {
+        return left.determinant();
+    }
+
+    @Benchmark
+    public IMatrix nInvert() {
+        return left.nInvert();
+    }
+
+    @Benchmark
+    public IMatrix nTransponseLiveView() {
+        return left.nTransponse(true);
+    }
+
+    @Benchmark
+    public IMatrix nTransponseCopy() {
+        return left.nTransponse(false);
+    }
+
+    @Benchmark
+    public IMatrix subMatrixLiveView() {
+        return left.subMatrix(size / 2, size / 2, true);
+    }
+
+    @Benchmark
+    public IMatrix subMatrixCopy() {
+        return left.subMatrix(size / 2, size / 2, false);
+    }
+}
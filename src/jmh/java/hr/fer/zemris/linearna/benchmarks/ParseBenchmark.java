@@ -0,0 +1,56 @@
+package hr.fer.zemris.linearna.benchmarks;
+
+import hr.fer.zemris.linearna.IMatrix;
+import hr.fer.zemris.linearna.Matrix;
+import hr.fer.zemris.linearna.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing of simple matrix and vector string representations. Vector has as many elements
+ * as the matrix.
+ *
+ * @author filip
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"3", "4", "16", "64", "256", "1024"})
+    private int size;
+
+    private String matrixText;
+    private String vectorText;
+
+    @Setup
+    public void setUp() {
+        matrixText = BenchmarkData.matrixText(size, size, 1);
+        vectorText = BenchmarkData.matrixText(1, size * size, 2);
+    }
+
+    @Benchmark
+    public IMatrix matrixParseSimple() {
+        return Matrix.parseSimple(matrixText);
+    }
+
+    @Benchmark
+    public Vector vectorParseSimple() {
+        return Vector.parseSimple(vectorText);
+    }
+}
@@ -0,0 +1,67 @@
+package hr.fer.zemris.linearna.benchmarks;
+
+import hr.fer.zemris.linearna.IVector;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link IVector} operations over vector implementations and live views. Vector product is
+ * always measured on 3-dimensional operands, since it's defined only for them.
+ *
+ * @author filip
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+
+    @Param({"3", "4", "16", "64", "256", "1024"})
+    private int dimension;
+
+    @Param({"Vector", "VectorMatrixView"})
+    private String implementation;
+
+    private IVector left;
+    private IVector right;
+    private IVector left3;
+    private IVector right3;
+
+    @Setup
+    public void setUp() {
+        left = BenchmarkData.vector(implementation, dimension, 1);
+        right = BenchmarkData.vector(implementation, dimension, 2);
+        left3 = BenchmarkData.vector(implementation, 3, 3);
+        right3 = BenchmarkData.vector(implementation, 3, 4);
+    }
+
+    @Benchmark
+    public double scalarProduct() throws IncompatibleOperandException {
+        return left.scalarProduct(right);
+    }
+
+    @Benchmark
+    public double norm() {
+        return left.norm();
+    }
+
+    @Benchmark
+    public IVector nVectorProduct() throws IncompatibleOperandException {
+        return left3.nVectorProduct(right3);
+    }
+}
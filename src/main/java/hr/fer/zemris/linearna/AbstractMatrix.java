@@ -17,20 +17,34 @@ public abstract class AbstractMatrix implements IMatrix {
      */
     public static final int DEFAULT_REPRESENTATION_PRECISION = 3;
 
+    /**
+     * Defines relative pivot magnitude under which a matrix is considered singular when inverting it.
+     */
+    public static final double SINGULARITY_TOLERANCE = 1e-12;
+
     @Override
     public IMatrix nTransponse(boolean liveView) {
         if(liveView) {
             return new MatrixTransponseView(this);
         }
 
-        IMatrix resultMatrix = this.newInstance(this.getColsCount(), this.getRowsCount());
+        return nTransponse(this.newInstance(this.getColsCount(), this.getRowsCount()));
+    }
+
+    @Override
+    public IMatrix nTransponse(IMatrix dest) {
+        checkDestination(dest, this.getColsCount(), this.getRowsCount());
+        if(dest == this) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
         for(int i = 0, rowsCount = this.getRowsCount(); i < rowsCount; ++i) {
             for(int j = 0, colsCount = this.getColsCount(); j < colsCount; ++j) {
-                resultMatrix.set(j, i, this.get(i, j));
+                dest.set(j, i, this.get(i, j));
             }
         }
 
-        return resultMatrix;
+        return dest;
     }
 
     @Override
@@ -53,6 +67,22 @@ public abstract class AbstractMatrix implements IMatrix {
         return this.copy().add(that);
     }
 
+    @Override
+    public IMatrix nAdd(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!equalDimensions(this, Objects.requireNonNull(that))) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, this.getRowsCount(), this.getColsCount());
+
+        for(int i = 0, rowsCount = this.getRowsCount(); i < rowsCount; ++i) {
+            for(int j = 0, colsCount = this.getColsCount(); j < colsCount; ++j) {
+                dest.set(i, j, this.get(i, j) + that.get(i, j));
+            }
+        }
+
+        return dest;
+    }
+
     @Override
     public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
         if(!equalDimensions(this, Objects.requireNonNull(that))) {
@@ -73,18 +103,108 @@ public abstract class AbstractMatrix implements IMatrix {
         return this.copy().sub(that);
     }
 
+    @Override
+    public IMatrix nSub(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!equalDimensions(this, Objects.requireNonNull(that))) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, this.getRowsCount(), this.getColsCount());
+
+        for(int i = 0, rowsCount = this.getRowsCount(); i < rowsCount; ++i) {
+            for(int j = 0, colsCount = this.getColsCount(); j < colsCount; ++j) {
+                dest.set(i, j, this.get(i, j) - that.get(i, j));
+            }
+        }
+
+        return dest;
+    }
+
     private static boolean equalDimensions(IMatrix matrixOne, IMatrix matrixTwo) {
         return matrixOne.getRowsCount() == matrixTwo.getRowsCount() &&
                 matrixOne.getColsCount() == matrixTwo.getColsCount();
     }
 
+    /**
+     * Checks whether given destination matrix can hold a result of given dimensions.
+     *
+     * @param dest destination matrix
+     * @param rows result rows count
+     * @param cols result columns count
+     * @throws NullPointerException if destination is null
+     * @throws IllegalArgumentException if destination's dimensions differ from given dimensions
+     */
+    static void checkDestination(IMatrix dest, int rows, int cols) {
+        if(Objects.requireNonNull(dest).getRowsCount() != rows || dest.getColsCount() != cols) {
+            throw new IllegalArgumentException("Expected " + rows + "x" + cols + " destination, got "
+                    + dest.getRowsCount() + "x" + dest.getColsCount());
+        }
+    }
+
     @Override
     public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException {
         if(this.getColsCount() != Objects.requireNonNull(that).getRowsCount()) {
             throw new IncompatibleOperandException();
         }
 
-        IMatrix resultMatrix = this.newInstance(this.getRowsCount(), that.getColsCount());
+        if(Metrics.ENABLED) {
+            Metrics.recordAllocation(Metrics.Operation.MULTIPLY,
+                                     (long) Double.BYTES * this.getRowsCount() * that.getColsCount());
+        }
+
+        return nMultiply(that, this.newInstance(this.getRowsCount(), that.getColsCount()));
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(this.getColsCount() != Objects.requireNonNull(that).getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, this.getRowsCount(), that.getColsCount());
+        if(dest == this || dest == that) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        long resultElements = (long) this.getRowsCount() * that.getColsCount();
+        if(that instanceof CsrMatrix || that instanceof CooMatrix) {
+            CsrMatrix.multiply(this, CsrMatrix.sparse(that), dest);
+            if(Metrics.ENABLED) {
+                Metrics.record(Metrics.Operation.MULTIPLY, start, resultElements, 0);
+            }
+            return dest;
+        }
+        if(that instanceof OffHeapMatrix || dest instanceof OffHeapMatrix) {
+            OffHeapMatrix.multiply(this, that, dest);
+            if(Metrics.ENABLED) {
+                Metrics.record(Metrics.Operation.MULTIPLY, start, resultElements, 0);
+            }
+            return dest;
+        }
+
+        long work = (long) this.getRowsCount() * this.getColsCount() * that.getColsCount();
+        if(work >= MatrixMultiplication.PACKING_THRESHOLD) {
+            if(dest instanceof DenseMatrix) {
+                ((DenseMatrix) dest).clear();
+                MatrixMultiplication.multiplyInto(this, that, (DenseMatrix) dest);
+                if(Metrics.ENABLED) {
+                    Metrics.record(Metrics.Operation.MULTIPLY, start, resultElements, 0);
+                }
+                return dest;
+            }
+
+            DenseMatrix product = MatrixMultiplication.multiply(this, that);
+            double[] elements = product.getElements();
+            for(int i = 0, rowsCount = product.getRowsCount(), index = 0; i < rowsCount; ++i) {
+                for(int j = 0, colsCount = product.getColsCount(); j < colsCount; ++j) {
+                    dest.set(i, j, elements[index++]);
+                }
+            }
+
+            if(Metrics.ENABLED) {
+                Metrics.record(Metrics.Operation.MULTIPLY, start, resultElements, Double.BYTES * resultElements);
+            }
+            return dest;
+        }
 
         for(int i = 0, rowsCount = this.getRowsCount(); i <  rowsCount; ++i) {
             for(int j = 0, thatColsCount = that.getColsCount(); j < thatColsCount; ++j) {
@@ -93,18 +213,60 @@ public abstract class AbstractMatrix implements IMatrix {
                         cellResult += this.get(i, k) * that.get(k, j);
                     }
 
-                    resultMatrix.set(i, j, cellResult);
+                    dest.set(i, j, cellResult);
             }
         }
 
-        return resultMatrix;
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.MULTIPLY, start, resultElements, 0);
+        }
+        return dest;
     }
 
+    /**
+     * Calculates determinant using LU decomposition with partial pivoting on a dense copy of this matrix,
+     * which takes O(n^3) time.
+     *
+     * @throws UnsupportedOperationException if this is a non-square matrix
+     * @return determinant, or NaN for 0x0 matrix
+     */
     @Override
     public double determinant() {
         if(Integer.compare(this.getRowsCount(), this.getColsCount()) != 0) {
             throw new UnsupportedOperationException("Determinant is defined for square matrices only.");
         }
+
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int n = this.getRowsCount();
+        double result;
+        if(n == 0) {
+            result = Double.NaN;
+        } else if(n == 1) {
+            result = this.get(0, 0);
+        } else if(n == 2) {
+            result = this.get(0, 0) * this.get(1, 1) - this.get(0, 1) * this.get(1, 0);
+        } else {
+            result = new LUDecomposition(this).determinant();
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.DETERMINANT, start, (long) n * n, n > 2 ? (long) Double.BYTES * n * n : 0);
+        }
+        return result;
+    }
+
+    /**
+     * Calculates determinant using cofactor expansion along the first row. Expansion doesn't divide
+     * elements, so it is exact for matrices with integer elements, but it takes O(n!) time and should
+     * be used only for tiny matrices.
+     *
+     * @throws UnsupportedOperationException if this is a non-square matrix
+     * @return determinant, or NaN for 0x0 matrix
+     */
+    public double cofactorDeterminant() {
+        if(Integer.compare(this.getRowsCount(), this.getColsCount()) != 0) {
+            throw new UnsupportedOperationException("Determinant is defined for square matrices only.");
+        }
         if(this.getRowsCount() == 0) {
             return Double.NaN;
         }
@@ -117,7 +279,7 @@ public abstract class AbstractMatrix implements IMatrix {
 
         double result = 0.0;
         for(int i = 0, colsCount = this.getColsCount(); i < colsCount; ++i) {
-            result += (i % 2 == 0 ? 1 : -1) * get(0, i) * new MatrixSubMatrixView(this, 0, i).determinant();
+            result += (i % 2 == 0 ? 1 : -1) * get(0, i) * new MatrixSubMatrixView(this, 0, i).cofactorDeterminant();
         }
 
         return result;
@@ -152,25 +314,97 @@ public abstract class AbstractMatrix implements IMatrix {
     }
 
     /**
-     * Calculates inverse matrix using the adjoint method. Adjoint method is used for calculating the
-     * inverse of non-singular matrix A by multiplying adjoint matrix of A with 1 / det A.
-     * Adjoint matrix of A is the transponsed version of cofactor matrix of A. Cofactor matrix of A
-     * consists of elements that are cofactors, term-by-term, of given matrix.
+     * Calculates inverse matrix using in-place Gauss-Jordan elimination with partial pivoting on a dense
+     * copy of this matrix, which takes O(n^3) time. Matrix is considered singular if absolute value of
+     * some pivot is not greater than {@link #SINGULARITY_TOLERANCE} multiplied with the largest absolute
+     * value of matrix's elements.
      *
      * @throws UnsupportedOperationException if this is a singular matrix or a non-square matrix
      * @return inverse matrix
      */
     @Override
     public IMatrix nInvert() {
-        double determinant = determinant();
-        if(determinant == 0) {
-            throw new UnsupportedOperationException("Cannot calculate inverse of singular matrix.");
-        }
         if(Integer.compare(getRowsCount(), getColsCount()) != 0) {
             throw new UnsupportedOperationException("Cannot calculate inverse of non-square matrix.");
         }
 
-        return nCofactorMatrixMultipliedWithScalar(this, 1 / determinant).nTransponse(false);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        int n = getRowsCount();
+        double[][] a = this.toArray();
+
+        double scale = 0.0;
+        for(double[] row : a) {
+            for(double element : row) {
+                scale = Math.max(scale, Math.abs(element));
+            }
+        }
+        double tolerance = SINGULARITY_TOLERANCE * scale;
+
+        int[] pivotRows = new int[n];
+        for(int k = 0; k < n; ++k) {
+            int pivotRow = k;
+            double pivotAbs = Math.abs(a[k][k]);
+            for(int i = k + 1; i < n; ++i) {
+                double candidate = Math.abs(a[i][k]);
+                if(candidate > pivotAbs) {
+                    pivotAbs = candidate;
+                    pivotRow = i;
+                }
+            }
+            if(!(pivotAbs > tolerance)) {
+                throw new UnsupportedOperationException("Cannot calculate inverse of singular matrix.");
+            }
+
+            pivotRows[k] = pivotRow;
+            if(pivotRow != k) {
+                double[] tmp = a[k];
+                a[k] = a[pivotRow];
+                a[pivotRow] = tmp;
+            }
+
+            double[] rowK = a[k];
+            double pivotInverse = 1.0 / rowK[k];
+            rowK[k] = 1.0;
+            for(int j = 0; j < n; ++j) {
+                rowK[j] *= pivotInverse;
+            }
+
+            for(int i = 0; i < n; ++i) {
+                if(i == k) continue;
+
+                double[] rowI = a[i];
+                double factor = rowI[k];
+                if(factor == 0) continue;
+
+                rowI[k] = 0.0;
+                for(int j = 0; j < n; ++j) {
+                    rowI[j] -= factor * rowK[j];
+                }
+            }
+        }
+
+        for(int k = n - 1; k >= 0; --k) {
+            int pivotRow = pivotRows[k];
+            if(pivotRow == k) continue;
+
+            for(double[] row : a) {
+                double tmp = row[k];
+                row[k] = row[pivotRow];
+                row[pivotRow] = tmp;
+            }
+        }
+
+        IMatrix inverse = this.newInstance(n, n);
+        for(int i = 0; i < n; ++i) {
+            for(int j = 0; j < n; ++j) {
+                inverse.set(i, j, a[i][j]);
+            }
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.INVERT, start, (long) n * n, 2L * Double.BYTES * n * n);
+        }
+        return inverse;
     }
 
     public static IMatrix nCofactorMatrixMultipliedWithScalar(IMatrix matrix, double scalar) {
@@ -181,7 +415,7 @@ public abstract class AbstractMatrix implements IMatrix {
             for(int j = 0, colsCount = matrix.getColsCount(), newJ = 0; j < colsCount; ++j) {
                 cofactorMatrix.set(i,
                                    j,
-                                   ((i + j) % 2 == 0 ? 1 : -1) * matrix.subMatrix(i, j, false).determinant() * scalar);
+                                   ((i + j) % 2 == 0 ? 1 : -1) * matrix.subMatrix(i, j, true).determinant() * scalar);
             }
         }
 
@@ -38,6 +38,21 @@ public abstract class AbstractVector implements IVector {
         return this.copy().add(that);
     }
 
+    @Override
+    public IVector nAdd(IVector that, IVector dest) throws IncompatibleOperandException {
+        Objects.requireNonNull(that);
+        if(Integer.compare(this.getDimension(), that.getDimension()) != 0) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, this.getDimension());
+
+        for(int i = 0, dimension = this.getDimension(); i < dimension; ++i) {
+            dest.set(i, this.get(i) + that.get(i));
+        }
+
+        return dest;
+    }
+
     @Override
     public IVector sub(IVector that) throws IncompatibleOperandException {
         Objects.requireNonNull(that);
@@ -57,6 +72,21 @@ public abstract class AbstractVector implements IVector {
         return this.copy().sub(that);
     }
 
+    @Override
+    public IVector nSub(IVector that, IVector dest) throws IncompatibleOperandException {
+        Objects.requireNonNull(that);
+        if(Integer.compare(this.getDimension(), that.getDimension()) != 0) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, this.getDimension());
+
+        for(int i = 0, dimension = this.getDimension(); i < dimension; ++i) {
+            dest.set(i, this.get(i) - that.get(i));
+        }
+
+        return dest;
+    }
+
     @Override
     public IVector scalarMultiply(double x) {
         for(int i = 0, dimension = this.getDimension(); i < dimension; ++i) {
@@ -71,6 +101,17 @@ public abstract class AbstractVector implements IVector {
         return this.copy().scalarMultiply(x);
     }
 
+    @Override
+    public IVector nScalarMultiply(double x, IVector dest) {
+        checkDestination(dest, this.getDimension());
+
+        for(int i = 0, dimension = this.getDimension(); i < dimension; ++i) {
+            dest.set(i, this.get(i) * x);
+        }
+
+        return dest;
+    }
+
     @Override
     public double norm() {
         double squaresSum = 0.0;
@@ -100,6 +141,21 @@ public abstract class AbstractVector implements IVector {
         return this.copy().normalize();
     }
 
+    @Override
+    public IVector nNormalize(IVector dest) throws DegenerateCaseException {
+        checkDestination(dest, this.getDimension());
+        double norm = this.norm();
+        if(Double.compare(norm, 0) == 0) {
+            throw new DegenerateCaseException("Cannot normalize zero vector.");
+        }
+
+        for(int i = 0, dimension = this.getDimension(); i < dimension; ++i) {
+            dest.set(i, this.get(i) / norm);
+        }
+
+        return dest;
+    }
+
     @Override
     public double cosine(IVector that) throws IncompatibleOperandException, DegenerateCaseException {
         Objects.requireNonNull(that);
@@ -148,6 +204,43 @@ public abstract class AbstractVector implements IVector {
         return result;
     }
 
+    @Override
+    public IVector nVectorProduct(IVector that, IVector dest) throws IncompatibleOperandException {
+        Objects.requireNonNull(that);
+        if(Integer.compare(this.getDimension(), that.getDimension()) != 0) {
+            throw new IncompatibleOperandException();
+        }
+        if(Integer.compare(this.getDimension(), 3) != 0) {
+            throw new UnsupportedOperationException(
+                    "Vector product is defined for 3-dimensional vectors.");
+        }
+        checkDestination(dest, 3);
+
+        double x = this.get(1) * that.get(2) - this.get(2) * that.get(1);
+        double y = -1 * (this.get(0) * that.get(2) - this.get(2) * that.get(0));
+        double z = this.get(0) * that.get(1) - this.get(1) * that.get(0);
+        dest.set(0, x);
+        dest.set(1, y);
+        dest.set(2, z);
+
+        return dest;
+    }
+
+    /**
+     * Checks whether given destination vector can hold a result of given dimension.
+     *
+     * @param dest destination vector
+     * @param dimension result dimension
+     * @throws NullPointerException if destination is null
+     * @throws IllegalArgumentException if destination's dimension differs from given dimension
+     */
+    static void checkDestination(IVector dest, int dimension) {
+        if(Objects.requireNonNull(dest).getDimension() != dimension) {
+            throw new IllegalArgumentException(
+                    "Expected destination of dimension " + dimension + ", got " + dest.getDimension());
+        }
+    }
+
     @Override
     public IVector nFromHomogeneus() throws DegenerateCaseException {
         if(this.getDimension() <= 1) {
@@ -160,7 +253,7 @@ public abstract class AbstractVector implements IVector {
         }
         IVector result = copyPart( this.getDimension() - 1);
 
-        for(int i = 0, dimension = result.getDimension() - 1; i < dimension; ++i) {
+        for(int i = 0, dimension = result.getDimension(); i < dimension; ++i) {
             result.set(i, result.get(i) / last);
         }
 
@@ -0,0 +1,79 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Right-preconditioned biconjugate gradient stabilized method (BiCGSTAB) for general non-symmetric
+ * systems. Every iteration costs two operator products and two preconditioner applications. Iterations
+ * stop early if the method breaks down.
+ *
+ * @author filip
+ *
+ */
+public class BiCGStab extends IterativeSolver {
+
+    @Override
+    IterativeResult iterate(LinearOperator a, double[] b, double[] x, double bNorm) {
+        int n = b.length;
+        double[] r = new double[n];
+        double[] rHat = new double[n];
+        double[] p = new double[n];
+        double[] v = new double[n];
+        double[] pHat = new double[n];
+        double[] s = new double[n];
+        double[] sHat = new double[n];
+        double[] t = new double[n];
+
+        residual(a, b, x, r);
+        System.arraycopy(r, 0, rHat, 0, n);
+        double relativeResidual = norm(r) / bNorm;
+        if(relativeResidual <= getTolerance()) {
+            return result(x, 0, relativeResidual);
+        }
+
+        double rho = 1;
+        double alpha = 1;
+        double omega = 1;
+        int iteration = 0;
+        while(iteration < getMaxIterations()) {
+            double rhoNew = dot(rHat, r);
+            if(rhoNew == 0) {
+                break;
+            }
+
+            double beta = (rhoNew / rho) * (alpha / omega);
+            for(int i = 0; i < n; ++i) {
+                p[i] = r[i] + beta * (p[i] - omega * v[i]);
+            }
+            getPreconditioner().apply(p, pHat);
+            a.apply(pHat, v);
+            alpha = rhoNew / dot(rHat, v);
+
+            for(int i = 0; i < n; ++i) {
+                s[i] = r[i] - alpha * v[i];
+            }
+            double sNorm = norm(s) / bNorm;
+            if(sNorm <= getTolerance()) {
+                axpy(alpha, pHat, x);
+                relativeResidual = sNorm;
+                completed(++iteration, relativeResidual);
+                break;
+            }
+
+            getPreconditioner().apply(s, sHat);
+            a.apply(sHat, t);
+            double tt = dot(t, t);
+            omega = tt == 0 ? 0 : dot(t, s) / tt;
+
+            for(int i = 0; i < n; ++i) {
+                x[i] += alpha * pHat[i] + omega * sHat[i];
+                r[i] = s[i] - omega * t[i];
+            }
+            relativeResidual = norm(r) / bNorm;
+            if(completed(++iteration, relativeResidual) || omega == 0) {
+                break;
+            }
+            rho = rhoNew;
+        }
+
+        return result(x, iteration, relativeResidual);
+    }
+}
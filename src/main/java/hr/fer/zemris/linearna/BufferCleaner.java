@@ -0,0 +1,69 @@
+package hr.fer.zemris.linearna;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases memory of direct and mapped byte buffers immediately instead of waiting for the garbage
+ * collector. On Java 9 and later <code>sun.misc.Unsafe.invokeCleaner</code> is used, on Java 8 the buffer's
+ * own cleaner. If neither is accessible, releasing is left to the garbage collector.
+ * <p>A released buffer must never be accessed again, since its memory may already be reused.
+ *
+ * @author filip
+ *
+ */
+final class BufferCleaner {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private BufferCleaner() {
+    }
+
+    /**
+     * Releases memory of given buffer if it is direct.
+     *
+     * @param buffer buffer to release
+     */
+    static void clean(ByteBuffer buffer) {
+        if(!buffer.isDirect()) {
+            return;
+        }
+
+        try {
+            if(INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            }
+
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if(cleaner != null) {
+                Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // memory is released by the garbage collector
+        }
+    }
+}
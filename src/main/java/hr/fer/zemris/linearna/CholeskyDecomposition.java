@@ -0,0 +1,174 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * Cholesky decomposition A = L * L<sup>T</sup> of a symmetric positive definite matrix, where L is lower
+ * triangular. It needs half the work of {@link LUDecomposition} and no pivoting. Decomposition is
+ * calculated on a dense copy of given matrix, so it works with every {@link IMatrix} implementation.
+ *
+ * @author filip
+ *
+ */
+public final class CholeskyDecomposition implements Decomposition {
+
+    private final double[][] l;
+    private final int n;
+
+    /**
+     * Decomposes given symmetric positive definite matrix.
+     *
+     * @param matrix matrix to decompose
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix is not square, symmetric and positive definite
+     */
+    public CholeskyDecomposition(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix.getRowsCount() != matrix.getColsCount()) {
+            throw new UnsupportedOperationException("Cholesky decomposition is defined for square matrices only.");
+        }
+
+        this.n = matrix.getRowsCount();
+        double[][] a = matrix.toArray();
+
+        double maxAbs = 0;
+        for(double[] row : a) {
+            for(double element : row) {
+                maxAbs = Math.max(maxAbs, Math.abs(element));
+            }
+        }
+        double tolerance = AbstractMatrix.SINGULARITY_TOLERANCE * maxAbs;
+
+        this.l = new double[n][];
+        for(int i = 0; i < n; ++i) {
+            double[] rowI = new double[i + 1];
+            for(int j = 0; j <= i; ++j) {
+                if(Math.abs(a[i][j] - a[j][i]) > tolerance) {
+                    throw new UnsupportedOperationException(
+                            "Cholesky decomposition is defined for symmetric matrices only.");
+                }
+
+                double[] rowJ = j == i ? rowI : l[j];
+                double sum = a[i][j];
+                for(int k = 0; k < j; ++k) {
+                    sum -= rowI[k] * rowJ[k];
+                }
+
+                if(j < i) {
+                    rowI[j] = sum / rowJ[j];
+                } else if(sum > tolerance) {
+                    rowI[i] = Math.sqrt(sum);
+                } else {
+                    throw new UnsupportedOperationException(
+                            "Cholesky decomposition is defined for positive definite matrices only.");
+                }
+            }
+            l[i] = rowI;
+        }
+    }
+
+    /**
+     * Gets dimension of decomposed matrix.
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return n;
+    }
+
+    @Override
+    public int getColsCount() {
+        return n;
+    }
+
+    /**
+     * Calculates determinant of decomposed matrix as squared product of L's diagonal.
+     *
+     * @return determinant, or NaN for 0x0 matrix
+     */
+    public double determinant() {
+        if(n == 0) {
+            return Double.NaN;
+        }
+
+        double result = 1;
+        for(int i = 0; i < n; ++i) {
+            result *= l[i][i];
+        }
+
+        return result * result;
+    }
+
+    @Override
+    public DenseMatrix solve(IMatrix b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(b).getRowsCount() != n) {
+            throw new IncompatibleOperandException();
+        }
+
+        int m = b.getColsCount();
+        double[] x = new double[n * m];
+        for(int i = 0; i < n; ++i) {
+            for(int j = 0; j < m; ++j) {
+                x[i * m + j] = b.get(i, j);
+            }
+        }
+
+        solveInPlace(x, m);
+        return new DenseMatrix(n, m, x);
+    }
+
+    @Override
+    public IVector solve(IVector b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(b).getDimension() != n) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[] x = b.toArray();
+        solveInPlace(x, 1);
+        return Vector.adopt(x);
+    }
+
+    /**
+     * Replaces right-hand sides stored row-major in x, m per row, with solutions of L * y = b followed by
+     * L<sup>T</sup> * x = y.
+     */
+    private void solveInPlace(double[] x, int m) {
+        for(int k = 0; k < n; ++k) {
+            int rowK = k * m;
+            double pivot = l[k][k];
+            for(int j = 0; j < m; ++j) {
+                x[rowK + j] /= pivot;
+            }
+            for(int i = k + 1; i < n; ++i) {
+                double factor = l[i][k];
+                int rowI = i * m;
+                for(int j = 0; j < m; ++j) {
+                    x[rowI + j] -= factor * x[rowK + j];
+                }
+            }
+        }
+
+        for(int k = n - 1; k >= 0; --k) {
+            int rowK = k * m;
+            double[] lRowK = l[k];
+            double pivot = lRowK[k];
+            for(int j = 0; j < m; ++j) {
+                x[rowK + j] /= pivot;
+            }
+            for(int i = 0; i < k; ++i) {
+                double factor = lRowK[i];
+                int rowI = i * m;
+                for(int j = 0; j < m; ++j) {
+                    x[rowI + j] -= factor * x[rowK + j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe matrix into which several threads can write and accumulate at once, e.g. when assembling
+ * a global stiffness matrix from element contributions. Elements are stored as bits of doubles in an
+ * {@link AtomicLongArray}, so {@link #get(int, int)} never blocks and {@link #addTo(int, int, double)}
+ * adds atomically with compare-and-set.
+ * <p>Rows are divided into a fixed number of stripes, row i into stripe <code>i % stripes</code>. Writers
+ * only count started and completed writes of their row's stripe, so they don't block each other.
+ * {@link #snapshot()} copies stripes optimistically while writers continue and copies a stripe again if
+ * a write to it was in progress or started during the copy. Only if a few attempts in a row fail does it
+ * pause writers of that stripe, and only while its rows are copied, so that a stripe which is written
+ * without pause still gets copied.
+ *
+ * @author filip
+ *
+ */
+public class ConcurrentMatrix extends AbstractMatrix {
+
+    private final int rows;
+    private final int cols;
+    private final AtomicLongArray elements;
+    private final int stripes;
+    private final AtomicLongArray startedWrites;
+    private final AtomicLongArray completedWrites;
+    /**
+     * Number of snapshots which currently pause writers of each stripe.
+     */
+    private final AtomicIntegerArray pauses;
+
+    /**
+     * Defines number of optimistic attempts to copy a stripe before its writers are paused.
+     */
+    private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+    /**
+     * Constructs a rows x cols matrix with all elements set to 0 and four stripes per available
+     * processor, but no more stripes than rows.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if rows or cols is negative
+     */
+    public ConcurrentMatrix(int rows, int cols) {
+        this(rows, cols, Math.max(1, Math.min(rows, 4 * Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Constructs a rows x cols matrix with all elements set to 0 and given number of stripes.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param stripes number of stripes
+     * @throws IllegalArgumentException if rows or cols is negative, if matrix is too large or if number of
+     *         stripes is less than 1
+     */
+    public ConcurrentMatrix(int rows, int cols, int stripes) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+        if((long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix " + rows + "x" + cols + " is too large for dense storage.");
+        }
+        if(stripes < 1) {
+            throw new IllegalArgumentException("Expected stripes >= 1, got " + stripes);
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.elements = new AtomicLongArray(rows * cols);
+        this.stripes = stripes;
+        this.startedWrites = new AtomicLongArray(stripes);
+        this.completedWrites = new AtomicLongArray(stripes);
+        this.pauses = new AtomicIntegerArray(stripes);
+    }
+
+    /**
+     * Creates a concurrent copy of given matrix.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return concurrent copy
+     */
+    public static ConcurrentMatrix from(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        double[][] array = matrix instanceof ConcurrentMatrix
+                ? ((ConcurrentMatrix) matrix).snapshot().toArray()
+                : matrix.toArray();
+
+        ConcurrentMatrix result = new ConcurrentMatrix(matrix.getRowsCount(), matrix.getColsCount());
+        for(int i = 0, index = 0; i < result.rows; ++i) {
+            for(int j = 0; j < result.cols; ++j) {
+                result.elements.set(index++, Double.doubleToRawLongBits(array[i][j]));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return Double.longBitsToDouble(elements.get(index(i, j)));
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        int index = index(i, j);
+        int stripe = beginWrite(i);
+        try {
+            elements.set(index, Double.doubleToRawLongBits(value));
+        } finally {
+            completedWrites.incrementAndGet(stripe);
+        }
+
+        return this;
+    }
+
+    /**
+     * Atomically adds given value to element (i, j).
+     *
+     * @param i row
+     * @param j column
+     * @param delta value to add
+     * @throws IllegalArgumentException if i or j is out of range
+     * @return new value of element
+     */
+    public double addTo(int i, int j, double delta) {
+        int index = index(i, j);
+        int stripe = beginWrite(i);
+        try {
+            while(true) {
+                long current = elements.get(index);
+                double updated = Double.longBitsToDouble(current) + delta;
+                if(elements.compareAndSet(index, current, Double.doubleToRawLongBits(updated))) {
+                    return updated;
+                }
+            }
+        } finally {
+            completedWrites.incrementAndGet(stripe);
+        }
+    }
+
+    /**
+     * Counts a started write to given row, first waiting while a snapshot pauses writers of its stripe.
+     * A write which starts while writers are paused is counted as completed at once and retried later.
+     *
+     * @return stripe of given row
+     */
+    private int beginWrite(int i) {
+        int stripe = i % stripes;
+        while(true) {
+            startedWrites.incrementAndGet(stripe);
+            if(pauses.get(stripe) == 0) {
+                return stripe;
+            }
+
+            completedWrites.incrementAndGet(stripe);
+            while(pauses.get(stripe) != 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private int index(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+
+        return i * cols + j;
+    }
+
+    /**
+     * Atomically adds each element of given matrix to the corresponding element of this matrix. Each
+     * element is added atomically, but other threads may see some elements already added and others not.
+     *
+     * @param that matrix to add
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if dimensions of matrices differ
+     * @return this matrix
+     */
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(that).getRowsCount() != rows || that.getColsCount() != cols) {
+            throw new IncompatibleOperandException();
+        }
+
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                addTo(i, j, that.get(i, j));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Atomically subtracts each element of given matrix from the corresponding element of this matrix,
+     * with the same guarantees as {@link #add(IMatrix)}.
+     *
+     * @param that matrix to subtract
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if dimensions of matrices differ
+     * @return this matrix
+     */
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(that).getRowsCount() != rows || that.getColsCount() != cols) {
+            throw new IncompatibleOperandException();
+        }
+
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                addTo(i, j, -that.get(i, j));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Copies all elements of this matrix while writers continue. Rows of each stripe are copied in a
+     * state in which every write to that stripe has either completed or not started, but different
+     * stripes are copied one after another, so a snapshot taken while writers are active does not
+     * necessarily show the whole matrix at a single point in time. Once writers are done, a snapshot shows
+     * all of their writes.
+     * <p>A stripe is copied again if a write to it was in progress or started while it was copied. After
+     * a few such attempts, writers of that stripe wait until its rows are copied.
+     *
+     * @return dense copy
+     */
+    public DenseMatrix snapshot() {
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        double[] data = result.getElements();
+
+        for(int stripe = 0; stripe < stripes; ++stripe) {
+            if(!copyStripeOptimistically(stripe, data)) {
+                copyStripePaused(stripe, data);
+            }
+        }
+
+        return result;
+    }
+
+    private boolean copyStripeOptimistically(int stripe, double[] data) {
+        for(int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; ++attempt) {
+            long completed = completedWrites.get(stripe);
+            copyStripe(stripe, data);
+            if(startedWrites.get(stripe) == completed) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void copyStripePaused(int stripe, double[] data) {
+        pauses.incrementAndGet(stripe);
+        try {
+            while(true) {
+                long completed = completedWrites.get(stripe);
+                if(startedWrites.get(stripe) == completed) {
+                    break;
+                }
+                Thread.yield();
+            }
+
+            copyStripe(stripe, data);
+        } finally {
+            pauses.decrementAndGet(stripe);
+        }
+    }
+
+    private void copyStripe(int stripe, double[] data) {
+        for(int i = stripe; i < rows; i += stripes) {
+            for(int index = i * cols, end = index + cols; index < end; ++index) {
+                data[index] = Double.longBitsToDouble(elements.get(index));
+            }
+        }
+    }
+
+    /**
+     * Creates a concurrent copy of this matrix from its {@link #snapshot()}.
+     */
+    @Override
+    public IMatrix copy() {
+        return from(this);
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new ConcurrentMatrix(rows, cols);
+    }
+
+    /**
+     * Gets elements of this matrix from its {@link #snapshot()}.
+     */
+    @Override
+    public double[][] toArray() {
+        return snapshot().toArray();
+    }
+}
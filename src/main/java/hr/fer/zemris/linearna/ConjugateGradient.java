@@ -0,0 +1,58 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Preconditioned conjugate gradient method for symmetric positive definite systems. Every iteration costs
+ * one operator product, one preconditioner application and a few vector operations. Preconditioner must be
+ * symmetric positive definite as well.
+ *
+ * @author filip
+ *
+ */
+public class ConjugateGradient extends IterativeSolver {
+
+    @Override
+    IterativeResult iterate(LinearOperator a, double[] b, double[] x, double bNorm) {
+        int n = b.length;
+        double[] r = new double[n];
+        double[] z = new double[n];
+        double[] p = new double[n];
+        double[] ap = new double[n];
+
+        residual(a, b, x, r);
+        double relativeResidual = norm(r) / bNorm;
+        if(relativeResidual <= getTolerance()) {
+            return result(x, 0, relativeResidual);
+        }
+
+        getPreconditioner().apply(r, z);
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = dot(r, z);
+
+        int iteration = 0;
+        while(iteration < getMaxIterations()) {
+            a.apply(p, ap);
+            double pAp = dot(p, ap);
+            if(pAp == 0) {
+                break;
+            }
+
+            double alpha = rz / pAp;
+            axpy(alpha, p, x);
+            axpy(-alpha, ap, r);
+            relativeResidual = norm(r) / bNorm;
+            if(completed(++iteration, relativeResidual)) {
+                break;
+            }
+
+            getPreconditioner().apply(r, z);
+            double rzNew = dot(r, z);
+            double beta = rzNew / rz;
+            for(int i = 0; i < n; ++i) {
+                p[i] = z[i] + beta * p[i];
+            }
+            rz = rzNew;
+        }
+
+        return result(x, iteration, relativeResidual);
+    }
+}
@@ -0,0 +1,459 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Sparse matrix in coordinate (COO) format, which stores row index, column index and value of each stored
+ * element. Setting elements appends them in O(1) amortized time, which makes this format suitable for
+ * assembling matrices. Before elements are read, entries are sorted by row and column and duplicates are
+ * collapsed, the latest set value winning. Arithmetic is delegated to {@link CsrMatrix}.
+ *
+ * @author filip
+ *
+ */
+public class CooMatrix extends AbstractMatrix {
+
+    private final int rows;
+    private final int cols;
+    private int[] rowIndexes;
+    private int[] colIndexes;
+    private double[] values;
+    private int size;
+    /**
+     * True if entries are sorted by row and column and contain no duplicates.
+     */
+    private boolean compacted;
+
+    /**
+     * Constructs a rows x cols matrix with no stored elements.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if rows or cols is negative
+     */
+    public CooMatrix(int rows, int cols) {
+        this(rows, cols, 8);
+    }
+
+    /**
+     * Constructs a rows x cols matrix with no stored elements and room for given number of elements.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param capacity expected number of stored elements
+     * @throws IllegalArgumentException if any argument is negative
+     */
+    public CooMatrix(int rows, int cols, int capacity) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+        if(capacity < 0) {
+            throw new IllegalArgumentException("Expected capacity >= 0, got " + capacity);
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.rowIndexes = new int[capacity];
+        this.colIndexes = new int[capacity];
+        this.values = new double[capacity];
+        this.compacted = true;
+    }
+
+    /**
+     * Creates a coordinate copy of given matrix, storing only its non-zero elements.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return sparse copy
+     */
+    public static CooMatrix from(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix instanceof CooMatrix) {
+            return (CooMatrix) matrix.copy();
+        }
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        if(matrix instanceof CsrMatrix) {
+            CsrMatrix csr = (CsrMatrix) matrix;
+            int[] rowPointers = csr.getRowPointers();
+            CooMatrix result = new CooMatrix(rows, cols, csr.getNonZerosCount());
+            for(int i = 0; i < rows; ++i) {
+                for(int k = rowPointers[i], end = rowPointers[i + 1]; k < end; ++k) {
+                    result.append(i, csr.getColIndexes()[k], csr.getValues()[k]);
+                }
+            }
+
+            return result;
+        }
+
+        CooMatrix result = new CooMatrix(rows, cols);
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                double value = matrix.get(i, j);
+                if(value != 0) {
+                    result.append(i, j, value);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets number of stored elements.
+     *
+     * @return number of stored elements
+     */
+    public int getNonZerosCount() {
+        compact();
+        return size;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        checkIndexes(i, j);
+        compact();
+
+        int position = find(i, j);
+        return position < 0 ? 0.0 : values[position];
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        checkIndexes(i, j);
+
+        if(compacted) {
+            int position = find(i, j);
+            if(position >= 0) {
+                values[position] = value;
+                return this;
+            }
+            if(value == 0) {
+                return this;
+            }
+            if(position != -size - 1) {
+                compacted = false;
+            }
+        } else {
+            compacted = false;
+        }
+
+        append(i, j, value);
+        return this;
+    }
+
+    private void checkIndexes(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+    }
+
+    private void append(int i, int j, double value) {
+        if(size == values.length) {
+            int capacity = Math.max(8, size + (size >> 1));
+            rowIndexes = Arrays.copyOf(rowIndexes, capacity);
+            colIndexes = Arrays.copyOf(colIndexes, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        rowIndexes[size] = i;
+        colIndexes[size] = j;
+        values[size++] = value;
+    }
+
+    /**
+     * Finds position of element (i, j) in compacted entries.
+     *
+     * @return position of stored element, or (-insertionPoint - 1) if element is not stored
+     */
+    private int find(int i, int j) {
+        int low = 0;
+        int high = size - 1;
+
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int row = rowIndexes[middle];
+            int col = colIndexes[middle];
+            if(row < i || (row == i && col < j)) {
+                low = middle + 1;
+            } else if(row > i || col > j) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -low - 1;
+    }
+
+    /**
+     * Sorts entries by row and column with two stable counting sorts and keeps only the latest of
+     * duplicate entries.
+     */
+    private void compact() {
+        if(compacted) {
+            return;
+        }
+
+        int[] byCol = countingSort(colIndexes, cols, identity(size));
+        int[] order = countingSort(rowIndexes, rows, byCol);
+
+        int[] newRows = new int[size];
+        int[] newCols = new int[size];
+        double[] newValues = new double[size];
+        int newSize = 0;
+        for(int k = 0; k < size; ++k) {
+            int entry = order[k];
+            int row = rowIndexes[entry];
+            int col = colIndexes[entry];
+            if(newSize > 0 && newRows[newSize - 1] == row && newCols[newSize - 1] == col) {
+                newValues[newSize - 1] = values[entry];
+                continue;
+            }
+
+            newRows[newSize] = row;
+            newCols[newSize] = col;
+            newValues[newSize++] = values[entry];
+        }
+
+        rowIndexes = newRows;
+        colIndexes = newCols;
+        values = newValues;
+        size = newSize;
+        compacted = true;
+    }
+
+    private static int[] identity(int size) {
+        int[] result = new int[size];
+        for(int i = 0; i < size; ++i) {
+            result[i] = i;
+        }
+
+        return result;
+    }
+
+    private static int[] countingSort(int[] keys, int keysCount, int[] order) {
+        int[] starts = new int[keysCount + 1];
+        for(int entry : order) {
+            starts[keys[entry] + 1]++;
+        }
+        for(int k = 0; k < keysCount; ++k) {
+            starts[k + 1] += starts[k];
+        }
+
+        int[] result = new int[order.length];
+        for(int entry : order) {
+            result[starts[keys[entry]]++] = entry;
+        }
+
+        return result;
+    }
+
+    /**
+     * Converts this matrix to compressed sparse row format.
+     *
+     * @return CSR matrix with the same elements
+     */
+    public CsrMatrix toCsr() {
+        compact();
+
+        int[] rowPointers = new int[rows + 1];
+        for(int k = 0; k < size; ++k) {
+            rowPointers[rowIndexes[k] + 1]++;
+        }
+        for(int i = 0; i < rows; ++i) {
+            rowPointers[i + 1] += rowPointers[i];
+        }
+
+        return CsrMatrix.of(rows, cols, rowPointers, Arrays.copyOf(colIndexes, size), Arrays.copyOf(values, size));
+    }
+
+    @Override
+    public IMatrix copy() {
+        compact();
+
+        CooMatrix result = new CooMatrix(rows, cols, size);
+        System.arraycopy(rowIndexes, 0, result.rowIndexes, 0, size);
+        System.arraycopy(colIndexes, 0, result.colIndexes, 0, size);
+        System.arraycopy(values, 0, result.values, 0, size);
+        result.size = size;
+
+        return result;
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new CooMatrix(rows, cols);
+    }
+
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return super.nTransponse(true);
+        }
+
+        compact();
+        CooMatrix result = new CooMatrix(cols, rows, size);
+        System.arraycopy(colIndexes, 0, result.rowIndexes, 0, size);
+        System.arraycopy(rowIndexes, 0, result.colIndexes, 0, size);
+        System.arraycopy(values, 0, result.values, 0, size);
+        result.size = size;
+        result.compacted = false;
+
+        return result;
+    }
+
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.add(that);
+        }
+
+        return replaceWith(toCsr().add(that));
+    }
+
+    @Override
+    public IMatrix nAdd(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.nAdd(that);
+        }
+
+        return from(toCsr().add(that));
+    }
+
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.sub(that);
+        }
+
+        return replaceWith(toCsr().sub(that));
+    }
+
+    @Override
+    public IMatrix nSub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.nSub(that);
+        }
+
+        return from(toCsr().sub(that));
+    }
+
+    /**
+     * Replaces elements of this matrix with elements of given matrix of the same dimensions.
+     *
+     * @param matrix matrix whose elements are copied
+     * @return this matrix
+     */
+    IMatrix replaceWith(IMatrix matrix) {
+        CooMatrix result = from(matrix);
+        this.rowIndexes = result.rowIndexes;
+        this.colIndexes = result.colIndexes;
+        this.values = result.values;
+        this.size = result.size;
+        this.compacted = true;
+
+        return this;
+    }
+
+    /**
+     * Multiplies this matrix with given matrix through {@link CsrMatrix#nMultiply(IMatrix)}.
+     *
+     * @param that right operand
+     * @throws IncompatibleOperandException if this matrix's column count differs from given matrix's row count
+     * @return product
+     */
+    @Override
+    public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException {
+        return toCsr().nMultiply(that);
+    }
+
+    /**
+     * Stores product of this matrix and given matrix into given destination through
+     * {@link CsrMatrix#nMultiply(IMatrix, IMatrix)}.
+     *
+     * @param that right operand
+     * @param dest destination matrix
+     * @throws IncompatibleOperandException if this matrix's column count differs from given matrix's row count
+     * @throws IllegalArgumentException if destination's dimensions differ from product's or if destination
+     *         is an operand
+     * @return destination matrix
+     */
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(dest == this) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        return toCsr().nMultiply(that, dest);
+    }
+
+    /**
+     * Multiplies this matrix with given column vector.
+     *
+     * @param vector right operand
+     * @throws NullPointerException if given vector is null
+     * @throws IncompatibleOperandException if this matrix's column count differs from vector's dimension
+     * @return product vector
+     */
+    public IVector nMultiply(IVector vector) throws IncompatibleOperandException {
+        if(cols != Objects.requireNonNull(vector).getDimension()) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[] result = new double[rows];
+        multiply(vector.toArray(), result);
+        return Vector.adopt(result);
+    }
+
+    /**
+     * Stores product of this matrix and vector x into array y.
+     *
+     * @param x vector elements, of length equal to column count
+     * @param y result elements, of length equal to row count
+     */
+    public void multiply(double[] x, double[] y) {
+        if(x.length != cols || y.length != rows) {
+            throw new IllegalArgumentException("Expected vectors of lengths " + cols + " and " + rows
+                    + ", got " + x.length + " and " + y.length);
+        }
+
+        compact();
+        Arrays.fill(y, 0.0);
+        for(int k = 0; k < size; ++k) {
+            y[rowIndexes[k]] += values[k] * x[colIndexes[k]];
+        }
+    }
+
+    @Override
+    public double[][] toArray() {
+        compact();
+        double[][] array = new double[rows][cols];
+
+        for(int k = 0; k < size; ++k) {
+            array[rowIndexes[k]][colIndexes[k]] = values[k];
+        }
+
+        return array;
+    }
+}
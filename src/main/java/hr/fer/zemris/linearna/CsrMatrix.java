@@ -0,0 +1,652 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Sparse matrix in compressed sparse row (CSR) format. Column indexes and values of non-zero elements of row i
+ * are stored, sorted by column, in range [rowPointers[i], rowPointers[i + 1]) of the index and value arrays,
+ * so memory and time of sparse-aware operations are proportional to the number of stored elements.
+ * Setting an element which is not stored shifts all the following elements, so large matrices should be
+ * assembled with {@link CooMatrix} and converted with {@link CooMatrix#toCsr()}.
+ *
+ * @author filip
+ *
+ */
+public class CsrMatrix extends AbstractMatrix {
+
+    private final int rows;
+    private final int cols;
+    private int[] rowPointers;
+    private int[] colIndexes;
+    private double[] values;
+
+    /**
+     * Constructs a rows x cols matrix with no stored elements.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if rows or cols is negative
+     */
+    public CsrMatrix(int rows, int cols) {
+        this(rows, cols, new int[checkDimensions(rows, cols) + 1], new int[0], new double[0]);
+    }
+
+    private CsrMatrix(int rows, int cols, int[] rowPointers, int[] colIndexes, double[] values) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPointers = rowPointers;
+        this.colIndexes = colIndexes;
+        this.values = values;
+    }
+
+    /**
+     * Creates a matrix from given CSR arrays, which are used directly. Column indexes within each row
+     * must be strictly increasing.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param rowPointers array of rows + 1 offsets into index and value arrays
+     * @param colIndexes column indexes of stored elements
+     * @param values values of stored elements
+     * @throws NullPointerException if any array is null
+     * @throws IllegalArgumentException if arrays don't describe a valid rows x cols matrix
+     * @return matrix backed by given arrays
+     */
+    public static CsrMatrix of(int rows, int cols, int[] rowPointers, int[] colIndexes, double[] values) {
+        checkDimensions(rows, cols);
+        Objects.requireNonNull(rowPointers);
+        Objects.requireNonNull(colIndexes);
+        Objects.requireNonNull(values);
+        if(rowPointers.length != rows + 1 || rowPointers[0] != 0) {
+            throw new IllegalArgumentException("Expected " + (rows + 1) + " row pointers starting with 0.");
+        }
+        int nonZeros = rowPointers[rows];
+        if(colIndexes.length < nonZeros || values.length < nonZeros) {
+            throw new IllegalArgumentException("Expected at least " + nonZeros + " indexes and values.");
+        }
+        for(int i = 0; i < rows; ++i) {
+            if(rowPointers[i] > rowPointers[i + 1]) {
+                throw new IllegalArgumentException("Row pointers must be non-decreasing.");
+            }
+            for(int k = rowPointers[i]; k < rowPointers[i + 1]; ++k) {
+                if(colIndexes[k] < 0 || colIndexes[k] >= cols
+                        || (k > rowPointers[i] && colIndexes[k] <= colIndexes[k - 1])) {
+                    throw new IllegalArgumentException("Invalid column index " + colIndexes[k] + " in row " + i);
+                }
+            }
+        }
+
+        return new CsrMatrix(rows, cols, rowPointers, colIndexes, values);
+    }
+
+    private static int checkDimensions(int rows, int cols) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Creates a sparse copy of given matrix, storing only its non-zero elements.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return sparse copy
+     */
+    public static CsrMatrix from(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix instanceof CsrMatrix) {
+            return (CsrMatrix) matrix.copy();
+        }
+        if(matrix instanceof CooMatrix) {
+            return ((CooMatrix) matrix).toCsr();
+        }
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        int[] rowPointers = new int[rows + 1];
+        int nonZeros = 0;
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                if(matrix.get(i, j) != 0) {
+                    nonZeros++;
+                }
+            }
+            rowPointers[i + 1] = nonZeros;
+        }
+
+        int[] colIndexes = new int[nonZeros];
+        double[] values = new double[nonZeros];
+        for(int i = 0, k = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                double value = matrix.get(i, j);
+                if(value != 0) {
+                    colIndexes[k] = j;
+                    values[k++] = value;
+                }
+            }
+        }
+
+        return new CsrMatrix(rows, cols, rowPointers, colIndexes, values);
+    }
+
+    /**
+     * Gets given sparse matrix in CSR format without copying it, converting only a {@link CooMatrix}.
+     *
+     * @param matrix {@link CsrMatrix} or {@link CooMatrix}
+     * @return CSR matrix with the same elements
+     */
+    static CsrMatrix sparse(IMatrix matrix) {
+        return matrix instanceof CsrMatrix ? (CsrMatrix) matrix : ((CooMatrix) matrix).toCsr();
+    }
+
+    /**
+     * Gets number of stored elements.
+     *
+     * @return number of stored elements
+     */
+    public int getNonZerosCount() {
+        return rowPointers[rows];
+    }
+
+    int[] getRowPointers() {
+        return rowPointers;
+    }
+
+    int[] getColIndexes() {
+        return colIndexes;
+    }
+
+    double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        checkIndexes(i, j);
+
+        int position = find(i, j);
+        return position < 0 ? 0.0 : values[position];
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        checkIndexes(i, j);
+
+        int position = find(i, j);
+        if(position >= 0) {
+            values[position] = value;
+            return this;
+        }
+        if(value == 0) {
+            return this;
+        }
+
+        insert(i, -position - 1, j, value);
+        return this;
+    }
+
+    private void checkIndexes(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+    }
+
+    /**
+     * Finds position of element (i, j) in index and value arrays.
+     *
+     * @return position of stored element, or (-insertionPoint - 1) if element is not stored
+     */
+    private int find(int i, int j) {
+        int low = rowPointers[i];
+        int high = rowPointers[i + 1] - 1;
+
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            int col = colIndexes[middle];
+            if(col < j) {
+                low = middle + 1;
+            } else if(col > j) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -low - 1;
+    }
+
+    private void insert(int row, int position, int col, double value) {
+        int nonZeros = rowPointers[rows];
+        if(nonZeros == colIndexes.length) {
+            int capacity = Math.max(8, nonZeros + (nonZeros >> 1));
+            colIndexes = Arrays.copyOf(colIndexes, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        System.arraycopy(colIndexes, position, colIndexes, position + 1, nonZeros - position);
+        System.arraycopy(values, position, values, position + 1, nonZeros - position);
+        colIndexes[position] = col;
+        values[position] = value;
+
+        for(int i = row + 1; i <= rows; ++i) {
+            rowPointers[i]++;
+        }
+    }
+
+    @Override
+    public IMatrix copy() {
+        int nonZeros = rowPointers[rows];
+        return new CsrMatrix(rows, cols, rowPointers.clone(),
+                Arrays.copyOf(colIndexes, nonZeros), Arrays.copyOf(values, nonZeros));
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new CsrMatrix(rows, cols);
+    }
+
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return super.nTransponse(true);
+        }
+
+        int nonZeros = rowPointers[rows];
+        int[] resultPointers = new int[cols + 1];
+        for(int k = 0; k < nonZeros; ++k) {
+            resultPointers[colIndexes[k] + 1]++;
+        }
+        for(int j = 0; j < cols; ++j) {
+            resultPointers[j + 1] += resultPointers[j];
+        }
+
+        int[] next = Arrays.copyOf(resultPointers, cols);
+        int[] resultIndexes = new int[nonZeros];
+        double[] resultValues = new double[nonZeros];
+        for(int i = 0; i < rows; ++i) {
+            for(int k = rowPointers[i], end = rowPointers[i + 1]; k < end; ++k) {
+                int position = next[colIndexes[k]]++;
+                resultIndexes[position] = i;
+                resultValues[position] = values[k];
+            }
+        }
+
+        return new CsrMatrix(cols, rows, resultPointers, resultIndexes, resultValues);
+    }
+
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.add(that);
+        }
+
+        CsrMatrix sum = merge(sparse(that), false);
+        this.rowPointers = sum.rowPointers;
+        this.colIndexes = sum.colIndexes;
+        this.values = sum.values;
+        return this;
+    }
+
+    @Override
+    public IMatrix nAdd(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.nAdd(that);
+        }
+
+        return merge(sparse(that), false);
+    }
+
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.sub(that);
+        }
+
+        CsrMatrix difference = merge(sparse(that), true);
+        this.rowPointers = difference.rowPointers;
+        this.colIndexes = difference.colIndexes;
+        this.values = difference.values;
+        return this;
+    }
+
+    @Override
+    public IMatrix nSub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof CsrMatrix) && !(that instanceof CooMatrix)) {
+            return super.nSub(that);
+        }
+
+        return merge(sparse(that), true);
+    }
+
+    /**
+     * Merges rows of this and given matrix, adding or subtracting given matrix's elements.
+     */
+    private CsrMatrix merge(CsrMatrix that, boolean subtract) throws IncompatibleOperandException {
+        if(rows != that.rows || cols != that.cols) {
+            throw new IncompatibleOperandException();
+        }
+
+        int[] resultPointers = new int[rows + 1];
+        int[] resultIndexes = new int[rowPointers[rows] + that.rowPointers[rows]];
+        double[] resultValues = new double[resultIndexes.length];
+        int position = 0;
+
+        for(int i = 0; i < rows; ++i) {
+            int a = rowPointers[i], aEnd = rowPointers[i + 1];
+            int b = that.rowPointers[i], bEnd = that.rowPointers[i + 1];
+
+            while(a < aEnd || b < bEnd) {
+                int aCol = a < aEnd ? colIndexes[a] : Integer.MAX_VALUE;
+                int bCol = b < bEnd ? that.colIndexes[b] : Integer.MAX_VALUE;
+
+                if(aCol < bCol) {
+                    resultIndexes[position] = aCol;
+                    resultValues[position++] = values[a++];
+                } else if(bCol < aCol) {
+                    resultIndexes[position] = bCol;
+                    resultValues[position++] = subtract ? 0.0 - that.values[b++] : that.values[b++];
+                } else {
+                    resultIndexes[position] = aCol;
+                    resultValues[position++] = subtract ? values[a++] - that.values[b++] : values[a++] + that.values[b++];
+                }
+            }
+            resultPointers[i + 1] = position;
+        }
+
+        return new CsrMatrix(rows, cols, resultPointers,
+                Arrays.copyOf(resultIndexes, position), Arrays.copyOf(resultValues, position));
+    }
+
+    /**
+     * Multiplies this matrix with given matrix. Product of two sparse matrices is a {@link CsrMatrix}
+     * calculated row by row with a dense accumulator, while product with any other matrix is a
+     * {@link DenseMatrix} obtained by scaling rows of the right operand with stored elements.
+     *
+     * @param that right operand
+     * @throws IncompatibleOperandException if this matrix's column count differs from given matrix's row count
+     * @return product
+     */
+    @Override
+    public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException {
+        if(cols != Objects.requireNonNull(that).getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+
+        if(that instanceof CsrMatrix || that instanceof CooMatrix) {
+            return multiplySparse(sparse(that));
+        }
+
+        DenseMatrix result = new DenseMatrix(rows, that.getColsCount());
+        multiplyDense(MatrixMultiplication.dense(that), result);
+        return result;
+    }
+
+    /**
+     * Stores product of this matrix and given matrix into given destination, calculated as in
+     * {@link #nMultiply(IMatrix)}, so no dense copy of this matrix is made. Product of two sparse
+     * matrices is stored element by element unless destination is a {@link CsrMatrix}, a {@link CooMatrix}
+     * or a {@link DenseMatrix}.
+     *
+     * @param that right operand
+     * @param dest destination matrix
+     * @throws IncompatibleOperandException if this matrix's column count differs from given matrix's row count
+     * @throws IllegalArgumentException if destination's dimensions differ from product's or if destination
+     *         is an operand
+     * @return destination matrix
+     */
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(cols != Objects.requireNonNull(that).getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, that.getColsCount());
+        if(dest == this || dest == that) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        if(that instanceof CsrMatrix || that instanceof CooMatrix) {
+            CsrMatrix product = multiplySparse(sparse(that));
+            if(dest instanceof CsrMatrix) {
+                CsrMatrix result = (CsrMatrix) dest;
+                result.rowPointers = product.rowPointers;
+                result.colIndexes = product.colIndexes;
+                result.values = product.values;
+            } else if(dest instanceof CooMatrix) {
+                ((CooMatrix) dest).replaceWith(product);
+            } else {
+                product.storeInto(dest);
+            }
+            return dest;
+        }
+
+        DenseMatrix b = MatrixMultiplication.dense(that);
+        if(dest instanceof DenseMatrix) {
+            ((DenseMatrix) dest).clear();
+            multiplyDense(b, (DenseMatrix) dest);
+            return dest;
+        }
+
+        DenseMatrix product = new DenseMatrix(rows, b.getColsCount());
+        multiplyDense(b, product);
+        double[] elements = product.getElements();
+        for(int i = 0, index = 0, resultCols = product.getColsCount(); i < rows; ++i) {
+            for(int j = 0; j < resultCols; ++j) {
+                dest.set(i, j, elements[index++]);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Stores product of given matrix and given sparse matrix into given destination. Each row of the
+     * product is accumulated from rows of the sparse matrix which are selected by non-zero elements of the
+     * left operand's row, so only one row of the product is allocated besides destination.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @param dest destination of matching dimensions, which is not an operand
+     */
+    static void multiply(IMatrix left, CsrMatrix right, IMatrix dest) {
+        int leftRows = left.getRowsCount();
+        int leftCols = left.getColsCount();
+        int resultCols = right.cols;
+
+        DenseMatrix denseLeft = left instanceof DenseMatrix ? (DenseMatrix) left : null;
+        DenseMatrix denseDest = dest instanceof DenseMatrix ? (DenseMatrix) dest : null;
+        double[] c = denseDest != null ? denseDest.getElements() : new double[resultCols];
+
+        for(int i = 0; i < leftRows; ++i) {
+            int cRow = denseDest != null ? denseDest.getOffset() + i * denseDest.getStride() : 0;
+            Arrays.fill(c, cRow, cRow + resultCols, 0.0);
+
+            for(int k = 0; k < leftCols; ++k) {
+                double aik = denseLeft != null
+                        ? denseLeft.getElements()[denseLeft.getOffset() + i * denseLeft.getStride() + k]
+                        : left.get(i, k);
+                if(aik == 0) {
+                    continue;
+                }
+                for(int b = right.rowPointers[k], bEnd = right.rowPointers[k + 1]; b < bEnd; ++b) {
+                    c[cRow + right.colIndexes[b]] += aik * right.values[b];
+                }
+            }
+
+            if(denseDest == null) {
+                for(int j = 0; j < resultCols; ++j) {
+                    dest.set(i, j, c[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets all elements of given destination of matching dimensions to elements of this matrix.
+     */
+    private void storeInto(IMatrix dest) {
+        if(dest instanceof DenseMatrix) {
+            DenseMatrix result = (DenseMatrix) dest;
+            result.clear();
+            double[] c = result.getElements();
+            for(int i = 0; i < rows; ++i) {
+                int cRow = result.getOffset() + i * result.getStride();
+                for(int k = rowPointers[i], end = rowPointers[i + 1]; k < end; ++k) {
+                    c[cRow + colIndexes[k]] = values[k];
+                }
+            }
+            return;
+        }
+
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0, k = rowPointers[i], end = rowPointers[i + 1]; j < cols; ++j) {
+                if(k < end && colIndexes[k] == j) {
+                    dest.set(i, j, values[k++]);
+                } else {
+                    dest.set(i, j, 0.0);
+                }
+            }
+        }
+    }
+
+    private CsrMatrix multiplySparse(CsrMatrix that) {
+        int resultCols = that.cols;
+        int[] resultPointers = new int[rows + 1];
+        int[] resultIndexes = new int[Math.max(rowPointers[rows], that.rowPointers[that.rows])];
+        double[] resultValues = new double[resultIndexes.length];
+
+        double[] accumulator = new double[resultCols];
+        int[] marker = new int[resultCols];
+        Arrays.fill(marker, -1);
+        int[] rowColumns = new int[resultCols];
+        int position = 0;
+
+        for(int i = 0; i < rows; ++i) {
+            int rowNonZeros = 0;
+            for(int a = rowPointers[i], aEnd = rowPointers[i + 1]; a < aEnd; ++a) {
+                int k = colIndexes[a];
+                double aik = values[a];
+                for(int b = that.rowPointers[k], bEnd = that.rowPointers[k + 1]; b < bEnd; ++b) {
+                    int j = that.colIndexes[b];
+                    if(marker[j] != i) {
+                        marker[j] = i;
+                        rowColumns[rowNonZeros++] = j;
+                        accumulator[j] = aik * that.values[b];
+                    } else {
+                        accumulator[j] += aik * that.values[b];
+                    }
+                }
+            }
+
+            Arrays.sort(rowColumns, 0, rowNonZeros);
+            if(position + rowNonZeros > resultIndexes.length) {
+                int capacity = Math.max(position + rowNonZeros, resultIndexes.length * 2);
+                resultIndexes = Arrays.copyOf(resultIndexes, capacity);
+                resultValues = Arrays.copyOf(resultValues, capacity);
+            }
+            for(int r = 0; r < rowNonZeros; ++r) {
+                int j = rowColumns[r];
+                resultIndexes[position] = j;
+                resultValues[position++] = accumulator[j];
+            }
+            resultPointers[i + 1] = position;
+        }
+
+        return new CsrMatrix(rows, resultCols, resultPointers,
+                Arrays.copyOf(resultIndexes, position), Arrays.copyOf(resultValues, position));
+    }
+
+    /**
+     * Accumulates product of this matrix and given dense matrix into given zero-filled result.
+     */
+    private void multiplyDense(DenseMatrix that, DenseMatrix result) {
+        int resultCols = that.getColsCount();
+        double[] c = result.getElements();
+        double[] b = that.getElements();
+        int bOffset = that.getOffset();
+        int bStride = that.getStride();
+
+        for(int i = 0; i < rows; ++i) {
+            int cRow = result.getOffset() + i * result.getStride();
+            for(int a = rowPointers[i], aEnd = rowPointers[i + 1]; a < aEnd; ++a) {
+                double aik = values[a];
+                int bRow = bOffset + colIndexes[a] * bStride;
+                for(int j = 0; j < resultCols; ++j) {
+                    c[cRow + j] += aik * b[bRow + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies this matrix with given column vector.
+     *
+     * @param vector right operand
+     * @throws NullPointerException if given vector is null
+     * @throws IncompatibleOperandException if this matrix's column count differs from vector's dimension
+     * @return product vector
+     */
+    public IVector nMultiply(IVector vector) throws IncompatibleOperandException {
+        if(cols != Objects.requireNonNull(vector).getDimension()) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[] result = new double[rows];
+        multiply(vector.toArray(), result);
+        return Vector.adopt(result);
+    }
+
+    /**
+     * Stores product of this matrix and vector x into array y.
+     *
+     * @param x vector elements, of length equal to column count
+     * @param y result elements, of length equal to row count
+     */
+    public void multiply(double[] x, double[] y) {
+        if(x.length != cols || y.length != rows) {
+            throw new IllegalArgumentException("Expected vectors of lengths " + cols + " and " + rows
+                    + ", got " + x.length + " and " + y.length);
+        }
+
+        for(int i = 0; i < rows; ++i) {
+            double sum = 0.0;
+            for(int k = rowPointers[i], end = rowPointers[i + 1]; k < end; ++k) {
+                sum += values[k] * x[colIndexes[k]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] array = new double[rows][cols];
+
+        for(int i = 0; i < rows; ++i) {
+            double[] row = array[i];
+            for(int k = rowPointers[i], end = rowPointers[i + 1]; k < end; ++k) {
+                row[colIndexes[k]] = values[k];
+            }
+        }
+
+        return array;
+    }
+}
@@ -0,0 +1,50 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * Factorization of a system matrix A which can be reused to solve A * X = B for any number of right-hand
+ * sides. Factorizing costs O(n^3) once, while each solution costs only O(n^2) per right-hand side.
+ *
+ * @author filip
+ *
+ */
+public interface Decomposition {
+
+    /**
+     * Gets number of rows of factorized matrix, which must equal row count of right-hand sides.
+     *
+     * @return number of rows
+     */
+    public int getRowsCount();
+
+    /**
+     * Gets number of columns of factorized matrix, which equals dimension of solutions.
+     *
+     * @return number of columns
+     */
+    public int getColsCount();
+
+    /**
+     * Solves system A * X = B for all right-hand sides at once.
+     *
+     * @param b right-hand sides, one per column
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if given matrix's row count differs from factorized matrix's
+     * @throws UnsupportedOperationException if factorized matrix is singular
+     * @return solutions, one per column
+     */
+    public DenseMatrix solve(IMatrix b) throws IncompatibleOperandException;
+
+    /**
+     * Solves system A * x = b.
+     *
+     * @param b right-hand side
+     * @throws NullPointerException if given vector is null
+     * @throws IncompatibleOperandException if given vector's dimension differs from factorized matrix's
+     *         row count
+     * @throws UnsupportedOperationException if factorized matrix is singular
+     * @return solution
+     */
+    public IVector solve(IVector b) throws IncompatibleOperandException;
+}
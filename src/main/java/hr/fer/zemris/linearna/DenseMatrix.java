@@ -0,0 +1,344 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Matrix whose elements are stored in row-major order in a single contiguous array. Element (i, j) is
+ * stored at index <code>offset + i * stride + j</code>. Bulk operations between two dense matrices work
+ * directly on the backing arrays, while operations with other {@link IMatrix} implementations fall back to
+ * {@link AbstractMatrix} defaults.
+ *
+ * @author filip
+ *
+ */
+public class DenseMatrix extends AbstractMatrix {
+
+    private final double[] elements;
+    private final int offset;
+    private final int rows;
+    private final int cols;
+    private final int stride;
+
+    /**
+     * Constructs a rows x cols matrix with all elements set to 0.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if rows or cols is negative
+     */
+    public DenseMatrix(int rows, int cols) {
+        this(checkedLength(rows, cols), rows, cols);
+    }
+
+    private DenseMatrix(long length, int rows, int cols) {
+        this(new double[(int) length], 0, rows, cols, cols);
+    }
+
+    /**
+     * Constructs a rows x cols matrix which uses given row-major array as its backing storage.
+     * NOTE: Given array is not copied, so changes to it are visible through this matrix.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param elements row-major elements
+     * @throws NullPointerException if given array is null
+     * @throws IllegalArgumentException if given array is shorter than rows * cols
+     */
+    public DenseMatrix(int rows, int cols, double[] elements) {
+        this(Objects.requireNonNull(elements), 0, rows, cols, cols);
+        if(elements.length < checkedLength(rows, cols)) {
+            throw new IllegalArgumentException(
+                    "Expected at least " + ((long) rows * cols) + " elements, got " + elements.length);
+        }
+    }
+
+    DenseMatrix(double[] elements, int offset, int rows, int cols, int stride) {
+        this.elements = elements;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = stride;
+    }
+
+    private static long checkedLength(int rows, int cols) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        long length = (long) rows * cols;
+        if(length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix " + rows + "x" + cols + " is too large for dense storage.");
+        }
+
+        return length;
+    }
+
+    /**
+     * Creates a dense copy of given matrix.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return dense copy
+     */
+    public static DenseMatrix from(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix instanceof DenseMatrix) {
+            return (DenseMatrix) matrix.copy();
+        }
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        double[] data = result.elements;
+        for(int i = 0, index = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                data[index++] = matrix.get(i, j);
+            }
+        }
+
+        return result;
+    }
+
+    double[] getElements() {
+        return elements;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    int getStride() {
+        return stride;
+    }
+
+    /**
+     * Sets all elements of this matrix to 0.
+     */
+    void clear() {
+        if(offset == 0 && stride == cols) {
+            Arrays.fill(elements, 0, rows * cols, 0.0);
+            return;
+        }
+
+        for(int i = 0; i < rows; ++i) {
+            int rowStart = offset + i * stride;
+            Arrays.fill(elements, rowStart, rowStart + cols, 0.0);
+        }
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        if(i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw outOfRange(i, j);
+        }
+
+        return elements[offset + i * stride + j];
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        if(i < 0 || i >= rows || j < 0 || j >= cols) {
+            throw outOfRange(i, j);
+        }
+
+        elements[offset + i * stride + j] = value;
+        return this;
+    }
+
+    private IllegalArgumentException outOfRange(int i, int j) {
+        if(i < 0 || i >= rows) {
+            return new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+
+        return new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+    }
+
+    @Override
+    public IMatrix copy() {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        if(offset == 0 && stride == cols) {
+            System.arraycopy(elements, 0, result.elements, 0, rows * cols);
+        } else {
+            for(int i = 0; i < rows; ++i) {
+                System.arraycopy(elements, offset + i * stride, result.elements, i * cols, cols);
+            }
+        }
+
+        if(Metrics.ENABLED) {
+            long length = (long) rows * cols;
+            Metrics.record(Metrics.Operation.COPY, start, length, Double.BYTES * length);
+        }
+        return result;
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new DenseMatrix(rows, cols);
+    }
+
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return super.nTransponse(true);
+        }
+
+        DenseMatrix result = new DenseMatrix(cols, rows);
+        double[] data = result.elements;
+        for(int i = 0; i < rows; ++i) {
+            int rowStart = offset + i * stride;
+            for(int j = 0; j < cols; ++j) {
+                data[j * rows + i] = elements[rowStart + j];
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public IMatrix nTransponse(IMatrix dest) {
+        if(!(dest instanceof DenseMatrix) || dest == this) {
+            return super.nTransponse(dest);
+        }
+
+        checkDestination(dest, cols, rows);
+        DenseMatrix result = (DenseMatrix) dest;
+        double[] data = result.elements;
+        for(int i = 0; i < rows; ++i) {
+            int rowStart = offset + i * stride;
+            for(int j = 0; j < cols; ++j) {
+                data[result.offset + j * result.stride + i] = elements[rowStart + j];
+            }
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nAdd(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof DenseMatrix) || !(dest instanceof DenseMatrix)) {
+            return super.nAdd(that, dest);
+        }
+
+        DenseMatrix other = (DenseMatrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, cols);
+
+        DenseMatrix result = (DenseMatrix) dest;
+        Kernels kernels = Kernels.get();
+        for(int i = 0; i < rows; ++i) {
+            kernels.add(elements, offset + i * stride, other.elements, other.offset + i * other.stride,
+                        result.elements, result.offset + i * result.stride, cols);
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nSub(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof DenseMatrix) || !(dest instanceof DenseMatrix)) {
+            return super.nSub(that, dest);
+        }
+
+        DenseMatrix other = (DenseMatrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, cols);
+
+        DenseMatrix result = (DenseMatrix) dest;
+        Kernels kernels = Kernels.get();
+        for(int i = 0; i < rows; ++i) {
+            kernels.sub(elements, offset + i * stride, other.elements, other.offset + i * other.stride,
+                        result.elements, result.offset + i * result.stride, cols);
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof DenseMatrix)) {
+            return super.add(that);
+        }
+
+        DenseMatrix other = (DenseMatrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+
+        Kernels kernels = Kernels.get();
+        for(int i = 0; i < rows; ++i) {
+            int index = offset + i * stride;
+            kernels.add(elements, index, other.elements, other.offset + i * other.stride, elements, index, cols);
+        }
+
+        return this;
+    }
+
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof DenseMatrix)) {
+            return super.sub(that);
+        }
+
+        DenseMatrix other = (DenseMatrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+
+        Kernels kernels = Kernels.get();
+        for(int i = 0; i < rows; ++i) {
+            int index = offset + i * stride;
+            kernels.sub(elements, index, other.elements, other.offset + i * other.stride, elements, index, cols);
+        }
+
+        return this;
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof DenseMatrix)) {
+            return super.nMultiply(that);
+        }
+
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        DenseMatrix result = MatrixMultiplication.multiply(this, that);
+
+        if(Metrics.ENABLED) {
+            long length = (long) rows * result.cols;
+            Metrics.record(Metrics.Operation.MULTIPLY, start, length, Double.BYTES * length);
+        }
+        return result;
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] array = new double[rows][];
+
+        for(int i = 0; i < rows; ++i) {
+            array[i] = new double[cols];
+            System.arraycopy(elements, offset + i * stride, array[i], 0, cols);
+        }
+
+        return array;
+    }
+}
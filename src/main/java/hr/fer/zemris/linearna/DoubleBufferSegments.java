@@ -0,0 +1,140 @@
+package hr.fer.zemris.linearna;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Sequence of doubles addressed with a <code>long</code> index and stored in byte buffers of at most
+ * {@link #SEGMENT_LENGTH} doubles each, which lifts the 2GB limit of a single buffer. Every segment except
+ * the last one holds exactly {@link #SEGMENT_LENGTH} doubles, so an element is found with a shift and a
+ * mask.
+ *
+ * @author filip
+ *
+ */
+final class DoubleBufferSegments {
+
+    static final int SEGMENT_SHIFT = 27;
+    /**
+     * Number of doubles in a full segment (1GB of data).
+     */
+    static final int SEGMENT_LENGTH = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_LENGTH - 1;
+
+    private final long length;
+    private final ByteBuffer[] buffers;
+    private final DoubleBuffer[] segments;
+
+    /**
+     * Wraps given byte buffers, from their positions to their limits, as consecutive segments.
+     *
+     * @param buffers byte buffers whose lengths are SEGMENT_LENGTH doubles, except for the last one
+     * @param order byte order of stored doubles
+     */
+    DoubleBufferSegments(ByteBuffer[] buffers, ByteOrder order) {
+        this.buffers = buffers;
+        this.segments = new DoubleBuffer[buffers.length];
+
+        long length = 0;
+        for(int s = 0; s < buffers.length; ++s) {
+            segments[s] = buffers[s].order(order).asDoubleBuffer();
+            length += segments[s].capacity();
+        }
+        this.length = length;
+    }
+
+    /**
+     * Calculates number of segments needed for given number of doubles.
+     */
+    static int segmentsCount(long length) {
+        return (int) ((length + SEGMENT_LENGTH - 1) >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * Calculates number of doubles stored in segment s of a sequence of given length.
+     */
+    static int segmentLength(long length, int s) {
+        return (int) Math.min(SEGMENT_LENGTH, length - ((long) s << SEGMENT_SHIFT));
+    }
+
+    /**
+     * Allocates zero-filled direct buffers for given number of doubles.
+     */
+    static DoubleBufferSegments allocateDirect(long length) {
+        ByteBuffer[] buffers = new ByteBuffer[segmentsCount(length)];
+        for(int s = 0; s < buffers.length; ++s) {
+            buffers[s] = ByteBuffer.allocateDirect(segmentLength(length, s) * Double.BYTES);
+        }
+
+        return new DoubleBufferSegments(buffers, ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Copies all elements of given sequence of the same length into this sequence.
+     */
+    void copyFrom(DoubleBufferSegments source) {
+        for(int s = 0; s < segments.length; ++s) {
+            segments[s].duplicate().put(source.segments[s].duplicate());
+        }
+    }
+
+    /**
+     * Releases memory of all buffers immediately. This sequence must not be used afterwards.
+     */
+    void release() {
+        for(ByteBuffer buffer : buffers) {
+            BufferCleaner.clean(buffer);
+        }
+    }
+
+    long length() {
+        return length;
+    }
+
+    ByteBuffer[] buffers() {
+        return buffers;
+    }
+
+    double get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    void put(long index, double value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    /**
+     * Copies count doubles starting at given index into given array.
+     */
+    void get(long index, double[] destination, int offset, int count) {
+        while(count > 0) {
+            DoubleBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)].duplicate();
+            int position = (int) (index & SEGMENT_MASK);
+            int chunk = Math.min(count, segment.capacity() - position);
+            segment.position(position);
+            segment.get(destination, offset, chunk);
+
+            index += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    /**
+     * Copies count doubles from given array into this sequence, starting at given index.
+     */
+    void put(long index, double[] source, int offset, int count) {
+        while(count > 0) {
+            DoubleBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)].duplicate();
+            int position = (int) (index & SEGMENT_MASK);
+            int chunk = Math.min(count, segment.capacity() - position);
+            segment.position(position);
+            segment.put(source, offset, chunk);
+
+            index += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrix whose elements are stored in single precision in row-major order in a single contiguous array,
+ * which halves memory footprint and bandwidth compared to {@link DenseMatrix}. Elements are read as
+ * doubles through {@link IMatrix}, and values given to {@link #set(int, int, double)} are rounded to the
+ * nearest float.
+ * <p>Addition, subtraction, multiplication and {@link #transform(FloatVector, FloatVector)} between float
+ * operands work directly on the backing arrays and accumulate in float. Multiplication is blocked and
+ * parallelized with the block size, threshold and pool of {@link MatrixMultiplication}. Operations with
+ * other {@link IMatrix} implementations fall back to {@link AbstractMatrix} defaults, and decompositions
+ * such as {@link #determinant()} and {@link #nInvert()} are still calculated in double precision.
+ *
+ * @author filip
+ *
+ */
+public class FloatMatrix extends AbstractMatrix {
+
+    private final float[] elements;
+    private final int rows;
+    private final int cols;
+
+    /**
+     * Constructs a rows x cols matrix with all elements set to 0.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if rows or cols is negative
+     */
+    public FloatMatrix(int rows, int cols) {
+        this(rows, cols, new float[checkedLength(rows, cols)]);
+    }
+
+    /**
+     * Constructs a rows x cols matrix which uses given row-major array as its backing storage.
+     * NOTE: Given array is not copied, so changes to it are visible through this matrix.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param elements row-major elements
+     * @throws NullPointerException if given array is null
+     * @throws IllegalArgumentException if given array is shorter than rows * cols
+     */
+    public FloatMatrix(int rows, int cols, float[] elements) {
+        int length = checkedLength(rows, cols);
+        if(Objects.requireNonNull(elements).length < length) {
+            throw new IllegalArgumentException("Expected at least " + length + " elements, got " + elements.length);
+        }
+
+        this.elements = elements;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    private static int checkedLength(int rows, int cols) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        long length = (long) rows * cols;
+        if(length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix " + rows + "x" + cols + " is too large for dense storage.");
+        }
+
+        return (int) length;
+    }
+
+    /**
+     * Creates a single precision copy of given matrix, rounding each element to the nearest float.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return single precision copy
+     */
+    public static FloatMatrix from(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix instanceof FloatMatrix) {
+            return (FloatMatrix) matrix.copy();
+        }
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        FloatMatrix result = new FloatMatrix(rows, cols);
+        float[] data = result.elements;
+        for(int i = 0, index = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                data[index++] = (float) matrix.get(i, j);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a double precision copy of this matrix. Conversion is exact.
+     *
+     * @return double precision copy
+     */
+    public DenseMatrix toDenseMatrix() {
+        int length = rows * cols;
+        double[] data = new double[length];
+        for(int index = 0; index < length; ++index) {
+            data[index] = elements[index];
+        }
+
+        return new DenseMatrix(rows, cols, data);
+    }
+
+    float[] getElements() {
+        return elements;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return elements[index(i, j)];
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        elements[index(i, j)] = (float) value;
+        return this;
+    }
+
+    private int index(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+
+        return i * cols + j;
+    }
+
+    @Override
+    public IMatrix copy() {
+        return new FloatMatrix(rows, cols, Arrays.copyOf(elements, rows * cols));
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new FloatMatrix(rows, cols);
+    }
+
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return super.nTransponse(true);
+        }
+
+        FloatMatrix result = new FloatMatrix(cols, rows);
+        float[] data = result.elements;
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                data[j * rows + i] = elements[i * cols + j];
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(that instanceof FloatMatrix) {
+            return nAdd(that, this);
+        }
+
+        return super.add(that);
+    }
+
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(that instanceof FloatMatrix) {
+            return nSub(that, this);
+        }
+
+        return super.sub(that);
+    }
+
+    @Override
+    public IMatrix nAdd(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof FloatMatrix) || !(dest instanceof FloatMatrix)) {
+            return super.nAdd(that, dest);
+        }
+
+        FloatMatrix other = (FloatMatrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, cols);
+
+        float[] a = other.elements;
+        float[] result = ((FloatMatrix) dest).elements;
+        for(int index = 0, length = rows * cols; index < length; ++index) {
+            result[index] = elements[index] + a[index];
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nSub(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof FloatMatrix) || !(dest instanceof FloatMatrix)) {
+            return super.nSub(that, dest);
+        }
+
+        FloatMatrix other = (FloatMatrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, cols);
+
+        float[] a = other.elements;
+        float[] result = ((FloatMatrix) dest).elements;
+        for(int index = 0, length = rows * cols; index < length; ++index) {
+            result[index] = elements[index] - a[index];
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof FloatMatrix) || !(dest instanceof FloatMatrix)) {
+            return super.nMultiply(that, dest);
+        }
+
+        FloatMatrix other = (FloatMatrix) that;
+        if(cols != other.rows) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, other.cols);
+        if(dest == this || dest == that) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        FloatMatrix result = (FloatMatrix) dest;
+        Arrays.fill(result.elements, 0, rows * other.cols, 0f);
+
+        int blockSize = MatrixMultiplication.getBlockSize();
+        long work = (long) rows * cols * other.cols;
+        if(rows > blockSize && work >= MatrixMultiplication.getParallelThreshold()) {
+            MatrixMultiplication.getPool().invoke(new RowBlockTask(this, other, result, 0, rows, blockSize));
+        } else {
+            multiplyRows(this, other, result, 0, rows, blockSize);
+        }
+
+        return dest;
+    }
+
+    /**
+     * Accumulates product of rows [rowFrom, rowTo) of a with b into the same rows of c.
+     */
+    private static void multiplyRows(FloatMatrix a, FloatMatrix b, FloatMatrix c, int rowFrom, int rowTo,
+                                     int blockSize) {
+        float[] aElements = a.elements;
+        float[] bElements = b.elements;
+        float[] cElements = c.elements;
+        int inner = a.cols;
+        int cols = b.cols;
+
+        for(int ii = rowFrom; ii < rowTo; ii += blockSize) {
+            int iEnd = Math.min(ii + blockSize, rowTo);
+            for(int kk = 0; kk < inner; kk += blockSize) {
+                int kEnd = Math.min(kk + blockSize, inner);
+                for(int jj = 0; jj < cols; jj += blockSize) {
+                    int jEnd = Math.min(jj + blockSize, cols);
+
+                    for(int i = ii; i < iEnd; ++i) {
+                        int aRow = i * inner;
+                        int cRow = i * cols;
+                        for(int k = kk; k < kEnd; ++k) {
+                            float aik = aElements[aRow + k];
+                            int bRow = k * cols;
+                            for(int j = jj; j < jEnd; ++j) {
+                                cElements[cRow + j] += aik * bElements[bRow + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores product of this matrix and given column vector into destination vector, accumulating in
+     * float.
+     *
+     * @param vector vector to transform
+     * @param dest destination vector
+     * @throws NullPointerException if vector or destination is null
+     * @throws IncompatibleOperandException if vector's dimension differs from this matrix's column count
+     * @throws IllegalArgumentException if destination's dimension differs from this matrix's row count or
+     *         if destination is the transformed vector
+     * @return destination vector
+     */
+    public FloatVector transform(FloatVector vector, FloatVector dest) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(vector).getDimension() != cols) {
+            throw new IncompatibleOperandException();
+        }
+        AbstractVector.checkDestination(dest, rows);
+        if(dest == vector) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        float[] x = vector.getElements();
+        float[] result = dest.getElements();
+        for(int i = 0; i < rows; ++i) {
+            float sum = 0;
+            for(int j = 0, index = i * cols; j < cols; ++j) {
+                sum += elements[index + j] * x[j];
+            }
+            result[i] = sum;
+        }
+
+        return dest;
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] array = new double[rows][cols];
+        for(int i = 0, index = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                array[i][j] = elements[index++];
+            }
+        }
+
+        return array;
+    }
+
+    /**
+     * Task which splits its row range in halves aligned to block size until it fits in a single block.
+     */
+    private static final class RowBlockTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FloatMatrix a;
+        private final FloatMatrix b;
+        private final FloatMatrix c;
+        private final int rowFrom;
+        private final int rowTo;
+        private final int blockSize;
+
+        RowBlockTask(FloatMatrix a, FloatMatrix b, FloatMatrix c, int rowFrom, int rowTo, int blockSize) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        protected void compute() {
+            int blocks = (rowTo - rowFrom + blockSize - 1) / blockSize;
+            if(blocks <= 1) {
+                multiplyRows(a, b, c, rowFrom, rowTo, blockSize);
+                return;
+            }
+
+            int middle = rowFrom + (blocks / 2) * blockSize;
+            invokeAll(new RowBlockTask(a, b, c, rowFrom, middle, blockSize),
+                      new RowBlockTask(a, b, c, middle, rowTo, blockSize));
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.DegenerateCaseException;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Vector whose elements are stored in single precision, which halves memory footprint and bandwidth
+ * compared to {@link Vector}. Elements are read as doubles through {@link IVector}, and values given to
+ * {@link #set(int, double)} are rounded to the nearest float.
+ * <p>Operations between two float vectors work directly on the backing arrays and accumulate sums, dot
+ * products and norms in float, so their results may differ from the same operations on {@link Vector}
+ * in the last bits of single precision. Use {@link #from(IVector)} and {@link #toDoubleVector()} to convert
+ * between precisions.
+ *
+ * @author filip
+ *
+ */
+public class FloatVector extends AbstractVector {
+
+    private final float[] elements;
+    private final int dimension;
+
+    /**
+     * Constructs a vector of given dimension with all elements set to 0.
+     *
+     * @param dimension number of elements
+     * @throws IllegalArgumentException if dimension is negative
+     */
+    public FloatVector(int dimension) {
+        if(dimension < 0) {
+            throw new IllegalArgumentException("Expected dimension >= 0, got " + dimension);
+        }
+
+        this.dimension = dimension;
+        this.elements = new float[dimension];
+    }
+
+    /**
+     * Constructs a vector which uses given array as its backing storage.
+     * NOTE: Given array is not copied, so changes to it are visible through this vector.
+     *
+     * @param elements elements of new vector
+     * @throws NullPointerException if given array is null
+     */
+    public FloatVector(float... elements) {
+        this.elements = Objects.requireNonNull(elements);
+        this.dimension = elements.length;
+    }
+
+    /**
+     * Creates a single precision copy of given vector, rounding each element to the nearest float.
+     *
+     * @param vector vector to copy
+     * @throws NullPointerException if given vector is null
+     * @return single precision copy
+     */
+    public static FloatVector from(IVector vector) {
+        Objects.requireNonNull(vector);
+        if(vector instanceof FloatVector) {
+            return (FloatVector) vector.copy();
+        }
+
+        FloatVector result = new FloatVector(vector.getDimension());
+        for(int i = 0; i < result.dimension; ++i) {
+            result.elements[i] = (float) vector.get(i);
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a double precision copy of this vector. Conversion is exact.
+     *
+     * @return double precision copy
+     */
+    public Vector toDoubleVector() {
+        return Vector.adopt(toArray());
+    }
+
+    float[] getElements() {
+        return elements;
+    }
+
+    @Override
+    public double get(int i) {
+        if(i < 0 || i >= dimension) {
+            throw new IllegalArgumentException("Expected number from range [0," + (dimension - 1) + "].");
+        }
+
+        return elements[i];
+    }
+
+    @Override
+    public IVector set(int i, double value) {
+        if(i < 0 || i >= dimension) {
+            throw new IllegalArgumentException("Expected number from range [0," + (dimension - 1) + "].");
+        }
+
+        elements[i] = (float) value;
+        return this;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public IVector copy() {
+        return new FloatVector(Arrays.copyOf(elements, dimension));
+    }
+
+    @Override
+    public IVector newInstance(int n) {
+        return new FloatVector(n);
+    }
+
+    @Override
+    public IVector add(IVector that) throws IncompatibleOperandException {
+        if(that instanceof FloatVector) {
+            return nAdd(that, this);
+        }
+
+        return super.add(that);
+    }
+
+    @Override
+    public IVector sub(IVector that) throws IncompatibleOperandException {
+        if(that instanceof FloatVector) {
+            return nSub(that, this);
+        }
+
+        return super.sub(that);
+    }
+
+    @Override
+    public IVector scalarMultiply(double x) {
+        return nScalarMultiply(x, this);
+    }
+
+    @Override
+    public IVector nAdd(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof FloatVector) || !(dest instanceof FloatVector)) {
+            return super.nAdd(that, dest);
+        }
+
+        float[] other = ((FloatVector) that).elements;
+        if(other.length != dimension) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, dimension);
+        float[] result = ((FloatVector) dest).elements;
+
+        for(int i = 0; i < dimension; ++i) {
+            result[i] = elements[i] + other[i];
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IVector nSub(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof FloatVector) || !(dest instanceof FloatVector)) {
+            return super.nSub(that, dest);
+        }
+
+        float[] other = ((FloatVector) that).elements;
+        if(other.length != dimension) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, dimension);
+        float[] result = ((FloatVector) dest).elements;
+
+        for(int i = 0; i < dimension; ++i) {
+            result[i] = elements[i] - other[i];
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IVector nScalarMultiply(double x, IVector dest) {
+        if(!(dest instanceof FloatVector)) {
+            return super.nScalarMultiply(x, dest);
+        }
+
+        checkDestination(dest, dimension);
+        float[] result = ((FloatVector) dest).elements;
+        float factor = (float) x;
+        for(int i = 0; i < dimension; ++i) {
+            result[i] = elements[i] * factor;
+        }
+
+        return dest;
+    }
+
+    @Override
+    public double norm() {
+        return Math.sqrt(dot(elements, elements, dimension));
+    }
+
+    @Override
+    public double scalarProduct(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof FloatVector)) {
+            return super.scalarProduct(that);
+        }
+
+        float[] other = ((FloatVector) that).elements;
+        if(other.length != dimension) {
+            throw new IncompatibleOperandException();
+        }
+
+        return dot(elements, other, dimension);
+    }
+
+    /**
+     * Calculates dot product of first n elements of given arrays, accumulating in float.
+     */
+    static float dot(float[] a, float[] b, int n) {
+        float sum = 0;
+        for(int i = 0; i < n; ++i) {
+            sum += a[i] * b[i];
+        }
+
+        return sum;
+    }
+
+    @Override
+    public IVector nNormalize(IVector dest) throws DegenerateCaseException {
+        if(!(dest instanceof FloatVector)) {
+            return super.nNormalize(dest);
+        }
+
+        checkDestination(dest, dimension);
+        float[] result = ((FloatVector) dest).elements;
+        float norm = (float) this.norm();
+        if(Float.compare(norm, 0) == 0) {
+            throw new DegenerateCaseException("Cannot normalize zero vector.");
+        }
+
+        for(int i = 0; i < dimension; ++i) {
+            result[i] = elements[i] / norm;
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IVector nVectorProduct(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof FloatVector) || !(dest instanceof FloatVector) || dimension != 3) {
+            return super.nVectorProduct(that, dest);
+        }
+
+        float[] b = ((FloatVector) that).elements;
+        if(b.length != 3) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, 3);
+        float[] result = ((FloatVector) dest).elements;
+
+        float[] a = elements;
+        float x = a[1] * b[2] - a[2] * b[1];
+        float y = a[2] * b[0] - a[0] * b[2];
+        float z = a[0] * b[1] - a[1] * b[0];
+        result[0] = x;
+        result[1] = y;
+        result[2] = z;
+
+        return dest;
+    }
+
+    @Override
+    public double[] toArray() {
+        double[] array = new double[dimension];
+        for(int i = 0; i < dimension; ++i) {
+            array[i] = elements[i];
+        }
+
+        return array;
+    }
+
+    /**
+     * Copies elements of this vector into a new float array.
+     *
+     * @return array of elements
+     */
+    public float[] toFloatArray() {
+        return Arrays.copyOf(elements, dimension);
+    }
+}
@@ -0,0 +1,138 @@
+package hr.fer.zemris.linearna;
+
+import java.util.Arrays;
+
+/**
+ * Restarted, right-preconditioned generalized minimal residual method GMRES(m) for general non-symmetric
+ * systems. Krylov basis is orthogonalized with modified Gram-Schmidt and the least squares problem is
+ * updated with Givens rotations, so residual norm is known in every iteration without extra products.
+ * After {@link #getRestart()} iterations the basis is discarded, which bounds memory to m + 1 vectors.
+ *
+ * @author filip
+ *
+ */
+public class GMRES extends IterativeSolver {
+
+    /**
+     * Defines default number of iterations between restarts.
+     */
+    public static final int DEFAULT_RESTART = 30;
+
+    private int restart = DEFAULT_RESTART;
+
+    public int getRestart() {
+        return restart;
+    }
+
+    /**
+     * Sets number of iterations between restarts.
+     *
+     * @param restart new restart length
+     * @throws IllegalArgumentException if given length is less than 1
+     * @return this solver
+     */
+    public GMRES setRestart(int restart) {
+        if(restart < 1) {
+            throw new IllegalArgumentException("Expected restart >= 1, got " + restart);
+        }
+
+        this.restart = restart;
+        return this;
+    }
+
+    @Override
+    IterativeResult iterate(LinearOperator a, double[] b, double[] x, double bNorm) {
+        int n = b.length;
+        int m = restart;
+        double[][] basis = new double[m + 1][];
+        double[][] h = new double[m + 1][m];
+        double[] cos = new double[m];
+        double[] sin = new double[m];
+        double[] g = new double[m + 1];
+        double[] r = new double[n];
+        double[] z = new double[n];
+        double[] w = new double[n];
+
+        int iteration = 0;
+        double relativeResidual;
+        while(true) {
+            residual(a, b, x, r);
+            double beta = norm(r);
+            relativeResidual = beta / bNorm;
+            if(relativeResidual <= getTolerance() || iteration >= getMaxIterations()) {
+                break;
+            }
+
+            if(basis[0] == null) {
+                basis[0] = new double[n];
+            }
+            for(int i = 0; i < n; ++i) {
+                basis[0][i] = r[i] / beta;
+            }
+            Arrays.fill(g, 0);
+            g[0] = beta;
+
+            int k = 0;
+            boolean stop = false;
+            while(k < m && !stop) {
+                getPreconditioner().apply(basis[k], z);
+                a.apply(z, w);
+                for(int i = 0; i <= k; ++i) {
+                    h[i][k] = dot(w, basis[i]);
+                    axpy(-h[i][k], basis[i], w);
+                }
+                double wNorm = norm(w);
+                h[k + 1][k] = wNorm;
+
+                for(int i = 0; i < k; ++i) {
+                    double temp = cos[i] * h[i][k] + sin[i] * h[i + 1][k];
+                    h[i + 1][k] = -sin[i] * h[i][k] + cos[i] * h[i + 1][k];
+                    h[i][k] = temp;
+                }
+                double denominator = Math.hypot(h[k][k], h[k + 1][k]);
+                cos[k] = denominator == 0 ? 1 : h[k][k] / denominator;
+                sin[k] = denominator == 0 ? 0 : h[k + 1][k] / denominator;
+                h[k][k] = denominator;
+                h[k + 1][k] = 0;
+                g[k + 1] = -sin[k] * g[k];
+                g[k] = cos[k] * g[k];
+
+                relativeResidual = Math.abs(g[k + 1]) / bNorm;
+                stop = completed(++iteration, relativeResidual) || iteration >= getMaxIterations() || wNorm == 0;
+                if(!stop) {
+                    if(basis[k + 1] == null) {
+                        basis[k + 1] = new double[n];
+                    }
+                    for(int i = 0; i < n; ++i) {
+                        basis[k + 1][i] = w[i] / wNorm;
+                    }
+                }
+                k++;
+            }
+
+            double[] y = new double[k];
+            for(int i = k - 1; i >= 0; --i) {
+                double sum = g[i];
+                for(int j = i + 1; j < k; ++j) {
+                    sum -= h[i][j] * y[j];
+                }
+                y[i] = h[i][i] == 0 ? 0 : sum / h[i][i];
+            }
+
+            Arrays.fill(w, 0);
+            for(int i = 0; i < k; ++i) {
+                axpy(y[i], basis[i], w);
+            }
+            getPreconditioner().apply(w, z);
+            axpy(1, z, x);
+
+            if(stop) {
+                residual(a, b, x, r);
+                relativeResidual = norm(r) / bNorm;
+                break;
+            }
+        }
+
+        return result(x, iteration, relativeResidual);
+    }
+}
@@ -0,0 +1,97 @@
+package hr.fer.zemris.linearna;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Incomplete LU factorization without fill-in, ILU(0). Factors L and U keep exactly the sparsity pattern
+ * of the system matrix, so applying the preconditioner costs one sparse forward and one sparse back
+ * substitution. Matrices which are not {@link CsrMatrix} instances are converted first.
+ *
+ * @author filip
+ *
+ */
+public final class ILU0Preconditioner implements Preconditioner {
+
+    private final int n;
+    private final int[] rowPointers;
+    private final int[] colIndexes;
+    /**
+     * Strictly lower part holds L (with implicit unit diagonal), the rest holds U.
+     */
+    private final double[] values;
+    private final int[] diagonalPositions;
+
+    /**
+     * Factorizes given square matrix on its own sparsity pattern.
+     *
+     * @param matrix system matrix
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix is not square or if a zero pivot is met
+     */
+    public ILU0Preconditioner(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix.getRowsCount() != matrix.getColsCount()) {
+            throw new UnsupportedOperationException("ILU(0) preconditioner is defined for square matrices only.");
+        }
+
+        CsrMatrix csr = matrix instanceof CsrMatrix ? (CsrMatrix) matrix : CsrMatrix.from(matrix);
+        this.n = csr.getRowsCount();
+        this.rowPointers = csr.getRowPointers().clone();
+        this.colIndexes = Arrays.copyOf(csr.getColIndexes(), rowPointers[n]);
+        this.values = Arrays.copyOf(csr.getValues(), rowPointers[n]);
+        this.diagonalPositions = new int[n];
+
+        int[] positions = new int[n];
+        Arrays.fill(positions, -1);
+        for(int i = 0; i < n; ++i) {
+            int rowStart = rowPointers[i];
+            int rowEnd = rowPointers[i + 1];
+            for(int p = rowStart; p < rowEnd; ++p) {
+                positions[colIndexes[p]] = p;
+            }
+
+            diagonalPositions[i] = positions[i];
+            for(int p = rowStart; p < rowEnd && colIndexes[p] < i; ++p) {
+                int k = colIndexes[p];
+                double pivot = values[diagonalPositions[k]];
+                values[p] /= pivot;
+
+                double factor = values[p];
+                for(int q = diagonalPositions[k] + 1, end = rowPointers[k + 1]; q < end; ++q) {
+                    int position = positions[colIndexes[q]];
+                    if(position >= 0) {
+                        values[position] -= factor * values[q];
+                    }
+                }
+            }
+
+            if(diagonalPositions[i] < 0 || values[diagonalPositions[i]] == 0) {
+                throw new UnsupportedOperationException("ILU(0) factorization met zero pivot in row " + i);
+            }
+            for(int p = rowStart; p < rowEnd; ++p) {
+                positions[colIndexes[p]] = -1;
+            }
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        for(int i = 0; i < n; ++i) {
+            double sum = r[i];
+            for(int p = rowPointers[i], end = diagonalPositions[i]; p < end; ++p) {
+                sum -= values[p] * z[colIndexes[p]];
+            }
+            z[i] = sum;
+        }
+
+        for(int i = n - 1; i >= 0; --i) {
+            double sum = z[i];
+            int diagonal = diagonalPositions[i];
+            for(int p = diagonal + 1, end = rowPointers[i + 1]; p < end; ++p) {
+                sum -= values[p] * z[colIndexes[p]];
+            }
+            z[i] = sum / values[diagonal];
+        }
+    }
+}
@@ -18,16 +18,55 @@ public interface IMatrix {
 
     public IMatrix nTransponse(boolean liveView);
 
+    /**
+     * Stores transponsed version of this matrix into destination matrix, which must not be this matrix.
+     *
+     * @param dest destination matrix
+     * @throws IllegalArgumentException if destination has wrong dimensions or is this matrix
+     * @return destination matrix
+     */
+    public IMatrix nTransponse(IMatrix dest);
+
     public IMatrix add(IMatrix that) throws IncompatibleOperandException;
 
     public IMatrix nAdd(IMatrix that) throws IncompatibleOperandException;
 
+    /**
+     * Stores sum of this and given matrix into destination matrix, which may be one of the operands.
+     *
+     * @param that matrix to add
+     * @param dest destination matrix
+     * @throws IllegalArgumentException if destination's dimensions differ from this matrix's dimensions
+     * @return destination matrix
+     */
+    public IMatrix nAdd(IMatrix that, IMatrix dest) throws IncompatibleOperandException;
+
     public IMatrix sub(IMatrix that) throws IncompatibleOperandException;
 
     public IMatrix nSub(IMatrix that) throws IncompatibleOperandException;
 
+    /**
+     * Stores difference of this and given matrix into destination matrix, which may be one of the operands.
+     *
+     * @param that matrix to subtract
+     * @param dest destination matrix
+     * @throws IllegalArgumentException if destination's dimensions differ from this matrix's dimensions
+     * @return destination matrix
+     */
+    public IMatrix nSub(IMatrix that, IMatrix dest) throws IncompatibleOperandException;
+
     public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException;
 
+    /**
+     * Stores product of this and given matrix into destination matrix, which must not be one of the operands.
+     *
+     * @param that right operand
+     * @param dest destination matrix
+     * @throws IllegalArgumentException if destination has wrong dimensions or is one of the operands
+     * @return destination matrix
+     */
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException;
+
     public double determinant();
 
     public IMatrix subMatrix(int row, int col, boolean liveView);
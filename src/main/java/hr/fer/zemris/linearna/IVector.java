@@ -42,26 +42,75 @@ public interface IVector {
 
     public IVector nAdd(IVector that) throws IncompatibleOperandException;
 
+    /**
+     * Stores sum of this and given vector into destination vector, which may be one of the operands.
+     *
+     * @param that vector to add
+     * @param dest destination vector
+     * @throws IllegalArgumentException if destination's dimension differs from this vector's dimension
+     * @return destination vector
+     */
+    public IVector nAdd(IVector that, IVector dest) throws IncompatibleOperandException;
+
     public IVector sub(IVector that) throws IncompatibleOperandException;
 
     public IVector nSub(IVector that) throws IncompatibleOperandException;
 
+    /**
+     * Stores difference of this and given vector into destination vector, which may be one of the operands.
+     *
+     * @param that vector to subtract
+     * @param dest destination vector
+     * @throws IllegalArgumentException if destination's dimension differs from this vector's dimension
+     * @return destination vector
+     */
+    public IVector nSub(IVector that, IVector dest) throws IncompatibleOperandException;
+
     public IVector scalarMultiply(double x);
 
     public IVector nScalarMultiply(double x);
 
+    /**
+     * Stores this vector multiplied with given scalar into destination vector, which may be this vector.
+     *
+     * @param x scalar
+     * @param dest destination vector
+     * @throws IllegalArgumentException if destination's dimension differs from this vector's dimension
+     * @return destination vector
+     */
+    public IVector nScalarMultiply(double x, IVector dest);
+
     public double norm();
 
     public IVector normalize() throws DegenerateCaseException;
 
     public IVector nNormalize() throws DegenerateCaseException;
 
+    /**
+     * Stores normalized version of this vector into destination vector, which may be this vector.
+     *
+     * @param dest destination vector
+     * @throws IllegalArgumentException if destination's dimension differs from this vector's dimension
+     * @return destination vector
+     */
+    public IVector nNormalize(IVector dest) throws DegenerateCaseException;
+
     public double cosine(IVector that) throws IncompatibleOperandException, DegenerateCaseException;
 
     public double scalarProduct(IVector that) throws IncompatibleOperandException;
 
     public IVector nVectorProduct(IVector that) throws IncompatibleOperandException;
 
+    /**
+     * Stores vector product of this and given vector into destination vector, which may be one of the operands.
+     *
+     * @param that right operand
+     * @param dest destination vector
+     * @throws IllegalArgumentException if destination is not a 3-dimensional vector
+     * @return destination vector
+     */
+    public IVector nVectorProduct(IVector that, IVector dest) throws IncompatibleOperandException;
+
     public IVector nFromHomogeneus() throws DegenerateCaseException;
 
     public IMatrix toRowMatrix(boolean liveView);
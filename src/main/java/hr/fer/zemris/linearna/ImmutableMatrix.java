@@ -0,0 +1,320 @@
+package hr.fer.zemris.linearna;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Matrix whose elements never change after construction. Its hash code is calculated once, equal
+ * matrices (same dimensions and bitwise equal elements) can be shared through {@link #intern()}, and
+ * derived results are calculated at most once per instance: {@link #determinant()}, {@link #inverse()},
+ * {@link #transpose()} and the norms. Memoization is thread-safe; concurrent first calls may calculate
+ * the same result more than once, but all of them return an equal value.
+ * <p>{@link #copy()}, {@link #newInstance(int, int)}, {@link #nInvert()} and
+ * {@link #nTransponse(boolean) nTransponse(false)} return mutable {@link DenseMatrix} instances as other
+ * implementations do, copied from memoized results where possible. Use {@link #inverse()} and
+ * {@link #transpose()} to share memoized results without copying.
+ *
+ * @author filip
+ *
+ */
+public final class ImmutableMatrix extends AbstractMatrix {
+
+    private static final Map<ImmutableMatrix, WeakReference<ImmutableMatrix>> POOL = new WeakHashMap<>();
+
+    private final double[] elements;
+    private final int rows;
+    private final int cols;
+    private final int hash;
+
+    private volatile Double determinant;
+    private volatile ImmutableMatrix inverse;
+    private volatile ImmutableMatrix transpose;
+    private volatile double[] norms;
+
+    private ImmutableMatrix(int rows, int cols, double[] elements) {
+        this.rows = rows;
+        this.cols = cols;
+        this.elements = elements;
+        this.hash = 31 * (31 * rows + cols) + Arrays.hashCode(elements);
+    }
+
+    /**
+     * Creates an immutable copy of given matrix, or returns given matrix if it is already immutable.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return immutable matrix
+     */
+    public static ImmutableMatrix of(IMatrix matrix) {
+        if(Objects.requireNonNull(matrix) instanceof ImmutableMatrix) {
+            return (ImmutableMatrix) matrix;
+        }
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        double[] elements;
+        if(matrix instanceof DenseMatrix) {
+            elements = DenseMatrix.from(matrix).getElements();
+        } else {
+            elements = new double[rows * cols];
+            for(int i = 0, index = 0; i < rows; ++i) {
+                for(int j = 0; j < cols; ++j) {
+                    elements[index++] = matrix.get(i, j);
+                }
+            }
+        }
+
+        return new ImmutableMatrix(rows, cols, elements);
+    }
+
+    /**
+     * Creates an immutable rows x cols matrix with given row-major elements, which are copied.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param elements row-major elements
+     * @throws NullPointerException if given array is null
+     * @throws IllegalArgumentException if rows or cols is negative or if number of elements is not
+     *         rows * cols
+     * @return immutable matrix
+     */
+    public static ImmutableMatrix of(int rows, int cols, double... elements) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+        if(Objects.requireNonNull(elements).length != (long) rows * cols) {
+            throw new IllegalArgumentException(
+                    "Expected " + ((long) rows * cols) + " elements, got " + elements.length);
+        }
+
+        return new ImmutableMatrix(rows, cols, elements.clone());
+    }
+
+    /**
+     * Gets the canonical instance of matrices equal to this one. Canonical instances are held weakly,
+     * so matrices which are no longer used elsewhere are removed from the pool. Interning lets equal
+     * matrices share memoized results.
+     *
+     * @return canonical instance
+     */
+    public ImmutableMatrix intern() {
+        synchronized(POOL) {
+            WeakReference<ImmutableMatrix> reference = POOL.get(this);
+            ImmutableMatrix canonical = reference == null ? null : reference.get();
+            if(canonical != null) {
+                return canonical;
+            }
+
+            POOL.put(this, new WeakReference<>(this));
+            return this;
+        }
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+
+        return elements[i * cols + j];
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        throw new UnsupportedOperationException("Cannot modify immutable matrix.");
+    }
+
+    @Override
+    public IMatrix copy() {
+        return new DenseMatrix(rows, cols, elements.clone());
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new DenseMatrix(rows, cols);
+    }
+
+    /**
+     * Gets memoized determinant of this matrix.
+     *
+     * @throws UnsupportedOperationException if this is a non-square matrix
+     * @return determinant, or NaN for 0x0 matrix
+     */
+    @Override
+    public double determinant() {
+        Double result = determinant;
+        if(result == null) {
+            result = super.determinant();
+            determinant = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets memoized inverse of this matrix.
+     *
+     * @throws UnsupportedOperationException if this is a singular matrix or a non-square matrix
+     * @return immutable inverse matrix
+     */
+    public ImmutableMatrix inverse() {
+        ImmutableMatrix result = inverse;
+        if(result == null) {
+            result = of(super.nInvert());
+            inverse = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets a mutable copy of memoized inverse of this matrix.
+     *
+     * @throws UnsupportedOperationException if this is a singular matrix or a non-square matrix
+     * @return inverse matrix
+     */
+    @Override
+    public IMatrix nInvert() {
+        return inverse().copy();
+    }
+
+    /**
+     * Gets memoized transpose of this matrix.
+     *
+     * @return immutable transposed matrix
+     */
+    public ImmutableMatrix transpose() {
+        ImmutableMatrix result = transpose;
+        if(result == null) {
+            double[] data = new double[elements.length];
+            for(int i = 0; i < rows; ++i) {
+                for(int j = 0; j < cols; ++j) {
+                    data[j * rows + i] = elements[i * cols + j];
+                }
+            }
+
+            result = new ImmutableMatrix(cols, rows, data);
+            result.transpose = this;
+            transpose = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets memoized transpose of this matrix if a live view is requested, since an immutable matrix
+     * never changes, or its mutable copy otherwise.
+     */
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        return liveView ? transpose() : transpose().copy();
+    }
+
+    /**
+     * Gets memoized maximum absolute column sum of this matrix.
+     *
+     * @return 1-norm
+     */
+    public double norm1() {
+        return norms()[0];
+    }
+
+    /**
+     * Gets memoized maximum absolute row sum of this matrix.
+     *
+     * @return infinity norm
+     */
+    public double normInf() {
+        return norms()[1];
+    }
+
+    /**
+     * Gets memoized square root of sum of squares of all elements of this matrix.
+     *
+     * @return Frobenius norm
+     */
+    public double normFrobenius() {
+        return norms()[2];
+    }
+
+    private double[] norms() {
+        double[] result = norms;
+        if(result == null) {
+            double[] colSums = new double[cols];
+            double maxRowSum = 0;
+            double sumOfSquares = 0;
+            for(int i = 0, index = 0; i < rows; ++i) {
+                double rowSum = 0;
+                for(int j = 0; j < cols; ++j, ++index) {
+                    double abs = Math.abs(elements[index]);
+                    rowSum += abs;
+                    colSums[j] += abs;
+                    sumOfSquares += abs * abs;
+                }
+                maxRowSum = Math.max(maxRowSum, rowSum);
+            }
+
+            double maxColSum = 0;
+            for(double colSum : colSums) {
+                maxColSum = Math.max(maxColSum, colSum);
+            }
+
+            result = new double[] {maxColSum, maxRowSum, Math.sqrt(sumOfSquares)};
+            norms = result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] array = new double[rows][];
+        for(int i = 0; i < rows; ++i) {
+            array[i] = Arrays.copyOfRange(elements, i * cols, (i + 1) * cols);
+        }
+
+        return array;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Checks whether given object is an immutable matrix of the same dimensions whose elements are
+     * bitwise equal to elements of this matrix.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(this == obj) {
+            return true;
+        }
+        if(!(obj instanceof ImmutableMatrix)) {
+            return false;
+        }
+
+        ImmutableMatrix other = (ImmutableMatrix) obj;
+        return hash == other.hash && rows == other.rows && cols == other.cols
+                && Arrays.equals(elements, other.elements);
+    }
+}
@@ -0,0 +1,20 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Listener which is notified by an {@link IterativeSolver} after each iteration, e.g. to log or monitor
+ * convergence speed.
+ *
+ * @author filip
+ *
+ */
+@FunctionalInterface
+public interface IterationListener {
+
+    /**
+     * Called after an iteration is completed.
+     *
+     * @param iteration number of completed iterations, starting with 1
+     * @param relativeResidual norm of residual divided by norm of right-hand side
+     */
+    public void iterationCompleted(int iteration, double relativeResidual);
+}
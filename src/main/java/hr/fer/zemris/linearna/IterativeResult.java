@@ -0,0 +1,55 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Result of an {@link IterativeSolver}: the last approximation of the solution and information about
+ * convergence.
+ *
+ * @author filip
+ *
+ */
+public final class IterativeResult {
+
+    private final IVector solution;
+    private final int iterations;
+    private final double relativeResidual;
+    private final boolean converged;
+
+    IterativeResult(IVector solution, int iterations, double relativeResidual, boolean converged) {
+        this.solution = solution;
+        this.iterations = iterations;
+        this.relativeResidual = relativeResidual;
+        this.converged = converged;
+    }
+
+    public IVector getSolution() {
+        return solution;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets norm of the last residual divided by norm of right-hand side.
+     *
+     * @return relative residual
+     */
+    public double getRelativeResidual() {
+        return relativeResidual;
+    }
+
+    /**
+     * Checks whether relative residual dropped to solver's tolerance.
+     *
+     * @return true if solver converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    @Override
+    public String toString() {
+        return (converged ? "Converged" : "Not converged") + " after " + iterations
+                + " iterations, relative residual " + relativeResidual;
+    }
+}
@@ -0,0 +1,197 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * Base class of iterative solvers of square systems A * x = b, which need only products of A with vectors.
+ * Iterations stop when norm of the residual divided by norm of b drops to the tolerance, or when the
+ * iteration limit is reached. A {@link Preconditioner} can be set to speed up convergence, and an
+ * {@link IterationListener} to watch it.
+ *
+ * @author filip
+ *
+ */
+public abstract class IterativeSolver {
+
+    /**
+     * Defines default relative residual at which iterations stop.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+
+    /**
+     * Defines default maximal number of iterations.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+    private double tolerance = DEFAULT_TOLERANCE;
+    private int maxIterations = DEFAULT_MAX_ITERATIONS;
+    private Preconditioner preconditioner = Preconditioner.IDENTITY;
+    private IterationListener listener;
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Sets relative residual at which iterations stop.
+     *
+     * @param tolerance new tolerance
+     * @throws IllegalArgumentException if given tolerance is not positive
+     * @return this solver
+     */
+    public IterativeSolver setTolerance(double tolerance) {
+        if(!(tolerance > 0)) {
+            throw new IllegalArgumentException("Expected tolerance > 0, got " + tolerance);
+        }
+
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Sets maximal number of iterations.
+     *
+     * @param maxIterations new iteration limit
+     * @throws IllegalArgumentException if given limit is less than 1
+     * @return this solver
+     */
+    public IterativeSolver setMaxIterations(int maxIterations) {
+        if(maxIterations < 1) {
+            throw new IllegalArgumentException("Expected max iterations >= 1, got " + maxIterations);
+        }
+
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    public Preconditioner getPreconditioner() {
+        return preconditioner;
+    }
+
+    /**
+     * Sets preconditioner applied in every iteration.
+     *
+     * @param preconditioner new preconditioner
+     * @throws NullPointerException if given preconditioner is null
+     * @return this solver
+     */
+    public IterativeSolver setPreconditioner(Preconditioner preconditioner) {
+        this.preconditioner = Objects.requireNonNull(preconditioner);
+        return this;
+    }
+
+    public IterationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets listener notified after each iteration.
+     *
+     * @param listener new listener, or null to remove it
+     * @return this solver
+     */
+    public IterativeSolver setListener(IterationListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Solves system A * x = b starting from zero vector.
+     *
+     * @param a system matrix
+     * @param b right-hand side
+     * @throws NullPointerException if any argument is null
+     * @throws IncompatibleOperandException if matrix is not square or its dimension differs from vector's
+     * @return solution and convergence information
+     */
+    public IterativeResult solve(IMatrix a, IVector b) throws IncompatibleOperandException {
+        return solve(LinearOperator.of(a), b, null);
+    }
+
+    /**
+     * Solves system A * x = b starting from given initial approximation.
+     *
+     * @param a system operator
+     * @param b right-hand side
+     * @param x0 initial approximation, or null to start from zero vector
+     * @throws NullPointerException if a or b is null
+     * @throws IncompatibleOperandException if operator is not square or its dimension differs from dimension
+     *         of given vectors
+     * @return solution and convergence information
+     */
+    public IterativeResult solve(LinearOperator a, IVector b, IVector x0) throws IncompatibleOperandException {
+        int n = Objects.requireNonNull(a).getRowsCount();
+        if(a.getColsCount() != n || Objects.requireNonNull(b).getDimension() != n
+                || (x0 != null && x0.getDimension() != n)) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[] bArray = b.toArray();
+        double[] x = x0 == null ? new double[n] : x0.toArray();
+        double bNorm = norm(bArray);
+        if(bNorm == 0) {
+            return new IterativeResult(Vector.adopt(new double[n]), 0, 0, true);
+        }
+
+        return iterate(a, bArray, x, bNorm);
+    }
+
+    /**
+     * Runs iterations, improving approximation x in place.
+     *
+     * @param a system operator
+     * @param b right-hand side
+     * @param x initial approximation
+     * @param bNorm norm of b, greater than 0
+     * @return result
+     */
+    abstract IterativeResult iterate(LinearOperator a, double[] b, double[] x, double bNorm);
+
+    /**
+     * Notifies listener and checks whether given relative residual satisfies tolerance.
+     */
+    boolean completed(int iteration, double relativeResidual) {
+        IterationListener listener = this.listener;
+        if(listener != null) {
+            listener.iterationCompleted(iteration, relativeResidual);
+        }
+
+        return relativeResidual <= tolerance;
+    }
+
+    IterativeResult result(double[] x, int iterations, double relativeResidual) {
+        return new IterativeResult(Vector.adopt(x), iterations, relativeResidual,
+                                   relativeResidual <= tolerance);
+    }
+
+    /**
+     * Stores b - A * x into r.
+     */
+    static void residual(LinearOperator a, double[] b, double[] x, double[] r) {
+        a.apply(x, r);
+        for(int i = 0; i < r.length; ++i) {
+            r[i] = b[i] - r[i];
+        }
+    }
+
+    static double dot(double[] x, double[] y) {
+        return Kernels.get().dot(x, 0, y, 0, x.length);
+    }
+
+    static double norm(double[] x) {
+        return Math.sqrt(dot(x, x));
+    }
+
+    /**
+     * Stores y + alpha * x into y.
+     */
+    static void axpy(double alpha, double[] x, double[] y) {
+        Kernels.get().axpy(alpha, x, 0, y, 0, x.length);
+    }
+}
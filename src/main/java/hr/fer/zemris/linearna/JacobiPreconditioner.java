@@ -0,0 +1,45 @@
+package hr.fer.zemris.linearna;
+
+import java.util.Objects;
+
+/**
+ * Jacobi (diagonal) preconditioner, which divides residuals by the diagonal of the system matrix.
+ *
+ * @author filip
+ *
+ */
+public final class JacobiPreconditioner implements Preconditioner {
+
+    private final double[] inverseDiagonal;
+
+    /**
+     * Constructs preconditioner from diagonal of given square matrix.
+     *
+     * @param matrix system matrix
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix is not square or has a zero on its diagonal
+     */
+    public JacobiPreconditioner(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix.getRowsCount() != matrix.getColsCount()) {
+            throw new UnsupportedOperationException("Jacobi preconditioner is defined for square matrices only.");
+        }
+
+        int n = matrix.getRowsCount();
+        this.inverseDiagonal = new double[n];
+        for(int i = 0; i < n; ++i) {
+            double diagonal = matrix.get(i, i);
+            if(diagonal == 0) {
+                throw new UnsupportedOperationException("Jacobi preconditioner requires non-zero diagonal, got 0 in row " + i);
+            }
+            inverseDiagonal[i] = 1.0 / diagonal;
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        for(int i = 0; i < inverseDiagonal.length; ++i) {
+            z[i] = r[i] * inverseDiagonal[i];
+        }
+    }
+}
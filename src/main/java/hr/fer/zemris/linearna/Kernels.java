@@ -0,0 +1,126 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Loops over contiguous ranges of double arrays which are shared by dense implementations. The instance
+ * returned by {@link #get()} is chosen once: when the project is built with the <code>simd</code> profile
+ * and the JVM is started with <code>--add-modules jdk.incubator.vector</code>, kernels use the Java Vector
+ * API; otherwise, or when system property <code>hr.fer.zemris.linearna.simd</code> is set to
+ * <code>false</code>, plain Java loops are used.
+ * <p>Vectorized kernels never fuse multiplications with additions, so elementwise kernels and
+ * {@link #axpy} return exactly the same values as the scalar ones. Only {@link #dot} may differ in the
+ * last bits, because it adds lanes in a different order.
+ *
+ * @author filip
+ *
+ */
+abstract class Kernels {
+
+    private static final String VECTOR_KERNELS = "hr.fer.zemris.linearna.VectorApiKernels";
+    private static final Kernels INSTANCE = load();
+
+    /**
+     * Gets kernels used by this JVM.
+     *
+     * @return kernels
+     */
+    static Kernels get() {
+        return INSTANCE;
+    }
+
+    private static Kernels load() {
+        if(!Boolean.parseBoolean(System.getProperty("hr.fer.zemris.linearna.simd", "true"))) {
+            return new ScalarKernels();
+        }
+
+        try {
+            Kernels kernels = (Kernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+            double[] probe = {1, 2, 3};
+            kernels.dot(probe, 0, probe, 0, probe.length);
+
+            return kernels;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return new ScalarKernels();
+        }
+    }
+
+    /**
+     * Gets name of these kernels, e.g. for benchmark reports.
+     *
+     * @return name
+     */
+    abstract String getName();
+
+    /**
+     * Calculates scalar product of length elements of a and b starting at given offsets.
+     */
+    abstract double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    /**
+     * Adds alpha * x to y, element by element.
+     */
+    abstract void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+    /**
+     * Stores a + b into result, element by element. Result may be the same range as any operand.
+     */
+    abstract void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset, int length);
+
+    /**
+     * Stores a - b into result, element by element. Result may be the same range as any operand.
+     */
+    abstract void sub(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset, int length);
+
+    /**
+     * Stores a * factor into result, element by element. Result may be the same range as a.
+     */
+    abstract void scale(double factor, double[] a, int aOffset, double[] result, int resultOffset, int length);
+
+    /**
+     * Kernels implemented with plain Java loops.
+     */
+    static final class ScalarKernels extends Kernels {
+
+        @Override
+        String getName() {
+            return "scalar";
+        }
+
+        @Override
+        double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+            double sum = 0.0;
+            for(int i = 0; i < length; ++i) {
+                sum += a[aOffset + i] * b[bOffset + i];
+            }
+
+            return sum;
+        }
+
+        @Override
+        void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+            for(int i = 0; i < length; ++i) {
+                y[yOffset + i] += alpha * x[xOffset + i];
+            }
+        }
+
+        @Override
+        void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset, int length) {
+            for(int i = 0; i < length; ++i) {
+                result[resultOffset + i] = a[aOffset + i] + b[bOffset + i];
+            }
+        }
+
+        @Override
+        void sub(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset, int length) {
+            for(int i = 0; i < length; ++i) {
+                result[resultOffset + i] = a[aOffset + i] - b[bOffset + i];
+            }
+        }
+
+        @Override
+        void scale(double factor, double[] a, int aOffset, double[] result, int resultOffset, int length) {
+            for(int i = 0; i < length; ++i) {
+                result[resultOffset + i] = a[aOffset + i] * factor;
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * LU decomposition with partial pivoting of a square matrix. Decomposition is calculated on a dense copy
+ * of given matrix, so it works with every {@link IMatrix} implementation, including live views, in O(n^3) time.
+ * Factors are stored compactly: strictly lower part holds L (with implicit unit diagonal) and upper part holds U.
+ *
+ * @author filip
+ *
+ */
+public final class LUDecomposition implements Decomposition {
+
+    private final double[][] lu;
+    private final int[] pivots;
+    private final int pivotSign;
+    private final int n;
+    private final boolean singular;
+
+    /**
+     * Decomposes given square matrix.
+     *
+     * @param matrix matrix to decompose
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix is not a square matrix
+     */
+    public LUDecomposition(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix.getRowsCount() != matrix.getColsCount()) {
+            throw new UnsupportedOperationException("LU decomposition is defined for square matrices only.");
+        }
+
+        this.n = matrix.getRowsCount();
+        this.lu = matrix.toArray();
+        this.pivots = new int[n];
+
+        double maxAbs = 0;
+        for(double[] row : lu) {
+            for(double element : row) {
+                maxAbs = Math.max(maxAbs, Math.abs(element));
+            }
+        }
+
+        int sign = 1;
+        boolean singular = false;
+        for(int i = 0; i < n; ++i) {
+            pivots[i] = i;
+        }
+
+        for(int k = 0; k < n; ++k) {
+            int pivotRow = k;
+            double pivotAbs = Math.abs(lu[k][k]);
+            for(int i = k + 1; i < n; ++i) {
+                double candidate = Math.abs(lu[i][k]);
+                if(candidate > pivotAbs) {
+                    pivotAbs = candidate;
+                    pivotRow = i;
+                }
+            }
+
+            if(pivotRow != k) {
+                double[] tmpRow = lu[k];
+                lu[k] = lu[pivotRow];
+                lu[pivotRow] = tmpRow;
+
+                int tmpPivot = pivots[k];
+                pivots[k] = pivots[pivotRow];
+                pivots[pivotRow] = tmpPivot;
+
+                sign = -sign;
+            }
+
+            double[] rowK = lu[k];
+            double pivot = rowK[k];
+            if(!(pivotAbs > AbstractMatrix.SINGULARITY_TOLERANCE * maxAbs)) {
+                singular = true;
+            }
+            if(pivot == 0) {
+                continue;
+            }
+
+            for(int i = k + 1; i < n; ++i) {
+                double[] rowI = lu[i];
+                double factor = rowI[k] / pivot;
+                rowI[k] = factor;
+                if(factor == 0) continue;
+
+                for(int j = k + 1; j < n; ++j) {
+                    rowI[j] -= factor * rowK[j];
+                }
+            }
+        }
+
+        this.pivotSign = sign;
+        this.singular = singular;
+    }
+
+    /**
+     * Gets dimension of decomposed matrix.
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return n;
+    }
+
+    @Override
+    public int getColsCount() {
+        return n;
+    }
+
+    /**
+     * Calculates determinant of decomposed matrix as product of U's diagonal multiplied with the sign
+     * of row permutation.
+     *
+     * @return determinant, or NaN for 0x0 matrix
+     */
+    public double determinant() {
+        if(n == 0) {
+            return Double.NaN;
+        }
+
+        double result = pivotSign;
+        for(int i = 0; i < n; ++i) {
+            result *= lu[i][i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether decomposed matrix is singular, i.e. whether some pivot is negligible relative to the
+     * largest absolute element of the matrix.
+     *
+     * @return true if decomposed matrix is singular
+     */
+    public boolean isSingular() {
+        return singular;
+    }
+
+    /**
+     * Solves system A * X = B, where A is the decomposed matrix, with forward and back substitution.
+     *
+     * @param b right-hand sides, one per column
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if given matrix's row count differs from dimension
+     * @throws UnsupportedOperationException if decomposed matrix is singular
+     * @return solutions, one per column
+     */
+    @Override
+    public DenseMatrix solve(IMatrix b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(b).getRowsCount() != n) {
+            throw new IncompatibleOperandException();
+        }
+
+        int m = b.getColsCount();
+        double[] x = new double[n * m];
+        for(int i = 0; i < n; ++i) {
+            for(int j = 0; j < m; ++j) {
+                x[i * m + j] = b.get(pivots[i], j);
+            }
+        }
+
+        solveInPlace(x, m);
+        return new DenseMatrix(n, m, x);
+    }
+
+    /**
+     * Solves system A * x = b, where A is the decomposed matrix, with forward and back substitution.
+     *
+     * @param b right-hand side
+     * @throws NullPointerException if given vector is null
+     * @throws IncompatibleOperandException if given vector's dimension differs from dimension
+     * @throws UnsupportedOperationException if decomposed matrix is singular
+     * @return solution
+     */
+    @Override
+    public IVector solve(IVector b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(b).getDimension() != n) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[] x = new double[n];
+        for(int i = 0; i < n; ++i) {
+            x[i] = b.get(pivots[i]);
+        }
+
+        solveInPlace(x, 1);
+        return Vector.adopt(x);
+    }
+
+    /**
+     * Replaces permuted right-hand sides stored row-major in x, m per row, with solutions.
+     */
+    private void solveInPlace(double[] x, int m) {
+        if(singular) {
+            throw new UnsupportedOperationException("Cannot solve system with singular matrix.");
+        }
+
+        for(int k = 0; k < n; ++k) {
+            int rowK = k * m;
+            for(int i = k + 1; i < n; ++i) {
+                double factor = lu[i][k];
+                if(factor == 0) continue;
+
+                int rowI = i * m;
+                for(int j = 0; j < m; ++j) {
+                    x[rowI + j] -= factor * x[rowK + j];
+                }
+            }
+        }
+
+        for(int k = n - 1; k >= 0; --k) {
+            int rowK = k * m;
+            double pivot = lu[k][k];
+            for(int j = 0; j < m; ++j) {
+                x[rowK + j] /= pivot;
+            }
+            for(int i = 0; i < k; ++i) {
+                double factor = lu[i][k];
+                if(factor == 0) continue;
+
+                int rowI = i * m;
+                for(int j = 0; j < m; ++j) {
+                    x[rowI + j] -= factor * x[rowK + j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package hr.fer.zemris.linearna;
+
+import java.util.Objects;
+
+/**
+ * Linear map y = A * x given only through its action on vectors. Iterative solvers need nothing else
+ * from the system matrix, so they work with sparse matrices, live views and operators which are never
+ * stored as matrices at all.
+ *
+ * @author filip
+ *
+ */
+public interface LinearOperator {
+
+    /**
+     * Gets dimension of results.
+     *
+     * @return number of rows
+     */
+    public int getRowsCount();
+
+    /**
+     * Gets dimension of arguments.
+     *
+     * @return number of columns
+     */
+    public int getColsCount();
+
+    /**
+     * Stores product of this operator and vector x into array y. Arrays must not be the same.
+     *
+     * @param x argument, of length equal to column count
+     * @param y result, of length equal to row count
+     */
+    public void apply(double[] x, double[] y);
+
+    /**
+     * Creates operator which multiplies with given matrix. Sparse and dense matrices are multiplied
+     * directly on their storage, other implementations through {@link IMatrix#get(int, int)}.
+     *
+     * @param matrix matrix
+     * @throws NullPointerException if given matrix is null
+     * @return operator backed by given matrix
+     */
+    public static LinearOperator of(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+
+        if(matrix instanceof CsrMatrix) {
+            return of(rows, cols, ((CsrMatrix) matrix)::multiply);
+        }
+        if(matrix instanceof CooMatrix) {
+            return of(rows, cols, ((CooMatrix) matrix)::multiply);
+        }
+        if(matrix instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) matrix;
+            return of(rows, cols, (x, y) -> {
+                double[] elements = dense.getElements();
+                Kernels kernels = Kernels.get();
+                for(int i = 0; i < rows; ++i) {
+                    y[i] = kernels.dot(elements, dense.getOffset() + i * dense.getStride(), x, 0, cols);
+                }
+            });
+        }
+
+        return of(rows, cols, (x, y) -> {
+            for(int i = 0; i < rows; ++i) {
+                double sum = 0.0;
+                for(int j = 0; j < cols; ++j) {
+                    sum += matrix.get(i, j) * x[j];
+                }
+                y[i] = sum;
+            }
+        });
+    }
+
+    /**
+     * Creates operator of given dimensions from given product function.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param product function which stores product with its first argument into its second argument
+     * @throws NullPointerException if product is null
+     * @throws IllegalArgumentException if rows or cols is negative
+     * @return operator
+     */
+    public static LinearOperator of(int rows, int cols, Product product) {
+        Objects.requireNonNull(product);
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        return new LinearOperator() {
+            @Override
+            public int getRowsCount() {
+                return rows;
+            }
+
+            @Override
+            public int getColsCount() {
+                return cols;
+            }
+
+            @Override
+            public void apply(double[] x, double[] y) {
+                product.apply(x, y);
+            }
+        };
+    }
+
+    /**
+     * Function which stores product of an operator and vector x into array y.
+     */
+    @FunctionalInterface
+    public interface Product {
+
+        void apply(double[] x, double[] y);
+    }
+}
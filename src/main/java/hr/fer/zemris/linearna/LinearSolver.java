@@ -0,0 +1,75 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * Solves linear systems A * X = B without calculating the inverse of A, which is both faster and
+ * numerically more stable than <code>a.nInvert().nMultiply(b)</code>. Square systems are solved with
+ * {@link LUDecomposition}, overdetermined ones in the least squares sense with {@link QRDecomposition}.
+ * When the same system is solved for many right-hand sides, factorize it once with
+ * {@link #factorize(IMatrix)} or use a {@link CholeskyDecomposition} for symmetric positive definite
+ * systems.
+ *
+ * @author filip
+ *
+ */
+public final class LinearSolver {
+
+    private LinearSolver() {
+    }
+
+    /**
+     * Factorizes given system matrix with LU decomposition if it is square, or with QR decomposition if it
+     * has more rows than columns.
+     *
+     * @param a system matrix
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix has fewer rows than columns
+     * @return reusable factorization
+     */
+    public static Decomposition factorize(IMatrix a) {
+        if(Objects.requireNonNull(a).getRowsCount() == a.getColsCount()) {
+            return new LUDecomposition(a);
+        }
+
+        return new QRDecomposition(a);
+    }
+
+    /**
+     * Solves system A * X = B for all columns of B at once.
+     *
+     * @param a system matrix
+     * @param b right-hand sides, one per column
+     * @throws NullPointerException if any argument is null
+     * @throws IncompatibleOperandException if row counts of given matrices differ
+     * @throws UnsupportedOperationException if system matrix is singular or has fewer rows than columns
+     * @return solutions, one per column
+     */
+    public static DenseMatrix solve(IMatrix a, IMatrix b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(a).getRowsCount() != Objects.requireNonNull(b).getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+
+        return factorize(a).solve(b);
+    }
+
+    /**
+     * Solves system A * x = b.
+     *
+     * @param a system matrix
+     * @param b right-hand side
+     * @throws NullPointerException if any argument is null
+     * @throws IncompatibleOperandException if system matrix's row count differs from vector's dimension
+     * @throws UnsupportedOperationException if system matrix is singular or has fewer rows than columns
+     * @return solution
+     */
+    public static IVector solve(IMatrix a, IVector b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(a).getRowsCount() != Objects.requireNonNull(b).getDimension()) {
+            throw new IncompatibleOperandException();
+        }
+
+        return factorize(a).solve(b);
+    }
+}
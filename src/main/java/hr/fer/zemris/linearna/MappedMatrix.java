@@ -0,0 +1,183 @@
+package hr.fer.zemris.linearna;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Matrix whose elements live in a memory-mapped {@link MatrixFile}. Reads and writes go directly to the
+ * mapped pages, so opening even a very large matrix does not copy it onto the heap. Files larger than 2GB
+ * are mapped in several segments. Instances are obtained through {@link MatrixFile#map} and
+ * {@link MatrixFile#create}. Results of operations which create new matrices, such as {@link #copy()} and
+ * {@link #newInstance(int, int)}, are heap based {@link DenseMatrix} instances.
+ *
+ * @author filip
+ *
+ */
+public class MappedMatrix extends AbstractMatrix implements Closeable {
+
+    private final int rows;
+    private final int cols;
+    private final boolean columnMajor;
+    private final boolean writable;
+    private DoubleBufferSegments data;
+
+    MappedMatrix(int rows, int cols, boolean columnMajor, boolean writable, DoubleBufferSegments data) {
+        this.rows = rows;
+        this.cols = cols;
+        this.columnMajor = columnMajor;
+        this.writable = writable;
+        this.data = data;
+    }
+
+    /**
+     * Gets order in which this matrix's elements are stored in the file.
+     *
+     * @return layout of elements
+     */
+    public MatrixFile.Layout getLayout() {
+        return columnMajor ? MatrixFile.Layout.COLUMN_MAJOR : MatrixFile.Layout.ROW_MAJOR;
+    }
+
+    /**
+     * Checks whether this matrix's elements can be changed.
+     *
+     * @return true if file is mapped for writing
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data().get(index(i, j));
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        if(!writable) {
+            throw new UnsupportedOperationException("Cannot modify read-only matrix.");
+        }
+
+        data().put(index(i, j), value);
+        return this;
+    }
+
+    private long index(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+
+        return columnMajor ? (long) j * rows + i : (long) i * cols + j;
+    }
+
+    private DoubleBufferSegments data() {
+        DoubleBufferSegments data = this.data;
+        if(data == null) {
+            throw new IllegalStateException("Matrix is closed.");
+        }
+
+        return data;
+    }
+
+    /**
+     * Copies this matrix onto the heap.
+     *
+     * @throws IllegalArgumentException if this matrix is too large for dense storage
+     * @return dense copy of this matrix
+     */
+    @Override
+    public IMatrix copy() {
+        DoubleBufferSegments data = data();
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        double[] elements = result.getElements();
+
+        if(!columnMajor) {
+            data.get(0, elements, 0, elements.length);
+            return result;
+        }
+
+        double[] column = new double[rows];
+        for(int j = 0; j < cols; ++j) {
+            data.get((long) j * rows, column, 0, rows);
+            for(int i = 0; i < rows; ++i) {
+                elements[i * cols + j] = column[i];
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new DenseMatrix(rows, cols);
+    }
+
+    @Override
+    public double[][] toArray() {
+        DoubleBufferSegments data = data();
+        double[][] array = new double[rows][cols];
+
+        if(!columnMajor) {
+            for(int i = 0; i < rows; ++i) {
+                data.get((long) i * cols, array[i], 0, cols);
+            }
+            return array;
+        }
+
+        double[] column = new double[rows];
+        for(int j = 0; j < cols; ++j) {
+            data.get((long) j * rows, column, 0, rows);
+            for(int i = 0; i < rows; ++i) {
+                array[i][j] = column[i];
+            }
+        }
+
+        return array;
+    }
+
+    /**
+     * Writes changes made to a writable matrix back to the file.
+     *
+     * @throws IllegalStateException if this matrix is closed
+     */
+    public void force() {
+        if(!writable) {
+            return;
+        }
+
+        for(ByteBuffer buffer : data().buffers()) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    /**
+     * Writes pending changes back to the file and unmaps it. Any further access to elements of this matrix
+     * throws {@link IllegalStateException}. Live views of this matrix must not be used by other threads while
+     * it is being closed.
+     */
+    @Override
+    public void close() {
+        if(data == null) {
+            return;
+        }
+
+        force();
+        DoubleBufferSegments data = this.data;
+        this.data = null;
+        data.release();
+    }
+}
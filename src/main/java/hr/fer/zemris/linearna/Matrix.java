@@ -1,25 +1,62 @@
 package hr.fer.zemris.linearna;
 
-import java.util.ArrayList;
-import java.util.List;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
 import java.util.Objects;
 
 import static java.util.Arrays.stream;
 
+/**
+ * Matrix whose rows are stored in separate arrays. Copies of matrices which own their rows are
+ * copy-on-write: {@link #copy()} shares rows with the copied matrix and both matrices clone them before
+ * their first modification, so copies which are only read never pay for cloning. Rows given to
+ * {@link #Matrix(double[][])} stay visible to the caller, so they are cloned when the matrix is copied.
+ * <p>Matrix is not thread-safe, and neither is copying: a matrix must not be modified while it is being
+ * copied, and a copy has to be safely published before it is used in another thread.
+ *
+ * @author filip
+ *
+ */
 public class Matrix extends AbstractMatrix {
 
-    private final double[][] elements;
+    private double[][] elements;
     private final int rows;
     private final int cols;
+    /**
+     * If true, rows may be shared with other matrices and must be cloned before modification.
+     */
+    private boolean shared;
+    /**
+     * If false, rows belong to the caller of the constructor, who may still modify them.
+     */
+    private final boolean owned;
 
     /**
-     * Constructs an instance of Matrix with given elements.
+     * Constructs an instance of Matrix with given elements. Given rows are used directly, so changes of
+     * this matrix are visible through them and vice versa.
      *
      * @param elements elements of new matrix
      * @throws NullPointerException if given argument is null
      */
     public Matrix(double[][] elements) {
-        this.elements = Objects.requireNonNull(elements);
+        this(Objects.requireNonNull(elements), false);
+    }
+
+    /**
+     * Creates a matrix which takes ownership of given rows. Unlike rows given to
+     * {@link #Matrix(double[][])}, they are shared with copies until first modification, so they must
+     * not be used by the caller afterwards.
+     *
+     * @param elements newly allocated rows
+     * @return matrix owning given rows
+     */
+    static Matrix adopt(double[][] elements) {
+        return new Matrix(elements, true);
+    }
+
+    private Matrix(double[][] elements, boolean owned) {
+        this.elements = elements;
+        this.owned = owned;
         rows = elements.length;
         cols = rows == 0 ? 0 : elements[0].length;
     }
@@ -55,13 +92,52 @@ public class Matrix extends AbstractMatrix {
             throw new IllegalArgumentException("Expected cols in range [0, " + getColsCount() +  "), got " + j);
         }
 
-        elements[i][j] = value;
+        writableElements()[i][j] = value;
         return this;
     }
 
+    /**
+     * Gets rows of this matrix for modification, cloning them first if they are shared.
+     *
+     * @return rows which may be modified
+     */
+    private double[][] writableElements() {
+        if(shared) {
+            elements = cloneElements();
+            shared = false;
+        }
+
+        return elements;
+    }
+
+    private double[][] cloneElements() {
+        if(Metrics.ENABLED) {
+            Metrics.recordAllocation(Metrics.Operation.COPY, (long) Double.BYTES * rows * cols);
+        }
+
+        return stream(elements).map(double[]::clone).toArray(double[][]::new);
+    }
+
+    /**
+     * Copies this matrix. Rows are shared with the copy until either matrix is modified, unless they were
+     * given to the constructor, in which case they are cloned immediately.
+     */
     @Override
     public IMatrix copy() {
-        return new Matrix(stream(elements).map(double[]::clone).toArray(double[][]::new));
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        Matrix result;
+        if(owned) {
+            result = new Matrix(elements, true);
+            result.shared = true;
+            shared = true;
+        } else {
+            result = new Matrix(cloneElements(), true);
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.COPY, start, (long) rows * cols, 0);
+        }
+        return result;
     }
 
     @Override
@@ -73,7 +149,107 @@ public class Matrix extends AbstractMatrix {
             throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
         }
 
-        return new Matrix(new double[rows][cols]);
+        return new Matrix(new double[rows][cols], true);
+    }
+
+    @Override
+    public IMatrix nTransponse(IMatrix dest) {
+        if(!(dest instanceof Matrix) || dest == this) {
+            return super.nTransponse(dest);
+        }
+
+        checkDestination(dest, cols, rows);
+        double[][] result = ((Matrix) dest).writableElements();
+        for(int i = 0; i < rows; ++i) {
+            double[] row = elements[i];
+            for(int j = 0; j < cols; ++j) {
+                result[j][i] = row[j];
+            }
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nAdd(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix) || !(dest instanceof Matrix)) {
+            return super.nAdd(that, dest);
+        }
+
+        Matrix other = (Matrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, cols);
+
+        double[][] result = ((Matrix) dest).writableElements();
+        for(int i = 0; i < rows; ++i) {
+            double[] a = elements[i], b = other.elements[i], c = result[i];
+            for(int j = 0; j < cols; ++j) {
+                c[j] = a[j] + b[j];
+            }
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nSub(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix) || !(dest instanceof Matrix)) {
+            return super.nSub(that, dest);
+        }
+
+        Matrix other = (Matrix) that;
+        if(rows != other.rows || cols != other.cols) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, cols);
+
+        double[][] result = ((Matrix) dest).writableElements();
+        for(int i = 0; i < rows; ++i) {
+            double[] a = elements[i], b = other.elements[i], c = result[i];
+            for(int j = 0; j < cols; ++j) {
+                c[j] = a[j] - b[j];
+            }
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix) || !(dest instanceof Matrix) || dest == this || dest == that) {
+            return super.nMultiply(that, dest);
+        }
+
+        Matrix other = (Matrix) that;
+        if(cols != other.rows) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, other.cols);
+        if((long) rows * cols * other.cols >= MatrixMultiplication.PACKING_THRESHOLD) {
+            return super.nMultiply(that, dest);
+        }
+
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        double[][] b = other.elements;
+        double[][] result = ((Matrix) dest).writableElements();
+        for(int i = 0; i < rows; ++i) {
+            double[] a = elements[i], c = result[i];
+            for(int j = 0, resultCols = other.cols; j < resultCols; ++j) {
+                double cellResult = 0;
+                for(int k = 0; k < cols; ++k) {
+                    cellResult += a[k] * b[k][j];
+                }
+
+                c[j] = cellResult;
+            }
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.MULTIPLY, start, (long) rows * other.cols, 0);
+        }
+        return dest;
     }
 
     /**
@@ -88,34 +264,7 @@ public class Matrix extends AbstractMatrix {
      * @return matrix represented by string
      */
     public static IMatrix parseSimple(String string) {
-        Objects.requireNonNull(string);
-
-        String[] rows = string.trim().replaceAll("\\s+", " ").split("\\s\\|\\s");
-        if(rows.length == 1 && rows[0].matches("|\\s")) {
-            return new Matrix(new double[0][0]);
-        }
-
-        List<double[]> elementsByRows = new ArrayList<>();
-        for(String row : rows) {
-            String[] stringRowElements = row.split(" ");
-            double[] rowElements = new double[stringRowElements.length];
-
-            for(int i = 0, length = stringRowElements.length; i < length; ++i) {
-                try {
-                    rowElements[i] = Double.parseDouble(stringRowElements[i]);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid number representation: " + e.getMessage());
-                }
-            }
-
-            elementsByRows.add(rowElements);
-        }
-
-        if(elementsByRows.stream().map(t -> t.length).distinct().toArray().length != 1) {
-            throw new IllegalArgumentException("All matrix rows must be of equal length.");
-        }
-
-        return new Matrix(elementsByRows.toArray(new double[0][]));
+        return SimpleFormatParser.parseMatrix(Objects.requireNonNull(string));
     }
 
     public static void main(String[] args) {
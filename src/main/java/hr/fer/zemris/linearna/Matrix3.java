@@ -0,0 +1,319 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * 3x3 matrix whose elements are stored in fields. Operations with other 3x3 matrices are unrolled, and
+ * methods which take a destination write their result into it instead of allocating a new object.
+ * Destination may be the same object as any of the operands.
+ *
+ * @author filip
+ *
+ */
+public final class Matrix3 extends AbstractMatrix {
+
+    private double m00, m01, m02;
+    private double m10, m11, m12;
+    private double m20, m21, m22;
+
+    /**
+     * Constructs a zero matrix.
+     */
+    public Matrix3() {
+    }
+
+    /**
+     * Constructs a matrix with given elements, listed row by row.
+     */
+    public Matrix3(double m00, double m01, double m02,
+                   double m10, double m11, double m12,
+                   double m20, double m21, double m22) {
+        set(m00, m01, m02,
+            m10, m11, m12,
+            m20, m21, m22);
+    }
+
+    /**
+     * Creates an identity matrix.
+     *
+     * @return identity matrix
+     */
+    public static Matrix3 identity() {
+        Matrix3 result = new Matrix3();
+        result.m00 = 1;
+        result.m11 = 1;
+        result.m22 = 1;
+        return result;
+    }
+
+    /**
+     * Sets all elements of this matrix, listed row by row.
+     *
+     * @return this matrix
+     */
+    public Matrix3 set(double m00, double m01, double m02,
+                       double m10, double m11, double m12,
+                       double m20, double m21, double m22) {
+        this.m00 = m00; this.m01 = m01; this.m02 = m02;
+        this.m10 = m10; this.m11 = m11; this.m12 = m12;
+        this.m20 = m20; this.m21 = m21; this.m22 = m22;
+        return this;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return 3;
+    }
+
+    @Override
+    public int getColsCount() {
+        return 3;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        switch(index(i, j)) {
+            case 0: return m00;
+            case 1: return m01;
+            case 2: return m02;
+            case 3: return m10;
+            case 4: return m11;
+            case 5: return m12;
+            case 6: return m20;
+            case 7: return m21;
+            case 8: return m22;
+            default: throw new IllegalStateException();
+        }
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        switch(index(i, j)) {
+            case 0: m00 = value; break;
+            case 1: m01 = value; break;
+            case 2: m02 = value; break;
+            case 3: m10 = value; break;
+            case 4: m11 = value; break;
+            case 5: m12 = value; break;
+            case 6: m20 = value; break;
+            case 7: m21 = value; break;
+            case 8: m22 = value; break;
+            default: throw new IllegalStateException();
+        }
+
+        return this;
+    }
+
+    private static int index(int i, int j) {
+        if(i < 0 || i >= 3) {
+            throw new IllegalArgumentException("Expected i in range [0, 3), got " + i);
+        }
+        if(j < 0 || j >= 3) {
+            throw new IllegalArgumentException("Expected j in range [0, 3), got " + j);
+        }
+
+        return i * 3 + j;
+    }
+
+    @Override
+    public IMatrix copy() {
+        return new Matrix3().set(this);
+    }
+
+    /**
+     * Copies elements of given matrix into this matrix.
+     *
+     * @param that matrix to copy
+     * @return this matrix
+     */
+    public Matrix3 set(Matrix3 that) {
+        m00 = that.m00; m01 = that.m01; m02 = that.m02;
+        m10 = that.m10; m11 = that.m11; m12 = that.m12;
+        m20 = that.m20; m21 = that.m21; m22 = that.m22;
+        return this;
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        if(rows == 3 && cols == 3) {
+            return new Matrix3();
+        }
+        if(rows == 4 && cols == 4) {
+            return new Matrix4();
+        }
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        return Matrix.adopt(new double[rows][cols]);
+    }
+
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return super.nTransponse(true);
+        }
+
+        return nTransponse(new Matrix3());
+    }
+
+    /**
+     * Stores transponsed version of this matrix into destination matrix.
+     *
+     * @param dest destination matrix
+     * @return destination matrix
+     */
+    public Matrix3 nTransponse(Matrix3 dest) {
+        return dest.set(m00, m10, m20, m01, m11, m21, m02, m12, m22);
+    }
+
+    @Override
+    public IMatrix nTransponse(IMatrix dest) {
+        if(!(dest instanceof Matrix3) || dest == this) {
+            return super.nTransponse(dest);
+        }
+
+        return nTransponse((Matrix3) dest);
+    }
+
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix3)) {
+            return super.add(that);
+        }
+
+        Matrix3 other = (Matrix3) that;
+        m00 += other.m00; m01 += other.m01; m02 += other.m02;
+        m10 += other.m10; m11 += other.m11; m12 += other.m12;
+        m20 += other.m20; m21 += other.m21; m22 += other.m22;
+        return this;
+    }
+
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix3)) {
+            return super.sub(that);
+        }
+
+        Matrix3 other = (Matrix3) that;
+        m00 -= other.m00; m01 -= other.m01; m02 -= other.m02;
+        m10 -= other.m10; m11 -= other.m11; m12 -= other.m12;
+        m20 -= other.m20; m21 -= other.m21; m22 -= other.m22;
+        return this;
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix3)) {
+            return super.nMultiply(that);
+        }
+
+        return nMultiply((Matrix3) that, new Matrix3());
+    }
+
+    /**
+     * Stores product of this and given matrix into destination matrix.
+     *
+     * @param that right operand
+     * @param dest destination matrix
+     * @return destination matrix
+     */
+    public Matrix3 nMultiply(Matrix3 that, Matrix3 dest) {
+        return dest.set(m00 * that.m00 + m01 * that.m10 + m02 * that.m20,
+                        m00 * that.m01 + m01 * that.m11 + m02 * that.m21,
+                        m00 * that.m02 + m01 * that.m12 + m02 * that.m22,
+                        m10 * that.m00 + m11 * that.m10 + m12 * that.m20,
+                        m10 * that.m01 + m11 * that.m11 + m12 * that.m21,
+                        m10 * that.m02 + m11 * that.m12 + m12 * that.m22,
+                        m20 * that.m00 + m21 * that.m10 + m22 * that.m20,
+                        m20 * that.m01 + m21 * that.m11 + m22 * that.m21,
+                        m20 * that.m02 + m21 * that.m12 + m22 * that.m22);
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix3) || !(dest instanceof Matrix3)) {
+            return super.nMultiply(that, dest);
+        }
+
+        return nMultiply((Matrix3) that, (Matrix3) dest);
+    }
+
+    /**
+     * Stores product of this matrix and given column vector into destination vector.
+     *
+     * @param vector vector to transform
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector3 transform(Vector3 vector, Vector3 dest) {
+        double x = vector.getX();
+        double y = vector.getY();
+        double z = vector.getZ();
+        return dest.set(m00 * x + m01 * y + m02 * z,
+                        m10 * x + m11 * y + m12 * z,
+                        m20 * x + m21 * y + m22 * z);
+    }
+
+    @Override
+    public double determinant() {
+        return m00 * (m11 * m22 - m12 * m21)
+                - m01 * (m10 * m22 - m12 * m20)
+                + m02 * (m10 * m21 - m11 * m20);
+    }
+
+    @Override
+    public IMatrix nInvert() {
+        return nInvert(new Matrix3());
+    }
+
+    /**
+     * Stores inverse of this matrix, calculated from its adjugate, into destination matrix. Matrix is
+     * considered singular if absolute value of its determinant is not greater than
+     * {@link #SINGULARITY_TOLERANCE} multiplied with the cube of its largest absolute element.
+     *
+     * @param dest destination matrix
+     * @throws UnsupportedOperationException if this is a singular matrix
+     * @return destination matrix
+     */
+    public Matrix3 nInvert(Matrix3 dest) {
+        double c00 = m11 * m22 - m12 * m21;
+        double c01 = m12 * m20 - m10 * m22;
+        double c02 = m10 * m21 - m11 * m20;
+        double determinant = m00 * c00 + m01 * c01 + m02 * c02;
+
+        double scale = maxAbsElement();
+        if(!(Math.abs(determinant) > SINGULARITY_TOLERANCE * scale * scale * scale)) {
+            throw new UnsupportedOperationException("Cannot calculate inverse of singular matrix.");
+        }
+
+        double inverseDeterminant = 1.0 / determinant;
+        return dest.set(c00 * inverseDeterminant,
+                        (m02 * m21 - m01 * m22) * inverseDeterminant,
+                        (m01 * m12 - m02 * m11) * inverseDeterminant,
+                        c01 * inverseDeterminant,
+                        (m00 * m22 - m02 * m20) * inverseDeterminant,
+                        (m02 * m10 - m00 * m12) * inverseDeterminant,
+                        c02 * inverseDeterminant,
+                        (m01 * m20 - m00 * m21) * inverseDeterminant,
+                        (m00 * m11 - m01 * m10) * inverseDeterminant);
+    }
+
+    private double maxAbsElement() {
+        double max = Math.max(Math.max(Math.abs(m00), Math.abs(m01)), Math.abs(m02));
+        max = Math.max(max, Math.max(Math.max(Math.abs(m10), Math.abs(m11)), Math.abs(m12)));
+        return Math.max(max, Math.max(Math.max(Math.abs(m20), Math.abs(m21)), Math.abs(m22)));
+    }
+
+    @Override
+    public double[][] toArray() {
+        return new double[][] {
+                {m00, m01, m02},
+                {m10, m11, m12},
+                {m20, m21, m22}
+        };
+    }
+}
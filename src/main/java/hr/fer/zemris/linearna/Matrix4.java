@@ -0,0 +1,425 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * 4x4 matrix whose elements are stored in fields, usually used as a transformation in homogeneous
+ * coordinates. Operations with other 4x4 matrices are unrolled, and methods which take a destination
+ * write their result into it instead of allocating a new object. Destination may be the same object as
+ * any of the operands.
+ *
+ * @author filip
+ *
+ */
+public final class Matrix4 extends AbstractMatrix {
+
+    private double m00, m01, m02, m03;
+    private double m10, m11, m12, m13;
+    private double m20, m21, m22, m23;
+    private double m30, m31, m32, m33;
+
+    /**
+     * Constructs a zero matrix.
+     */
+    public Matrix4() {
+    }
+
+    /**
+     * Constructs a matrix with given elements, listed row by row.
+     */
+    public Matrix4(double m00, double m01, double m02, double m03,
+                   double m10, double m11, double m12, double m13,
+                   double m20, double m21, double m22, double m23,
+                   double m30, double m31, double m32, double m33) {
+        set(m00, m01, m02, m03,
+            m10, m11, m12, m13,
+            m20, m21, m22, m23,
+            m30, m31, m32, m33);
+    }
+
+    /**
+     * Creates an identity matrix.
+     *
+     * @return identity matrix
+     */
+    public static Matrix4 identity() {
+        Matrix4 result = new Matrix4();
+        result.m00 = 1;
+        result.m11 = 1;
+        result.m22 = 1;
+        result.m33 = 1;
+        return result;
+    }
+
+    /**
+     * Sets all elements of this matrix, listed row by row.
+     *
+     * @return this matrix
+     */
+    public Matrix4 set(double m00, double m01, double m02, double m03,
+                       double m10, double m11, double m12, double m13,
+                       double m20, double m21, double m22, double m23,
+                       double m30, double m31, double m32, double m33) {
+        this.m00 = m00; this.m01 = m01; this.m02 = m02; this.m03 = m03;
+        this.m10 = m10; this.m11 = m11; this.m12 = m12; this.m13 = m13;
+        this.m20 = m20; this.m21 = m21; this.m22 = m22; this.m23 = m23;
+        this.m30 = m30; this.m31 = m31; this.m32 = m32; this.m33 = m33;
+        return this;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return 4;
+    }
+
+    @Override
+    public int getColsCount() {
+        return 4;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        switch(index(i, j)) {
+            case 0: return m00;
+            case 1: return m01;
+            case 2: return m02;
+            case 3: return m03;
+            case 4: return m10;
+            case 5: return m11;
+            case 6: return m12;
+            case 7: return m13;
+            case 8: return m20;
+            case 9: return m21;
+            case 10: return m22;
+            case 11: return m23;
+            case 12: return m30;
+            case 13: return m31;
+            case 14: return m32;
+            case 15: return m33;
+            default: throw new IllegalStateException();
+        }
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        switch(index(i, j)) {
+            case 0: m00 = value; break;
+            case 1: m01 = value; break;
+            case 2: m02 = value; break;
+            case 3: m03 = value; break;
+            case 4: m10 = value; break;
+            case 5: m11 = value; break;
+            case 6: m12 = value; break;
+            case 7: m13 = value; break;
+            case 8: m20 = value; break;
+            case 9: m21 = value; break;
+            case 10: m22 = value; break;
+            case 11: m23 = value; break;
+            case 12: m30 = value; break;
+            case 13: m31 = value; break;
+            case 14: m32 = value; break;
+            case 15: m33 = value; break;
+            default: throw new IllegalStateException();
+        }
+
+        return this;
+    }
+
+    private static int index(int i, int j) {
+        if(i < 0 || i >= 4) {
+            throw new IllegalArgumentException("Expected i in range [0, 4), got " + i);
+        }
+        if(j < 0 || j >= 4) {
+            throw new IllegalArgumentException("Expected j in range [0, 4), got " + j);
+        }
+
+        return i * 4 + j;
+    }
+
+    @Override
+    public IMatrix copy() {
+        return new Matrix4().set(this);
+    }
+
+    /**
+     * Copies elements of given matrix into this matrix.
+     *
+     * @param that matrix to copy
+     * @return this matrix
+     */
+    public Matrix4 set(Matrix4 that) {
+        m00 = that.m00; m01 = that.m01; m02 = that.m02; m03 = that.m03;
+        m10 = that.m10; m11 = that.m11; m12 = that.m12; m13 = that.m13;
+        m20 = that.m20; m21 = that.m21; m22 = that.m22; m23 = that.m23;
+        m30 = that.m30; m31 = that.m31; m32 = that.m32; m33 = that.m33;
+        return this;
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        if(rows == 3 && cols == 3) {
+            return new Matrix3();
+        }
+        if(rows == 4 && cols == 4) {
+            return new Matrix4();
+        }
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        return Matrix.adopt(new double[rows][cols]);
+    }
+
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return super.nTransponse(true);
+        }
+
+        return nTransponse(new Matrix4());
+    }
+
+    /**
+     * Stores transponsed version of this matrix into destination matrix.
+     *
+     * @param dest destination matrix
+     * @return destination matrix
+     */
+    public Matrix4 nTransponse(Matrix4 dest) {
+        return dest.set(m00, m10, m20, m30, m01, m11, m21, m31, m02, m12, m22, m32, m03, m13, m23, m33);
+    }
+
+    @Override
+    public IMatrix nTransponse(IMatrix dest) {
+        if(!(dest instanceof Matrix4) || dest == this) {
+            return super.nTransponse(dest);
+        }
+
+        return nTransponse((Matrix4) dest);
+    }
+
+    @Override
+    public IMatrix add(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix4)) {
+            return super.add(that);
+        }
+
+        Matrix4 other = (Matrix4) that;
+        m00 += other.m00; m01 += other.m01; m02 += other.m02; m03 += other.m03;
+        m10 += other.m10; m11 += other.m11; m12 += other.m12; m13 += other.m13;
+        m20 += other.m20; m21 += other.m21; m22 += other.m22; m23 += other.m23;
+        m30 += other.m30; m31 += other.m31; m32 += other.m32; m33 += other.m33;
+        return this;
+    }
+
+    @Override
+    public IMatrix sub(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix4)) {
+            return super.sub(that);
+        }
+
+        Matrix4 other = (Matrix4) that;
+        m00 -= other.m00; m01 -= other.m01; m02 -= other.m02; m03 -= other.m03;
+        m10 -= other.m10; m11 -= other.m11; m12 -= other.m12; m13 -= other.m13;
+        m20 -= other.m20; m21 -= other.m21; m22 -= other.m22; m23 -= other.m23;
+        m30 -= other.m30; m31 -= other.m31; m32 -= other.m32; m33 -= other.m33;
+        return this;
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix4)) {
+            return super.nMultiply(that);
+        }
+
+        return nMultiply((Matrix4) that, new Matrix4());
+    }
+
+    /**
+     * Stores product of this and given matrix into destination matrix.
+     *
+     * @param that right operand
+     * @param dest destination matrix
+     * @return destination matrix
+     */
+    public Matrix4 nMultiply(Matrix4 that, Matrix4 dest) {
+        return dest.set(m00 * that.m00 + m01 * that.m10 + m02 * that.m20 + m03 * that.m30,
+                        m00 * that.m01 + m01 * that.m11 + m02 * that.m21 + m03 * that.m31,
+                        m00 * that.m02 + m01 * that.m12 + m02 * that.m22 + m03 * that.m32,
+                        m00 * that.m03 + m01 * that.m13 + m02 * that.m23 + m03 * that.m33,
+                        m10 * that.m00 + m11 * that.m10 + m12 * that.m20 + m13 * that.m30,
+                        m10 * that.m01 + m11 * that.m11 + m12 * that.m21 + m13 * that.m31,
+                        m10 * that.m02 + m11 * that.m12 + m12 * that.m22 + m13 * that.m32,
+                        m10 * that.m03 + m11 * that.m13 + m12 * that.m23 + m13 * that.m33,
+                        m20 * that.m00 + m21 * that.m10 + m22 * that.m20 + m23 * that.m30,
+                        m20 * that.m01 + m21 * that.m11 + m22 * that.m21 + m23 * that.m31,
+                        m20 * that.m02 + m21 * that.m12 + m22 * that.m22 + m23 * that.m32,
+                        m20 * that.m03 + m21 * that.m13 + m22 * that.m23 + m23 * that.m33,
+                        m30 * that.m00 + m31 * that.m10 + m32 * that.m20 + m33 * that.m30,
+                        m30 * that.m01 + m31 * that.m11 + m32 * that.m21 + m33 * that.m31,
+                        m30 * that.m02 + m31 * that.m12 + m32 * that.m22 + m33 * that.m32,
+                        m30 * that.m03 + m31 * that.m13 + m32 * that.m23 + m33 * that.m33);
+    }
+
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(!(that instanceof Matrix4) || !(dest instanceof Matrix4)) {
+            return super.nMultiply(that, dest);
+        }
+
+        return nMultiply((Matrix4) that, (Matrix4) dest);
+    }
+
+    /**
+     * Stores product of this matrix and given column vector into destination vector.
+     *
+     * @param vector vector to transform
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector4 transform(Vector4 vector, Vector4 dest) {
+        double x = vector.getX();
+        double y = vector.getY();
+        double z = vector.getZ();
+        double w = vector.getW();
+        return dest.set(m00 * x + m01 * y + m02 * z + m03 * w,
+                        m10 * x + m11 * y + m12 * z + m13 * w,
+                        m20 * x + m21 * y + m22 * z + m23 * w,
+                        m30 * x + m31 * y + m32 * z + m33 * w);
+    }
+
+    /**
+     * Transforms given point, taking it as homogeneous vector with fourth element equal to 1, and stores
+     * the result divided by its homogeneous element into destination vector.
+     *
+     * @param point point to transform
+     * @param dest destination vector
+     * @throws UnsupportedOperationException if homogeneous element of the result is equal to 0
+     * @return destination vector
+     */
+    public Vector3 transformPoint(Vector3 point, Vector3 dest) {
+        double x = point.getX();
+        double y = point.getY();
+        double z = point.getZ();
+        double w = m30 * x + m31 * y + m32 * z + m33;
+        if(Double.compare(w, 0) == 0) {
+            throw new UnsupportedOperationException("Homogeneus component is equal to 0.");
+        }
+
+        return dest.set((m00 * x + m01 * y + m02 * z + m03) / w,
+                        (m10 * x + m11 * y + m12 * z + m13) / w,
+                        (m20 * x + m21 * y + m22 * z + m23) / w);
+    }
+
+    /**
+     * Transforms given direction, taking it as homogeneous vector with fourth element equal to 0, and
+     * stores first three elements of the result into destination vector.
+     *
+     * @param direction direction to transform
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector3 transformDirection(Vector3 direction, Vector3 dest) {
+        double x = direction.getX();
+        double y = direction.getY();
+        double z = direction.getZ();
+
+        return dest.set(m00 * x + m01 * y + m02 * z,
+                        m10 * x + m11 * y + m12 * z,
+                        m20 * x + m21 * y + m22 * z);
+    }
+
+    @Override
+    public double determinant() {
+        double s0 = m00 * m11 - m10 * m01;
+        double s1 = m00 * m12 - m10 * m02;
+        double s2 = m00 * m13 - m10 * m03;
+        double s3 = m01 * m12 - m11 * m02;
+        double s4 = m01 * m13 - m11 * m03;
+        double s5 = m02 * m13 - m12 * m03;
+        double c0 = m20 * m31 - m30 * m21;
+        double c1 = m20 * m32 - m30 * m22;
+        double c2 = m20 * m33 - m30 * m23;
+        double c3 = m21 * m32 - m31 * m22;
+        double c4 = m21 * m33 - m31 * m23;
+        double c5 = m22 * m33 - m32 * m23;
+
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    @Override
+    public IMatrix nInvert() {
+        return nInvert(new Matrix4());
+    }
+
+    /**
+     * Stores inverse of this matrix, calculated from its adjugate expressed through 2x2 minors of the
+     * upper and lower row pairs, into destination matrix. Matrix is considered singular if absolute value
+     * of its determinant is not greater than {@link #SINGULARITY_TOLERANCE} multiplied with the fourth
+     * power of its largest absolute element.
+     *
+     * @param dest destination matrix
+     * @throws UnsupportedOperationException if this is a singular matrix
+     * @return destination matrix
+     */
+    public Matrix4 nInvert(Matrix4 dest) {
+        double s0 = m00 * m11 - m10 * m01;
+        double s1 = m00 * m12 - m10 * m02;
+        double s2 = m00 * m13 - m10 * m03;
+        double s3 = m01 * m12 - m11 * m02;
+        double s4 = m01 * m13 - m11 * m03;
+        double s5 = m02 * m13 - m12 * m03;
+        double c0 = m20 * m31 - m30 * m21;
+        double c1 = m20 * m32 - m30 * m22;
+        double c2 = m20 * m33 - m30 * m23;
+        double c3 = m21 * m32 - m31 * m22;
+        double c4 = m21 * m33 - m31 * m23;
+        double c5 = m22 * m33 - m32 * m23;
+        double determinant = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+
+        double scale = maxAbsElement();
+        double squaredScale = scale * scale;
+        if(!(Math.abs(determinant) > SINGULARITY_TOLERANCE * squaredScale * squaredScale)) {
+            throw new UnsupportedOperationException("Cannot calculate inverse of singular matrix.");
+        }
+
+        double d = 1.0 / determinant;
+        return dest.set((m11 * c5 - m12 * c4 + m13 * c3) * d,
+                        (-m01 * c5 + m02 * c4 - m03 * c3) * d,
+                        (m31 * s5 - m32 * s4 + m33 * s3) * d,
+                        (-m21 * s5 + m22 * s4 - m23 * s3) * d,
+                        (-m10 * c5 + m12 * c2 - m13 * c1) * d,
+                        (m00 * c5 - m02 * c2 + m03 * c1) * d,
+                        (-m30 * s5 + m32 * s2 - m33 * s1) * d,
+                        (m20 * s5 - m22 * s2 + m23 * s1) * d,
+                        (m10 * c4 - m11 * c2 + m13 * c0) * d,
+                        (-m00 * c4 + m01 * c2 - m03 * c0) * d,
+                        (m30 * s4 - m31 * s2 + m33 * s0) * d,
+                        (-m20 * s4 + m21 * s2 - m23 * s0) * d,
+                        (-m10 * c3 + m11 * c1 - m12 * c0) * d,
+                        (m00 * c3 - m01 * c1 + m02 * c0) * d,
+                        (-m30 * s3 + m31 * s1 - m32 * s0) * d,
+                        (m20 * s3 - m21 * s1 + m22 * s0) * d);
+    }
+
+    private double maxAbsElement() {
+        double max = 0.0;
+        max = Math.max(max, Math.max(Math.max(Math.abs(m00), Math.abs(m01)), Math.max(Math.abs(m02), Math.abs(m03))));
+        max = Math.max(max, Math.max(Math.max(Math.abs(m10), Math.abs(m11)), Math.max(Math.abs(m12), Math.abs(m13))));
+        max = Math.max(max, Math.max(Math.max(Math.abs(m20), Math.abs(m21)), Math.max(Math.abs(m22), Math.abs(m23))));
+        return Math.max(max, Math.max(Math.max(Math.abs(m30), Math.abs(m31)), Math.max(Math.abs(m32), Math.abs(m33))));
+    }
+
+    @Override
+    public double[][] toArray() {
+        return new double[][] {
+                {m00, m01, m02, m03},
+                {m10, m11, m12, m13},
+                {m20, m21, m22, m23},
+                {m30, m31, m32, m33}
+        };
+    }
+}
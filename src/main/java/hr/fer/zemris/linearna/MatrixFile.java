@@ -0,0 +1,245 @@
+package hr.fer.zemris.linearna;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads and writes matrices in a compact binary format. A file starts with a 32 byte little-endian header:
+ * <ul>
+ * <li>bytes 0-3: magic <code>LMAT</code></li>
+ * <li>bytes 4-5: format version ({@value #VERSION})</li>
+ * <li>byte 6: layout, 0 for row-major and 1 for column-major order</li>
+ * <li>byte 7: element type, {@value #DTYPE_FLOAT64} for 64-bit IEEE 754 doubles</li>
+ * <li>bytes 8-11: number of rows</li>
+ * <li>bytes 12-15: number of columns</li>
+ * <li>bytes 16-31: reserved, written as zeros</li>
+ * </ul>
+ * The header is followed by rows * cols little-endian doubles in the given layout. Since elements start at
+ * an aligned offset, files can be mapped with {@link #map(Path, boolean)} and used as {@link MappedMatrix}
+ * without copying elements onto the heap.
+ *
+ * @author filip
+ *
+ */
+public final class MatrixFile {
+
+    /**
+     * Order in which matrix elements are stored.
+     */
+    public enum Layout {
+        ROW_MAJOR, COLUMN_MAJOR
+    }
+
+    static final int HEADER_SIZE = 32;
+    private static final byte[] MAGIC = {'L', 'M', 'A', 'T'};
+    private static final short VERSION = 1;
+    private static final byte DTYPE_FLOAT64 = 1;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private MatrixFile() {
+    }
+
+    /**
+     * Writes given matrix to file at given path in row-major layout, replacing any existing file.
+     *
+     * @param matrix matrix to write
+     * @param path file path
+     * @throws NullPointerException if any argument is null
+     * @throws IOException if writing fails
+     */
+    public static void write(IMatrix matrix, Path path) throws IOException {
+        write(matrix, path, Layout.ROW_MAJOR);
+    }
+
+    /**
+     * Writes given matrix to file at given path in given layout, replacing any existing file.
+     *
+     * @param matrix matrix to write
+     * @param path file path
+     * @param layout order in which elements are written
+     * @throws NullPointerException if any argument is null
+     * @throws IOException if writing fails
+     */
+    public static void write(IMatrix matrix, Path path, Layout layout) throws IOException {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(layout);
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        boolean columnMajor = layout == Layout.COLUMN_MAJOR;
+        int outer = columnMajor ? cols : rows;
+        int inner = columnMajor ? rows : cols;
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header(rows, cols, layout));
+
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            for(int o = 0; o < outer; ++o) {
+                for(int n = 0; n < inner; ++n) {
+                    if(!doubles.hasRemaining()) {
+                        flush(channel, buffer, doubles);
+                    }
+                    doubles.put(columnMajor ? matrix.get(n, o) : matrix.get(o, n));
+                }
+            }
+            flush(channel, buffer, doubles);
+        }
+    }
+
+    private static ByteBuffer header(int rows, int cols, Layout layout) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC);
+        header.putShort(VERSION);
+        header.put((byte) layout.ordinal());
+        header.put(DTYPE_FLOAT64);
+        header.putInt(rows);
+        header.putInt(cols);
+        header.clear();
+
+        return header;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, DoubleBuffer doubles) throws IOException {
+        buffer.clear().limit(doubles.position() * Double.BYTES);
+        writeFully(channel, buffer);
+        doubles.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Creates a new file at given path for a rows x cols matrix with all elements set to 0 and maps it
+     * for reading and writing. Any existing file is replaced.
+     *
+     * @param path file path
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param layout order in which elements are stored
+     * @throws NullPointerException if path or layout is null
+     * @throws IllegalArgumentException if rows or cols is negative
+     * @throws IOException if creating or mapping the file fails
+     * @return writable mapped matrix
+     */
+    public static MappedMatrix create(Path path, int rows, int cols, Layout layout) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(layout);
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header(rows, cols, layout));
+            long size = HEADER_SIZE + (long) rows * cols * Double.BYTES;
+            if(size > HEADER_SIZE) {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+
+            return map(channel, rows, cols, layout, true);
+        }
+    }
+
+    /**
+     * Maps matrix stored in file at given path. Elements are read from and written to mapped pages
+     * directly; changes to a writable matrix are written back to the file.
+     *
+     * @param path file path
+     * @param writable if true, file is mapped for reading and writing, otherwise only for reading
+     * @throws NullPointerException if path is null
+     * @throws IOException if file is not a valid matrix file or if mapping fails
+     * @return mapped matrix
+     */
+    public static MappedMatrix map(Path path, boolean writable) throws IOException {
+        Objects.requireNonNull(path);
+
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        try(FileChannel channel = FileChannel.open(path, options)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while(header.hasRemaining()) {
+                if(channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a matrix file: header is truncated.");
+                }
+            }
+            header.flip();
+
+            for(byte expected : MAGIC) {
+                if(header.get() != expected) {
+                    throw new IOException("Not a matrix file: invalid magic number.");
+                }
+            }
+            short version = header.getShort();
+            if(version != VERSION) {
+                throw new IOException("Unsupported matrix file version " + version + ".");
+            }
+            byte layout = header.get();
+            if(layout < 0 || layout >= Layout.values().length) {
+                throw new IOException("Unsupported matrix file layout " + layout + ".");
+            }
+            byte dtype = header.get();
+            if(dtype != DTYPE_FLOAT64) {
+                throw new IOException("Unsupported matrix file element type " + dtype + ".");
+            }
+            int rows = header.getInt();
+            int cols = header.getInt();
+            if(rows < 0 || cols < 0) {
+                throw new IOException("Invalid matrix file dimensions " + rows + "x" + cols + ".");
+            }
+
+            long size = HEADER_SIZE + (long) rows * cols * Double.BYTES;
+            if(channel.size() < size) {
+                throw new IOException("Matrix file is truncated, expected " + size + " bytes, got " + channel.size());
+            }
+
+            return map(channel, rows, cols, Layout.values()[layout], writable);
+        }
+    }
+
+    private static MappedMatrix map(FileChannel channel, int rows, int cols, Layout layout, boolean writable)
+            throws IOException {
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        long length = (long) rows * cols;
+
+        ByteBuffer[] buffers = new ByteBuffer[DoubleBufferSegments.segmentsCount(length)];
+        for(int s = 0; s < buffers.length; ++s) {
+            long position = HEADER_SIZE + ((long) s << DoubleBufferSegments.SEGMENT_SHIFT) * Double.BYTES;
+            buffers[s] = channel.map(mode, position,
+                                     (long) DoubleBufferSegments.segmentLength(length, s) * Double.BYTES);
+        }
+
+        return new MappedMatrix(rows, cols, layout == Layout.COLUMN_MAJOR, writable,
+                                new DoubleBufferSegments(buffers, ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Reads matrix stored in file at given path onto the heap.
+     *
+     * @param path file path
+     * @throws NullPointerException if path is null
+     * @throws IllegalArgumentException if stored matrix is too large for dense storage
+     * @throws IOException if file is not a valid matrix file or if reading fails
+     * @return dense copy of stored matrix
+     */
+    public static DenseMatrix read(Path path) throws IOException {
+        try(MappedMatrix matrix = map(path, false)) {
+            return (DenseMatrix) matrix.copy();
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrix multiplication kernels. Dense operands are multiplied with a cache-blocked kernel which iterates
+ * in i-k-j order, so both the right operand and the result are traversed row-wise. Every element of the
+ * result accumulates its products in ascending k order, so neither blocking nor splitting rows between
+ * threads of a {@link ForkJoinPool} changes computed values.
+ * <p>Large products can instead be calculated with Strassen's algorithm, which replaces eight products of
+ * half-sized blocks with seven and takes O(n<sup>2.81</sup>) time. It is used either explicitly through
+ * {@link #strassenMultiply(IMatrix, IMatrix)} or for every product whose dimensions all reach
+ * {@link #getStrassenThreshold()}, which is disabled by default. Strassen's algorithm adds and subtracts
+ * blocks before multiplying them, so its results differ from the blocked kernel's in rounding.
+ *
+ * @author filip
+ *
+ */
+public final class MatrixMultiplication {
+
+    /**
+     * Defines default edge length of square tiles used by blocked kernel.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    /**
+     * Defines number of multiply-add operations above which operands which are not dense are copied
+     * into dense matrices before multiplying.
+     */
+    static final long PACKING_THRESHOLD = 32L * 32 * 32;
+
+    /**
+     * Defines default number of multiply-add operations from which products are calculated in parallel.
+     */
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 128L * 128 * 128;
+
+    /**
+     * Defines default edge length up to which Strassen's recursion multiplies blocks with blocked kernel.
+     */
+    public static final int DEFAULT_STRASSEN_CUTOFF = 128;
+
+    private static volatile int blockSize = DEFAULT_BLOCK_SIZE;
+    private static volatile long parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private static volatile ForkJoinPool pool;
+    private static volatile int strassenCutoff = DEFAULT_STRASSEN_CUTOFF;
+    private static volatile int strassenThreshold = Integer.MAX_VALUE;
+
+    private MatrixMultiplication() {
+    }
+
+    /**
+     * Gets tile edge length currently used by blocked kernel.
+     *
+     * @return block size
+     */
+    public static int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets tile edge length used by blocked kernel.
+     *
+     * @param blockSize new block size
+     * @throws IllegalArgumentException if given block size is less than 1
+     */
+    public static void setBlockSize(int blockSize) {
+        if(blockSize < 1) {
+            throw new IllegalArgumentException("Expected block size >= 1, got " + blockSize);
+        }
+
+        MatrixMultiplication.blockSize = blockSize;
+    }
+
+    /**
+     * Gets number of multiply-add operations from which products are calculated in parallel.
+     *
+     * @return parallel threshold
+     */
+    public static long getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets number of multiply-add operations from which products are calculated in parallel. Setting it
+     * to {@link Long#MAX_VALUE} keeps every product single-threaded.
+     *
+     * @param parallelThreshold new parallel threshold
+     * @throws IllegalArgumentException if given threshold is less than 0
+     */
+    public static void setParallelThreshold(long parallelThreshold) {
+        if(parallelThreshold < 0) {
+            throw new IllegalArgumentException("Expected parallel threshold >= 0, got " + parallelThreshold);
+        }
+
+        MatrixMultiplication.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Gets pool used for parallel products, which is the common pool unless set otherwise.
+     *
+     * @return pool
+     */
+    public static ForkJoinPool getPool() {
+        ForkJoinPool current = pool;
+        return current == null ? ForkJoinPool.commonPool() : current;
+    }
+
+    /**
+     * Sets pool used for parallel products.
+     *
+     * @param pool new pool, or null for the common pool
+     */
+    public static void setPool(ForkJoinPool pool) {
+        MatrixMultiplication.pool = pool;
+    }
+
+    /**
+     * Gets edge length up to which Strassen's recursion multiplies blocks with blocked kernel.
+     *
+     * @return Strassen cutoff
+     */
+    public static int getStrassenCutoff() {
+        return strassenCutoff;
+    }
+
+    /**
+     * Sets edge length up to which Strassen's recursion multiplies blocks with blocked kernel.
+     *
+     * @param strassenCutoff new Strassen cutoff
+     * @throws IllegalArgumentException if given cutoff is less than 1
+     */
+    public static void setStrassenCutoff(int strassenCutoff) {
+        if(strassenCutoff < 1) {
+            throw new IllegalArgumentException("Expected Strassen cutoff >= 1, got " + strassenCutoff);
+        }
+
+        MatrixMultiplication.strassenCutoff = strassenCutoff;
+    }
+
+    /**
+     * Gets dimension from which products are calculated with Strassen's algorithm. Product is calculated
+     * with it only if row count and column count of both operands reach this threshold.
+     *
+     * @return Strassen threshold, or {@link Integer#MAX_VALUE} if Strassen's algorithm is not used
+     */
+    public static int getStrassenThreshold() {
+        return strassenThreshold;
+    }
+
+    /**
+     * Sets dimension from which products are calculated with Strassen's algorithm. Setting it to
+     * {@link Integer#MAX_VALUE}, which is the default, uses blocked kernel for every product.
+     *
+     * @param strassenThreshold new Strassen threshold
+     * @throws IllegalArgumentException if given threshold is less than 1
+     */
+    public static void setStrassenThreshold(int strassenThreshold) {
+        if(strassenThreshold < 1) {
+            throw new IllegalArgumentException("Expected Strassen threshold >= 1, got " + strassenThreshold);
+        }
+
+        MatrixMultiplication.strassenThreshold = strassenThreshold;
+    }
+
+    /**
+     * Multiplies given matrices. Dense matrices are multiplied directly, other implementations (e.g.
+     * {@link MatrixTransponseView}) are first copied into dense matrices.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @throws NullPointerException if any argument is null
+     * @throws IncompatibleOperandException if left's column count differs from right's row count
+     * @return dense product
+     */
+    public static DenseMatrix multiply(IMatrix left, IMatrix right) throws IncompatibleOperandException {
+        return multiply(left, right, blockSize);
+    }
+
+    /**
+     * Multiplies given matrices using tiles of given edge length.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @param blockSize tile edge length
+     * @throws NullPointerException if any matrix is null
+     * @throws IllegalArgumentException if given block size is less than 1
+     * @throws IncompatibleOperandException if left's column count differs from right's row count
+     * @return dense product
+     */
+    public static DenseMatrix multiply(IMatrix left, IMatrix right, int blockSize)
+            throws IncompatibleOperandException {
+        Objects.requireNonNull(left);
+        Objects.requireNonNull(right);
+        if(left.getColsCount() != right.getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+        if(blockSize < 1) {
+            throw new IllegalArgumentException("Expected block size >= 1, got " + blockSize);
+        }
+
+        DenseMatrix c = new DenseMatrix(left.getRowsCount(), right.getColsCount());
+        multiply(dense(left), dense(right), c, blockSize);
+
+        return c;
+    }
+
+    /**
+     * Multiplies given matrices in given pool regardless of their size. Rows of the result are split into
+     * blocks which are calculated independently, so result is equal to the one of serial multiplication.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @param pool pool which calculates row blocks
+     * @throws NullPointerException if any argument is null
+     * @throws IncompatibleOperandException if left's column count differs from right's row count
+     * @return dense product
+     */
+    public static DenseMatrix parallelMultiply(IMatrix left, IMatrix right, ForkJoinPool pool)
+            throws IncompatibleOperandException {
+        Objects.requireNonNull(left);
+        Objects.requireNonNull(right);
+        Objects.requireNonNull(pool);
+        if(left.getColsCount() != right.getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+
+        int blockSize = MatrixMultiplication.blockSize;
+        DenseMatrix c = new DenseMatrix(left.getRowsCount(), right.getColsCount());
+        pool.invoke(new RowBlockTask(dense(left), dense(right), c, 0, c.getRowsCount(), blockSize));
+
+        return c;
+    }
+
+    /**
+     * Multiplies given matrices with Strassen's algorithm using the current Strassen cutoff.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @throws NullPointerException if any matrix is null
+     * @throws IncompatibleOperandException if left's column count differs from right's row count
+     * @return dense product
+     */
+    public static DenseMatrix strassenMultiply(IMatrix left, IMatrix right) throws IncompatibleOperandException {
+        return strassenMultiply(left, right, strassenCutoff);
+    }
+
+    /**
+     * Multiplies given matrices with Strassen's algorithm. Operands are padded with zeros into square
+     * matrices whose edge is a block of at most cutoff elements multiplied with a power of two, and then
+     * halved recursively until blocks reach cutoff, where blocked kernel multiplies them. The seven
+     * products of each level are calculated in parallel while their work reaches the parallel threshold.
+     * <p>Padding makes Strassen's algorithm suitable for large, nearly square products. Besides the padded
+     * operands it needs temporary blocks of a few times the size of the result.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @param cutoff edge length up to which blocks are multiplied with blocked kernel
+     * @throws NullPointerException if any matrix is null
+     * @throws IllegalArgumentException if given cutoff is less than 1
+     * @throws IncompatibleOperandException if left's column count differs from right's row count
+     * @return dense product
+     */
+    public static DenseMatrix strassenMultiply(IMatrix left, IMatrix right, int cutoff)
+            throws IncompatibleOperandException {
+        Objects.requireNonNull(left);
+        Objects.requireNonNull(right);
+        if(left.getColsCount() != right.getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+        if(cutoff < 1) {
+            throw new IllegalArgumentException("Expected Strassen cutoff >= 1, got " + cutoff);
+        }
+
+        DenseMatrix c = new DenseMatrix(left.getRowsCount(), right.getColsCount());
+        strassen(dense(left), dense(right), c, cutoff);
+
+        return c;
+    }
+
+    /**
+     * Stores product of given matrices into given zero-filled dense matrix of matching dimensions.
+     */
+    static void multiplyInto(IMatrix left, IMatrix right, DenseMatrix result) {
+        multiply(dense(left), dense(right), result, blockSize);
+    }
+
+    private static void multiply(DenseMatrix a, DenseMatrix b, DenseMatrix c, int blockSize) {
+        int rows = a.getRowsCount();
+        int threshold = strassenThreshold;
+        if(rows >= threshold && a.getColsCount() >= threshold && b.getColsCount() >= threshold) {
+            strassen(a, b, c, strassenCutoff);
+            return;
+        }
+
+        long work = (long) rows * a.getColsCount() * b.getColsCount();
+        if(rows > blockSize && work >= parallelThreshold) {
+            getPool().invoke(new RowBlockTask(a, b, c, 0, rows, blockSize));
+        } else {
+            multiplyRows(a, b, c, 0, rows, blockSize);
+        }
+    }
+
+    static DenseMatrix dense(IMatrix matrix) {
+        return matrix instanceof DenseMatrix ? (DenseMatrix) matrix : DenseMatrix.from(matrix);
+    }
+
+    /**
+     * Accumulates product of rows [rowFrom, rowTo) of a with b into the same rows of c.
+     */
+    static void multiplyRows(DenseMatrix a, DenseMatrix b, DenseMatrix c, int rowFrom, int rowTo, int blockSize) {
+        double[] aElements = a.getElements();
+        double[] bElements = b.getElements();
+        double[] cElements = c.getElements();
+        int aOffset = a.getOffset(), aStride = a.getStride();
+        int bOffset = b.getOffset(), bStride = b.getStride();
+        int cOffset = c.getOffset(), cStride = c.getStride();
+        int inner = a.getColsCount();
+        int cols = b.getColsCount();
+        Kernels kernels = Kernels.get();
+
+        for(int ii = rowFrom; ii < rowTo; ii += blockSize) {
+            int iEnd = Math.min(ii + blockSize, rowTo);
+            for(int kk = 0; kk < inner; kk += blockSize) {
+                int kEnd = Math.min(kk + blockSize, inner);
+                for(int jj = 0; jj < cols; jj += blockSize) {
+                    int jEnd = Math.min(jj + blockSize, cols);
+
+                    for(int i = ii; i < iEnd; ++i) {
+                        int aRow = aOffset + i * aStride;
+                        int cRow = cOffset + i * cStride;
+                        for(int k = kk; k < kEnd; ++k) {
+                            double aik = aElements[aRow + k];
+                            int bRow = bOffset + k * bStride;
+                            kernels.axpy(aik, bElements, bRow + jj, cElements, cRow + jj, jEnd - jj);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores product of given matrices into given matrix of matching dimensions, padding operands into
+     * square matrices of an edge which halves evenly down to cutoff.
+     */
+    private static void strassen(DenseMatrix a, DenseMatrix b, DenseMatrix c, int cutoff) {
+        int rows = a.getRowsCount();
+        int inner = a.getColsCount();
+        int cols = b.getColsCount();
+
+        int block = Math.max(rows, Math.max(inner, cols));
+        int levels = 0;
+        while(block > cutoff) {
+            block = (block + 1) / 2;
+            levels++;
+        }
+        int n = block << levels;
+
+        DenseMatrix paddedA = padded(a, n);
+        DenseMatrix paddedB = padded(b, n);
+        boolean direct = rows == n && cols == n && c.getOffset() == 0 && c.getStride() == n;
+        DenseMatrix paddedC = direct ? c : new DenseMatrix(n, n);
+        if(direct) {
+            c.clear();
+        }
+
+        StrassenTask task = new StrassenTask(paddedA, null, false, paddedB, null, false, paddedC, cutoff, blockSize);
+        if((long) n * n * n >= parallelThreshold) {
+            getPool().invoke(task);
+        } else {
+            task.compute();
+        }
+
+        if(!direct) {
+            double[] source = paddedC.getElements();
+            double[] target = c.getElements();
+            for(int i = 0; i < rows; ++i) {
+                System.arraycopy(source, i * n, target, c.getOffset() + i * c.getStride(), cols);
+            }
+        }
+    }
+
+    /**
+     * Gets given matrix extended with zeros to an n x n matrix, or the matrix itself if no padding is needed.
+     */
+    private static DenseMatrix padded(DenseMatrix matrix, int n) {
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        if(rows == n && cols == n) {
+            return matrix;
+        }
+
+        DenseMatrix result = new DenseMatrix(n, n);
+        double[] source = matrix.getElements();
+        double[] target = result.getElements();
+        for(int i = 0; i < rows; ++i) {
+            System.arraycopy(source, matrix.getOffset() + i * matrix.getStride(), target, i * n, cols);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets a live view of h x h block (qi, qj) of given matrix.
+     */
+    private static DenseMatrix quadrant(DenseMatrix matrix, int qi, int qj, int h) {
+        int stride = matrix.getStride();
+        return new DenseMatrix(matrix.getElements(), matrix.getOffset() + qi * h * stride + qj * h, h, h, stride);
+    }
+
+    /**
+     * Stores sum or difference of given square matrices into destination, row by row.
+     */
+    private static void combine(DenseMatrix x, DenseMatrix y, boolean subtract, DenseMatrix dest) {
+        Kernels kernels = Kernels.get();
+        double[] xElements = x.getElements();
+        double[] yElements = y.getElements();
+        double[] dElements = dest.getElements();
+        for(int i = 0, n = x.getRowsCount(); i < n; ++i) {
+            int xRow = x.getOffset() + i * x.getStride();
+            int yRow = y.getOffset() + i * y.getStride();
+            int dRow = dest.getOffset() + i * dest.getStride();
+            if(subtract) {
+                kernels.sub(xElements, xRow, yElements, yRow, dElements, dRow, n);
+            } else {
+                kernels.add(xElements, xRow, yElements, yRow, dElements, dRow, n);
+            }
+        }
+    }
+
+    /**
+     * Task which multiplies (a +/- aOther) with (b +/- bOther) into zero-filled matrix c, where missing
+     * other operands are omitted. Sums are formed only when the task runs, so tasks waiting in the pool
+     * hold no temporary blocks.
+     */
+    private static final class StrassenTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DenseMatrix a;
+        private final DenseMatrix aOther;
+        private final boolean aSubtract;
+        private final DenseMatrix b;
+        private final DenseMatrix bOther;
+        private final boolean bSubtract;
+        private final DenseMatrix c;
+        private final int cutoff;
+        private final int blockSize;
+
+        StrassenTask(DenseMatrix a, DenseMatrix aOther, boolean aSubtract, DenseMatrix b, DenseMatrix bOther,
+                     boolean bSubtract, DenseMatrix c, int cutoff, int blockSize) {
+            this.a = a;
+            this.aOther = aOther;
+            this.aSubtract = aSubtract;
+            this.b = b;
+            this.bOther = bOther;
+            this.bSubtract = bSubtract;
+            this.c = c;
+            this.cutoff = cutoff;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        protected void compute() {
+            DenseMatrix left = operand(a, aOther, aSubtract);
+            DenseMatrix right = operand(b, bOther, bSubtract);
+
+            int n = left.getRowsCount();
+            if(n <= cutoff) {
+                multiplyRows(left, right, c, 0, n, blockSize);
+                return;
+            }
+
+            int h = n / 2;
+            DenseMatrix a11 = quadrant(left, 0, 0, h), a12 = quadrant(left, 0, 1, h);
+            DenseMatrix a21 = quadrant(left, 1, 0, h), a22 = quadrant(left, 1, 1, h);
+            DenseMatrix b11 = quadrant(right, 0, 0, h), b12 = quadrant(right, 0, 1, h);
+            DenseMatrix b21 = quadrant(right, 1, 0, h), b22 = quadrant(right, 1, 1, h);
+
+            DenseMatrix[] m = new DenseMatrix[7];
+            for(int i = 0; i < m.length; ++i) {
+                m[i] = new DenseMatrix(h, h);
+            }
+
+            StrassenTask[] products = {
+                    new StrassenTask(a11, a22, false, b11, b22, false, m[0], cutoff, blockSize),
+                    new StrassenTask(a21, a22, false, b11, null, false, m[1], cutoff, blockSize),
+                    new StrassenTask(a11, null, false, b12, b22, true, m[2], cutoff, blockSize),
+                    new StrassenTask(a22, null, false, b21, b11, true, m[3], cutoff, blockSize),
+                    new StrassenTask(a11, a12, false, b22, null, false, m[4], cutoff, blockSize),
+                    new StrassenTask(a21, a11, true, b11, b12, false, m[5], cutoff, blockSize),
+                    new StrassenTask(a12, a22, true, b21, b22, false, m[6], cutoff, blockSize)
+            };
+            if(inForkJoinPool() && (long) h * h * h >= parallelThreshold) {
+                invokeAll(products);
+            } else {
+                for(StrassenTask product : products) {
+                    product.compute();
+                }
+            }
+
+            DenseMatrix c11 = quadrant(c, 0, 0, h), c12 = quadrant(c, 0, 1, h);
+            DenseMatrix c21 = quadrant(c, 1, 0, h), c22 = quadrant(c, 1, 1, h);
+            combine(m[0], m[3], false, c11);
+            combine(c11, m[4], true, c11);
+            combine(c11, m[6], false, c11);
+            combine(m[2], m[4], false, c12);
+            combine(m[1], m[3], false, c21);
+            combine(m[0], m[1], true, c22);
+            combine(c22, m[2], false, c22);
+            combine(c22, m[5], false, c22);
+        }
+
+        private static DenseMatrix operand(DenseMatrix x, DenseMatrix other, boolean subtract) {
+            if(other == null) {
+                return x;
+            }
+
+            DenseMatrix result = new DenseMatrix(x.getRowsCount(), x.getColsCount());
+            combine(x, other, subtract, result);
+            return result;
+        }
+    }
+
+    /**
+     * Task which splits its row range in halves aligned to block size until it fits in a single block.
+     */
+    private static final class RowBlockTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DenseMatrix a;
+        private final DenseMatrix b;
+        private final DenseMatrix c;
+        private final int rowFrom;
+        private final int rowTo;
+        private final int blockSize;
+
+        RowBlockTask(DenseMatrix a, DenseMatrix b, DenseMatrix c, int rowFrom, int rowTo, int blockSize) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        protected void compute() {
+            int blocks = (rowTo - rowFrom + blockSize - 1) / blockSize;
+            if(blocks <= 1) {
+                multiplyRows(a, b, c, rowFrom, rowTo, blockSize);
+                return;
+            }
+
+            int middle = rowFrom + (blocks / 2) * blockSize;
+            invokeAll(new RowBlockTask(a, b, c, rowFrom, middle, blockSize),
+                      new RowBlockTask(a, b, c, middle, rowTo, blockSize));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package hr.fer.zemris.linearna;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of determinants and inverses keyed on matrix content, which turns repeated calculations
+ * on equal matrices into lookups. When the cache is full, the least recently used result is evicted.
+ * <p>Given matrices are converted with {@link ImmutableMatrix#of(IMatrix)} to form keys, which copies
+ * mutable matrices, so later changes to them never affect cached results. Passing {@link ImmutableMatrix}
+ * instances avoids the copy. Cached inverses are returned as shared immutable matrices.
+ * <p>Cache is thread-safe. Results are calculated outside of the lock, so threads which miss the same key
+ * at once may each calculate it.
+ *
+ * @author filip
+ *
+ */
+public final class MatrixResultCache {
+
+    private static final int DETERMINANT = 0;
+    private static final int INVERSE = 1;
+
+    private final int capacity;
+    private final Map<Key, Object> results;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs an empty cache which holds at most given number of results.
+     *
+     * @param capacity maximum number of results
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public MatrixResultCache(int capacity) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Expected capacity >= 1, got " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > MatrixResultCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets determinant of given matrix from this cache, calculating and caching it on a miss.
+     *
+     * @param matrix matrix
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix is not square
+     * @return determinant, or NaN for 0x0 matrix
+     */
+    public double determinant(IMatrix matrix) {
+        return (Double) get(DETERMINANT, matrix, ImmutableMatrix::determinant);
+    }
+
+    /**
+     * Gets inverse of given matrix from this cache, calculating and caching it on a miss.
+     *
+     * @param matrix matrix
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix is singular or not square
+     * @return immutable inverse matrix
+     */
+    public ImmutableMatrix inverse(IMatrix matrix) {
+        return (ImmutableMatrix) get(INVERSE, matrix, ImmutableMatrix::inverse);
+    }
+
+    private Object get(int operation, IMatrix matrix, Function<ImmutableMatrix, Object> calculation) {
+        Key key = new Key(operation, ImmutableMatrix.of(Objects.requireNonNull(matrix)));
+        Object result;
+        synchronized(results) {
+            result = results.get(key);
+        }
+        if(result != null) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = calculation.apply(key.matrix);
+        synchronized(results) {
+            results.put(key, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets number of lookups which found a cached result.
+     *
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets number of lookups which had to calculate the result.
+     *
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets number of currently cached results.
+     *
+     * @return size
+     */
+    public int size() {
+        synchronized(results) {
+            return results.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all cached results and resets hit and miss counters.
+     */
+    public void clear() {
+        synchronized(results) {
+            results.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Cache key made of operation and matrix content.
+     */
+    private static final class Key {
+
+        private final int operation;
+        private final ImmutableMatrix matrix;
+
+        Key(int operation, ImmutableMatrix matrix) {
+            this.operation = operation;
+            this.matrix = matrix;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * matrix.hashCode() + operation;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return operation == other.operation && matrix.equals(other.matrix);
+        }
+    }
+}
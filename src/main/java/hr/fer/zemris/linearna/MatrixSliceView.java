@@ -0,0 +1,290 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * Live view of selected rows and columns of a matrix, e.g. a rectangular block, every k-th row or an
+ * arbitrary list of indexes. Element (i, j) of the view is element
+ * <code>(rowIndexes[i], colIndexes[j])</code> of the backing matrix, and changes are visible in both
+ * directions. Slices of slices refer directly to the backing matrix with composed indexes.
+ * <p>Elements of a backing {@link DenseMatrix} are accessed straight through its array. When columns of
+ * the slice are consecutive, {@link #toArray()}, {@link #toDenseMatrix()} and {@link #assign(IMatrix)}
+ * copy whole rows with {@link System#arraycopy}, so block algorithms can work on slices without copying
+ * elements one by one.
+ *
+ * @author filip
+ *
+ */
+public class MatrixSliceView extends AbstractMatrix {
+
+    private final IMatrix matrix;
+    private final int[] rowIndexes;
+    private final int[] colIndexes;
+
+    /**
+     * Array of backing dense matrix, or null if backing matrix is not dense.
+     */
+    private final double[] elements;
+    /**
+     * Array positions of this view's rows in backing dense matrix, so element (i, j) is stored at
+     * <code>rowPositions[i] + colIndexes[j]</code>.
+     */
+    private final int[] rowPositions;
+    private final boolean contiguousCols;
+
+    /**
+     * Constructs a view of given rows and columns of given matrix. Indexes may repeat, in which case the
+     * same backing element appears several times in the view.
+     *
+     * @param matrix backing matrix
+     * @param rowIndexes backing rows of this view's rows
+     * @param colIndexes backing columns of this view's columns
+     * @throws NullPointerException if any argument is null
+     * @throws IllegalArgumentException if an index is out of range of backing matrix
+     */
+    public MatrixSliceView(IMatrix matrix, int[] rowIndexes, int[] colIndexes) {
+        this(matrix, checkedIndexes(rowIndexes.clone(), matrix.getRowsCount(), "row"),
+             checkedIndexes(colIndexes.clone(), matrix.getColsCount(), "col"), true);
+    }
+
+    /**
+     * Constructs a view of a rows x cols block of given matrix whose first element is (row, col).
+     *
+     * @param matrix backing matrix
+     * @param row first backing row
+     * @param col first backing column
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws NullPointerException if given matrix is null
+     * @throws IllegalArgumentException if block does not fit into backing matrix
+     */
+    public MatrixSliceView(IMatrix matrix, int row, int col, int rows, int cols) {
+        this(matrix, range(row, 1, rows, Objects.requireNonNull(matrix).getRowsCount(), "row"),
+             range(col, 1, cols, matrix.getColsCount(), "col"), true);
+    }
+
+    private MatrixSliceView(IMatrix matrix, int[] rowIndexes, int[] colIndexes, boolean compose) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        if(compose && matrix instanceof MatrixSliceView) {
+            MatrixSliceView slice = (MatrixSliceView) matrix;
+            for(int i = 0; i < rowIndexes.length; ++i) {
+                rowIndexes[i] = slice.rowIndexes[rowIndexes[i]];
+            }
+            for(int j = 0; j < colIndexes.length; ++j) {
+                colIndexes[j] = slice.colIndexes[colIndexes[j]];
+            }
+            matrix = slice.matrix;
+        }
+
+        this.matrix = matrix;
+        this.rowIndexes = rowIndexes;
+        this.colIndexes = colIndexes;
+
+        boolean contiguous = true;
+        for(int j = 1; j < colIndexes.length && contiguous; ++j) {
+            contiguous = colIndexes[j] == colIndexes[0] + j;
+        }
+        this.contiguousCols = contiguous;
+
+        if(matrix instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) matrix;
+            this.elements = dense.getElements();
+            this.rowPositions = new int[rowIndexes.length];
+            for(int i = 0; i < rowIndexes.length; ++i) {
+                rowPositions[i] = dense.getOffset() + rowIndexes[i] * dense.getStride();
+            }
+        } else {
+            this.elements = null;
+            this.rowPositions = null;
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.SLICE_VIEW, start, (long) rowIndexes.length * colIndexes.length,
+                           (long) Integer.BYTES * (rowIndexes.length + colIndexes.length));
+        }
+    }
+
+    /**
+     * Creates a view of every rowStep-th row starting with row and every colStep-th column starting with
+     * col of given matrix.
+     *
+     * @param matrix backing matrix
+     * @param row first backing row
+     * @param rowStep distance between backing rows of consecutive rows
+     * @param rows number of rows
+     * @param col first backing column
+     * @param colStep distance between backing columns of consecutive columns
+     * @param cols number of columns
+     * @throws NullPointerException if given matrix is null
+     * @throws IllegalArgumentException if a step is less than 1 or if slice does not fit into backing
+     *         matrix
+     * @return strided view
+     */
+    public static MatrixSliceView strided(IMatrix matrix, int row, int rowStep, int rows,
+                                          int col, int colStep, int cols) {
+        Objects.requireNonNull(matrix);
+        return new MatrixSliceView(matrix, range(row, rowStep, rows, matrix.getRowsCount(), "row"),
+                                   range(col, colStep, cols, matrix.getColsCount(), "col"), true);
+    }
+
+    private static int[] range(int first, int step, int count, int limit, String name) {
+        if(step < 1) {
+            throw new IllegalArgumentException("Expected " + name + " step >= 1, got " + step);
+        }
+        if(count < 0) {
+            throw new IllegalArgumentException("Expected " + name + " count >= 0, got " + count);
+        }
+        if(count > 0 && (first < 0 || first + (long) (count - 1) * step >= limit)) {
+            throw new IllegalArgumentException("Expected " + name + "s in range [0, " + limit + "), got "
+                    + count + " from " + first + " with step " + step);
+        }
+
+        int[] indexes = new int[count];
+        for(int i = 0; i < count; ++i) {
+            indexes[i] = first + i * step;
+        }
+
+        return indexes;
+    }
+
+    private static int[] checkedIndexes(int[] indexes, int limit, String name) {
+        for(int index : indexes) {
+            if(index < 0 || index >= limit) {
+                throw new IllegalArgumentException("Expected " + name + "s in range [0, " + limit + "), got " + index);
+            }
+        }
+
+        return indexes;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rowIndexes.length;
+    }
+
+    @Override
+    public int getColsCount() {
+        return colIndexes.length;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        if(i < 0 || i >= rowIndexes.length) {
+            throw new IllegalArgumentException("Expected i in [0, " + rowIndexes.length + ") range, got " + i);
+        }
+        if(j < 0 || j >= colIndexes.length) {
+            throw new IllegalArgumentException("Expected j in [0, " + colIndexes.length + ") range, got " + j);
+        }
+
+        if(elements != null) {
+            return elements[rowPositions[i] + colIndexes[j]];
+        }
+
+        return matrix.get(rowIndexes[i], colIndexes[j]);
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        if(i < 0 || i >= rowIndexes.length) {
+            throw new IllegalArgumentException("Expected i in [0, " + rowIndexes.length + ") range, got " + i);
+        }
+        if(j < 0 || j >= colIndexes.length) {
+            throw new IllegalArgumentException("Expected j in [0, " + colIndexes.length + ") range, got " + j);
+        }
+
+        if(elements != null) {
+            elements[rowPositions[i] + colIndexes[j]] = value;
+        } else {
+            matrix.set(rowIndexes[i], colIndexes[j], value);
+        }
+        return this;
+    }
+
+    /**
+     * Creates a dense copy of this view.
+     *
+     * @return dense copy
+     */
+    public DenseMatrix toDenseMatrix() {
+        int rows = rowIndexes.length;
+        int cols = colIndexes.length;
+        if(elements == null || !contiguousCols) {
+            return DenseMatrix.from(this);
+        }
+
+        DenseMatrix result = new DenseMatrix(rows, cols);
+        double[] data = result.getElements();
+        for(int i = 0; i < rows; ++i) {
+            System.arraycopy(elements, rowPositions[i] + firstCol(), data, i * cols, cols);
+        }
+
+        return result;
+    }
+
+    /**
+     * Copies all elements of given matrix into this view, and so into the backing matrix. Given matrix
+     * must not share elements with this view.
+     *
+     * @param source matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if dimensions of given matrix differ from this view's
+     * @return this view
+     */
+    public MatrixSliceView assign(IMatrix source) throws IncompatibleOperandException {
+        int rows = rowIndexes.length;
+        int cols = colIndexes.length;
+        if(Objects.requireNonNull(source).getRowsCount() != rows || source.getColsCount() != cols) {
+            throw new IncompatibleOperandException();
+        }
+
+        if(elements != null && contiguousCols && source instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) source;
+            double[] data = dense.getElements();
+            for(int i = 0; i < rows; ++i) {
+                System.arraycopy(data, dense.getOffset() + i * dense.getStride(),
+                                 elements, rowPositions[i] + firstCol(), cols);
+            }
+
+            return this;
+        }
+
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                set(i, j, source.get(i, j));
+            }
+        }
+
+        return this;
+    }
+
+    private int firstCol() {
+        return colIndexes.length == 0 ? 0 : colIndexes[0];
+    }
+
+    @Override
+    public double[][] toArray() {
+        if(elements == null || !contiguousCols) {
+            return super.toArray();
+        }
+
+        int cols = colIndexes.length;
+        double[][] array = new double[rowIndexes.length][cols];
+        for(int i = 0; i < array.length; ++i) {
+            System.arraycopy(elements, rowPositions[i] + firstCol(), array[i], 0, cols);
+        }
+
+        return array;
+    }
+
+    @Override
+    public IMatrix copy() {
+        return new MatrixSliceView(matrix, rowIndexes, colIndexes, false);
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return matrix.newInstance(rows, cols);
+    }
+}
@@ -1,15 +1,43 @@
 package hr.fer.zemris.linearna;
 
-import java.util.Arrays;
 import java.util.Objects;
 
+/**
+ * Live view of a matrix without one of its rows and one of its columns. Views are never nested: a view
+ * created over another submatrix view or over a {@link MatrixTransponseView} refers directly to their
+ * backing matrix, with composed row and column indexes and a flag which tells whether the view is
+ * transposed. Elements of a backing {@link DenseMatrix} are read straight from its array. Element access
+ * therefore costs the same at any depth, e.g. in {@link AbstractMatrix#cofactorDeterminant()}.
+ *
+ * @author filip
+ *
+ */
 public class MatrixSubMatrixView extends AbstractMatrix {
 
     private final IMatrix matrix;
+    /**
+     * Backing indexes of this view's rows, which are columns of backing matrix if this view is transposed.
+     */
     private final int[] rowIndexes;
+    /**
+     * Backing indexes of this view's columns, which are rows of backing matrix if this view is transposed.
+     */
     private final int[] colIndexes;
+    private final boolean transposed;
+
+    /**
+     * Array of backing dense matrix, or null if backing matrix is not dense.
+     */
+    private final double[] elements;
+    /**
+     * Array positions of this view's rows and columns in backing dense matrix, so element (i, j) is
+     * stored at <code>rowPositions[i] + colPositions[j]</code>.
+     */
+    private final int[] rowPositions;
+    private final int[] colPositions;
 
     public MatrixSubMatrixView(IMatrix matrix, int row, int col) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
         Objects.requireNonNull(matrix);
         if(row < 0 || row >= matrix.getRowsCount()) {
             throw new IllegalArgumentException(
@@ -20,16 +48,44 @@ public class MatrixSubMatrixView extends AbstractMatrix {
                     "Col argument not in valid [0, " + matrix.getColsCount() + ") range, got " + col);
         }
 
-        this.matrix = matrix;
-        this.rowIndexes = rangeWithout(0, matrix.getRowsCount() - 1, row);
-        this.colIndexes = rangeWithout(0, matrix.getColsCount() - 1, col);
+        if(matrix instanceof MatrixSubMatrixView) {
+            MatrixSubMatrixView view = (MatrixSubMatrixView) matrix;
+            this.matrix = view.matrix;
+            this.rowIndexes = without(view.rowIndexes, row);
+            this.colIndexes = without(view.colIndexes, col);
+            this.transposed = view.transposed;
+        } else if(matrix instanceof MatrixTransponseView) {
+            this.matrix = ((MatrixTransponseView) matrix).getMatrix();
+            this.rowIndexes = rangeWithout(0, matrix.getRowsCount() - 1, row);
+            this.colIndexes = rangeWithout(0, matrix.getColsCount() - 1, col);
+            this.transposed = true;
+        } else {
+            this.matrix = matrix;
+            this.rowIndexes = rangeWithout(0, matrix.getRowsCount() - 1, row);
+            this.colIndexes = rangeWithout(0, matrix.getColsCount() - 1, col);
+            this.transposed = false;
+        }
+
+        this.elements = this.matrix instanceof DenseMatrix ? ((DenseMatrix) this.matrix).getElements() : null;
+        this.rowPositions = positions(rowIndexes, !transposed);
+        this.colPositions = positions(colIndexes, transposed);
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.SUBMATRIX_VIEW, start, (long) rowIndexes.length * colIndexes.length,
+                           (long) Integer.BYTES * (rowIndexes.length + colIndexes.length));
+        }
     }
 
-    private MatrixSubMatrixView(IMatrix matrix, int[] rowIndexes, int[] colIndexes) {
+    private MatrixSubMatrixView(IMatrix matrix, int[] rowIndexes, int[] colIndexes, boolean transposed,
+                                int[] rowPositions, int[] colPositions) {
         this.matrix = Objects.requireNonNull(matrix);
 
         this.rowIndexes = rowIndexes;
         this.colIndexes = colIndexes;
+        this.transposed = transposed;
+        this.elements = matrix instanceof DenseMatrix ? ((DenseMatrix) matrix).getElements() : null;
+        this.rowPositions = rowPositions;
+        this.colPositions = colPositions;
     }
 
     private static int[] rangeWithout(int from, int to, int without) {
@@ -44,6 +100,35 @@ public class MatrixSubMatrixView extends AbstractMatrix {
         return result;
     }
 
+    private static int[] without(int[] indexes, int without) {
+        int[] result = new int[indexes.length - 1];
+        System.arraycopy(indexes, 0, result, 0, without);
+        System.arraycopy(indexes, without + 1, result, without, result.length - without);
+
+        return result;
+    }
+
+    /**
+     * Calculates array positions of given backing indexes if backing matrix is dense.
+     *
+     * @param indexes backing indexes
+     * @param backingRows whether given indexes are rows of backing matrix
+     * @return positions, or null if backing matrix is not dense
+     */
+    private int[] positions(int[] indexes, boolean backingRows) {
+        if(elements == null) {
+            return null;
+        }
+
+        DenseMatrix dense = (DenseMatrix) matrix;
+        int[] positions = new int[indexes.length];
+        for(int i = 0; i < indexes.length; ++i) {
+            positions[i] = backingRows ? dense.getOffset() + indexes[i] * dense.getStride() : indexes[i];
+        }
+
+        return positions;
+    }
+
     @Override
     public int getRowsCount() {
         return rowIndexes.length;
@@ -63,7 +148,11 @@ public class MatrixSubMatrixView extends AbstractMatrix {
             throw new IllegalArgumentException("Expected j in [0, " + colIndexes.length + ") range, got " + j);
         }
 
-        return matrix.get(rowIndexes[i], colIndexes[j]);
+        if(elements != null) {
+            return elements[rowPositions[i] + colPositions[j]];
+        }
+
+        return transposed ? matrix.get(colIndexes[j], rowIndexes[i]) : matrix.get(rowIndexes[i], colIndexes[j]);
     }
 
     @Override
@@ -75,13 +164,39 @@ public class MatrixSubMatrixView extends AbstractMatrix {
             throw new IllegalArgumentException("Expected j in [0, " + colIndexes.length + ") range, got " + j);
         }
 
-        this.matrix.set(this.rowIndexes[i], this.colIndexes[j], value);
+        if(elements != null) {
+            elements[rowPositions[i] + colPositions[j]] = value;
+        } else if(transposed) {
+            this.matrix.set(this.colIndexes[j], this.rowIndexes[i], value);
+        } else {
+            this.matrix.set(this.rowIndexes[i], this.colIndexes[j], value);
+        }
         return this;
     }
 
+    /**
+     * Gets live transposed view of this view, which refers to the same backing matrix.
+     */
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(!liveView) {
+            return super.nTransponse(false);
+        }
+
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        IMatrix result = new MatrixSubMatrixView(matrix, colIndexes, rowIndexes, !transposed,
+                                                 colPositions, rowPositions);
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.TRANSPOSE_VIEW, start, (long) rowIndexes.length * colIndexes.length, 0);
+        }
+        return result;
+    }
+
     @Override
     public IMatrix copy() {
-        return new MatrixSubMatrixView(this.matrix, this.rowIndexes, this.colIndexes) ;
+        return new MatrixSubMatrixView(this.matrix, this.rowIndexes, this.colIndexes, this.transposed,
+                                       this.rowPositions, this.colPositions);
     }
 
     @Override
@@ -1,14 +1,36 @@
 package hr.fer.zemris.linearna;
 
-
 import java.util.Objects;
 
+/**
+ * Live transposed view of a matrix. Transposing this view returns the backing matrix itself, and
+ * submatrix views of this view refer directly to the backing matrix (see {@link MatrixSubMatrixView}).
+ * Elements of a backing {@link DenseMatrix} are read straight from its array.
+ *
+ * @author filip
+ *
+ */
 public class MatrixTransponseView extends AbstractMatrix {
 
     private final IMatrix matrix;
+    /**
+     * Backing dense matrix, or null if backing matrix is not dense.
+     */
+    private final DenseMatrix dense;
 
     public MatrixTransponseView(IMatrix matrix) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
         this.matrix = Objects.requireNonNull(matrix);
+        this.dense = matrix instanceof DenseMatrix ? (DenseMatrix) matrix : null;
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.TRANSPOSE_VIEW, start,
+                           (long) matrix.getRowsCount() * matrix.getColsCount(), 0);
+        }
+    }
+
+    IMatrix getMatrix() {
+        return matrix;
     }
 
     @Override
@@ -32,6 +54,10 @@ public class MatrixTransponseView extends AbstractMatrix {
                     "Column index is not in [0, " + matrix.getRowsCount() + ") range, got + " + j);
         }
 
+        if(dense != null) {
+            return dense.getElements()[dense.getOffset() + j * dense.getStride() + i];
+        }
+
         return matrix.get(j, i);
     }
 
@@ -50,6 +76,18 @@ public class MatrixTransponseView extends AbstractMatrix {
         return this;
     }
 
+    /**
+     * Gets backing matrix if a live view is requested, since it is the transpose of this view.
+     */
+    @Override
+    public IMatrix nTransponse(boolean liveView) {
+        if(liveView) {
+            return matrix;
+        }
+
+        return super.nTransponse(false);
+    }
+
     @Override
     public IMatrix copy() {
         return new MatrixTransponseView(this.matrix);
@@ -8,8 +8,13 @@ public class MatrixVectorView extends AbstractMatrix {
     private final boolean asRowMatrix;
 
     public MatrixVectorView(IVector vector, boolean asRowMatrix) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
         this.vector = Objects.requireNonNull(vector);
         this.asRowMatrix = Objects.requireNonNull(asRowMatrix);
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.MATRIX_VIEW, start, vector.getDimension(), 0);
+        }
     }
 
     @Override
@@ -27,7 +32,7 @@ public class MatrixVectorView extends AbstractMatrix {
         if(i < 0 || i >= getRowsCount()) {
             throw new IllegalArgumentException("Expected i in [0, " + getRowsCount() + ") range, got " + i);
         }
-        if(j < 0 || i >= getColsCount()) {
+        if(j < 0 || j >= getColsCount()) {
             throw new IllegalArgumentException("Expected j in [0, " + getColsCount() + ") range, got " + j);
         }
 
@@ -39,7 +44,7 @@ public class MatrixVectorView extends AbstractMatrix {
         if(i < 0 || i >= getRowsCount()) {
             throw new IllegalArgumentException("Expected i in [0, " + getRowsCount() + ") range, got " + i);
         }
-        if(j < 0 || i >= getColsCount()) {
+        if(j < 0 || j >= getColsCount()) {
             throw new IllegalArgumentException("Expected j in [0, " + getColsCount() + ") range, got " + j);
         }
 
@@ -66,6 +71,6 @@ public class MatrixVectorView extends AbstractMatrix {
             throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
         }
 
-        return new Matrix(new double[rows][cols]);
+        return Matrix.adopt(new double[rows][cols]);
     }
 }
@@ -0,0 +1,276 @@
+package hr.fer.zemris.linearna;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in counters of frequently used operations. For each {@link Operation} they collect number of calls,
+ * cumulative duration in nanoseconds, number of result elements (or operand elements for determinants)
+ * and estimated number of bytes allocated for element storage (object headers are not counted). Counters
+ * can be read directly, through {@link MetricsListener listeners} or through JMX after
+ * {@link #registerMBean()} is called.
+ * <p>Metrics are collected only if system property <code>hr.fer.zemris.linearna.metrics</code> is set to
+ * <code>true</code> when this class is loaded. Instrumented code checks {@link #ENABLED} before reading
+ * the clock, so when metrics are disabled the JIT compiler removes instrumentation entirely.
+ * <p>Operations are counted where they are calculated: general algorithms of {@link AbstractMatrix} and
+ * fast paths of {@link Matrix}, {@link DenseMatrix} and {@link Vector}. Fast paths of fixed-size, sparse
+ * and off-heap matrices are not counted.
+ *
+ * @author filip
+ *
+ */
+public final class Metrics {
+
+    /**
+     * Defines whether metrics are collected in this JVM.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("hr.fer.zemris.linearna.metrics");
+
+    /**
+     * Defines name under which {@link #registerMBean()} registers metrics.
+     */
+    public static final String OBJECT_NAME = "hr.fer.zemris.linearna:type=Metrics";
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final LongAdder[] CALLS = adders();
+    private static final LongAdder[] NANOS = adders();
+    private static final LongAdder[] ELEMENTS = adders();
+    private static final LongAdder[] BYTES = adders();
+    private static final List<MetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Instrumented operations.
+     */
+    public enum Operation {
+        /**
+         * Matrix multiplication, through {@link IMatrix#nMultiply(IMatrix)} or
+         * {@link IMatrix#nMultiply(IMatrix, IMatrix)}.
+         */
+        MULTIPLY,
+        /**
+         * Calculation of determinant.
+         */
+        DETERMINANT,
+        /**
+         * Calculation of inverse matrix.
+         */
+        INVERT,
+        /**
+         * Copying of a matrix or a vector.
+         */
+        COPY,
+        /**
+         * Creation of a {@link MatrixTransponseView}.
+         */
+        TRANSPOSE_VIEW,
+        /**
+         * Creation of a {@link MatrixSubMatrixView}.
+         */
+        SUBMATRIX_VIEW,
+        /**
+         * Creation of a {@link MatrixVectorView}, which shows a vector as a matrix.
+         */
+        MATRIX_VIEW,
+        /**
+         * Creation of a {@link VectorMatrixView}, which shows a matrix as a vector.
+         */
+        VECTOR_VIEW,
+        /**
+         * Creation of a {@link MatrixSliceView}.
+         */
+        SLICE_VIEW,
+        /**
+         * Creation of a {@link VectorMatrixLineView}, which shows a row or a column of a matrix as a vector.
+         */
+        LINE_VIEW,
+        /**
+         * Parsing of a matrix or a vector with {@link SimpleFormatParser}.
+         */
+        PARSE
+    }
+
+    private Metrics() {
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[OPERATIONS.length];
+        for(int i = 0; i < adders.length; ++i) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+
+    /**
+     * Records a completed operation. Callers must check {@link #ENABLED} first.
+     *
+     * @param operation completed operation
+     * @param start value of {@link System#nanoTime()} when operation started
+     * @param elements number of elements of operation's result, or of its operand if result is a scalar
+     * @param bytes estimated number of bytes allocated for element storage
+     */
+    static void record(Operation operation, long start, long elements, long bytes) {
+        long nanos = System.nanoTime() - start;
+        int index = operation.ordinal();
+        CALLS[index].increment();
+        NANOS[index].add(nanos);
+        ELEMENTS[index].add(elements);
+        BYTES[index].add(bytes);
+
+        for(MetricsListener listener : LISTENERS) {
+            listener.operationCompleted(operation, nanos, elements, bytes);
+        }
+    }
+
+    /**
+     * Records bytes allocated on behalf of an operation which is counted elsewhere, e.g. the result
+     * which {@link IMatrix#nMultiply(IMatrix)} creates before delegating to
+     * {@link IMatrix#nMultiply(IMatrix, IMatrix)}. Callers must check {@link #ENABLED} first.
+     *
+     * @param operation operation
+     * @param bytes estimated number of bytes allocated for element storage
+     */
+    static void recordAllocation(Operation operation, long bytes) {
+        BYTES[operation.ordinal()].add(bytes);
+    }
+
+    /**
+     * Gets number of completed calls of given operation.
+     *
+     * @param operation operation
+     * @return number of calls
+     */
+    public static long getCalls(Operation operation) {
+        return CALLS[operation.ordinal()].sum();
+    }
+
+    /**
+     * Gets cumulative duration of given operation.
+     *
+     * @param operation operation
+     * @return duration in nanoseconds
+     */
+    public static long getNanos(Operation operation) {
+        return NANOS[operation.ordinal()].sum();
+    }
+
+    /**
+     * Gets cumulative number of result elements of given operation.
+     *
+     * @param operation operation
+     * @return number of elements
+     */
+    public static long getElements(Operation operation) {
+        return ELEMENTS[operation.ordinal()].sum();
+    }
+
+    /**
+     * Gets estimated cumulative number of bytes allocated for element storage by given operation.
+     *
+     * @param operation operation
+     * @return number of bytes
+     */
+    public static long getBytes(Operation operation) {
+        return BYTES[operation.ordinal()].sum();
+    }
+
+    /**
+     * Sets all counters to 0. Operations which complete concurrently may be partially counted.
+     */
+    public static void reset() {
+        for(int i = 0; i < OPERATIONS.length; ++i) {
+            CALLS[i].reset();
+            NANOS[i].reset();
+            ELEMENTS[i].reset();
+            BYTES[i].reset();
+        }
+    }
+
+    /**
+     * Adds listener which is notified after each recorded operation.
+     *
+     * @param listener listener
+     * @throws NullPointerException if given listener is null
+     */
+    public static void addListener(MetricsListener listener) {
+        LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Removes given listener.
+     *
+     * @param listener listener
+     */
+    public static void removeListener(MetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Registers {@link MetricsMXBean} under {@link #OBJECT_NAME} in the platform MBean server, unless it
+     * is already registered.
+     *
+     * @throws JMException if registration fails
+     * @return name of registered bean
+     */
+    public static synchronized ObjectName registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if(!server.isRegistered(name)) {
+            server.registerMBean(new MXBean(), name);
+        }
+
+        return name;
+    }
+
+    private static Map<String, Long> toMap(ToLongFunction<Operation> counter) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for(Operation operation : OPERATIONS) {
+            map.put(operation.name(), counter.applyAsLong(operation));
+        }
+
+        return map;
+    }
+
+    private static final class MXBean implements MetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Long> getCalls() {
+            return toMap(Metrics::getCalls);
+        }
+
+        @Override
+        public Map<String, Long> getNanos() {
+            return toMap(Metrics::getNanos);
+        }
+
+        @Override
+        public Map<String, Long> getElements() {
+            return toMap(Metrics::getElements);
+        }
+
+        @Override
+        public Map<String, Long> getBytes() {
+            return toMap(Metrics::getBytes);
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
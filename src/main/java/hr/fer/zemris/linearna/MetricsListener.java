@@ -0,0 +1,22 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Listener which is notified by {@link Metrics} after each instrumented operation, e.g. to log slow
+ * operations or feed an external metrics system.
+ *
+ * @author filip
+ *
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    /**
+     * Called after an instrumented operation is completed, in the thread which performed it.
+     *
+     * @param operation completed operation
+     * @param nanos duration of operation in nanoseconds
+     * @param elements number of elements of operation's result, or of its operand if result is a scalar
+     * @param bytes estimated number of bytes allocated for element storage
+     */
+    public void operationCompleted(Metrics.Operation operation, long nanos, long elements, long bytes);
+}
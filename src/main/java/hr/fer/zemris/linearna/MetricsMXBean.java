@@ -0,0 +1,33 @@
+package hr.fer.zemris.linearna;
+
+import java.util.Map;
+
+/**
+ * Management interface which exposes {@link Metrics} through JMX. Every map is keyed by names of
+ * {@link Metrics.Operation} constants.
+ *
+ * @author filip
+ *
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Checks whether metrics are collected in this JVM.
+     *
+     * @return true if metrics are enabled
+     */
+    public boolean isEnabled();
+
+    public Map<String, Long> getCalls();
+
+    public Map<String, Long> getNanos();
+
+    public Map<String, Long> getElements();
+
+    public Map<String, Long> getBytes();
+
+    /**
+     * Sets all counters to 0.
+     */
+    public void reset();
+}
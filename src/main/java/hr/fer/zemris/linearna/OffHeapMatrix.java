@@ -0,0 +1,410 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Matrix whose elements are stored in row-major order in direct byte buffers outside of the Java heap, so
+ * the garbage collector never scans them. Matrices with more than 2<sup>27</sup> elements are split into
+ * several buffers of 1GB. New matrices created through {@link #copy()} and {@link #newInstance(int, int)}
+ * are off-heap as well.
+ * <p>Products, determinants and inverses read rows into small heap arrays instead of copying the whole
+ * matrix onto the heap, so their heap usage is proportional to a block of rows. {@link AbstractMatrix}
+ * does the same for products whose right operand or destination is off-heap. Decompositions such as
+ * {@link LUDecomposition} still work on a heap copy.
+ * <p>Memory is released by {@link #close()}. Matrices which are never closed are released when they are
+ * garbage collected.
+ *
+ * @author filip
+ *
+ */
+public class OffHeapMatrix extends AbstractMatrix implements Closeable {
+
+    private final int rows;
+    private final int cols;
+    private DoubleBufferSegments data;
+
+    /**
+     * Constructs a rows x cols matrix with all elements set to 0.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @throws IllegalArgumentException if rows or cols is negative
+     */
+    public OffHeapMatrix(int rows, int cols) {
+        if(rows < 0) {
+            throw new IllegalArgumentException("Expected rows >= 0, got " + rows);
+        }
+        if(cols < 0) {
+            throw new IllegalArgumentException("Expected cols >= 0, got " + cols);
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.data = DoubleBufferSegments.allocateDirect((long) rows * cols);
+    }
+
+    /**
+     * Creates an off-heap copy of given matrix.
+     *
+     * @param matrix matrix to copy
+     * @throws NullPointerException if given matrix is null
+     * @return off-heap copy
+     */
+    public static OffHeapMatrix from(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix instanceof OffHeapMatrix) {
+            return (OffHeapMatrix) matrix.copy();
+        }
+
+        int rows = matrix.getRowsCount();
+        int cols = matrix.getColsCount();
+        OffHeapMatrix result = new OffHeapMatrix(rows, cols);
+        double[] row = new double[cols];
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                row[j] = matrix.get(i, j);
+            }
+            result.data.put((long) i * cols, row, 0, cols);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return rows;
+    }
+
+    @Override
+    public int getColsCount() {
+        return cols;
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data().get(index(i, j));
+    }
+
+    @Override
+    public IMatrix set(int i, int j, double value) {
+        data().put(index(i, j), value);
+        return this;
+    }
+
+    private long index(int i, int j) {
+        if(i < 0 || i >= rows) {
+            throw new IllegalArgumentException("Expected i in range [0, " + rows + "), got " + i);
+        }
+        if(j < 0 || j >= cols) {
+            throw new IllegalArgumentException("Expected j in range [0, " + cols + "), got " + j);
+        }
+
+        return (long) i * cols + j;
+    }
+
+    private DoubleBufferSegments data() {
+        DoubleBufferSegments data = this.data;
+        if(data == null) {
+            throw new IllegalStateException("Matrix is closed.");
+        }
+
+        return data;
+    }
+
+    @Override
+    public IMatrix copy() {
+        OffHeapMatrix result = new OffHeapMatrix(rows, cols);
+        result.data.copyFrom(data());
+
+        return result;
+    }
+
+    @Override
+    public IMatrix newInstance(int rows, int cols) {
+        return new OffHeapMatrix(rows, cols);
+    }
+
+    /**
+     * Stores product of this matrix and given matrix into given destination, as
+     * {@link #multiply(IMatrix, IMatrix, IMatrix)} does. Sparse right operands are multiplied as in
+     * {@link AbstractMatrix}.
+     */
+    @Override
+    public IMatrix nMultiply(IMatrix that, IMatrix dest) throws IncompatibleOperandException {
+        if(that instanceof CsrMatrix || that instanceof CooMatrix) {
+            return super.nMultiply(that, dest);
+        }
+
+        if(cols != Objects.requireNonNull(that).getRowsCount()) {
+            throw new IncompatibleOperandException();
+        }
+        checkDestination(dest, rows, that.getColsCount());
+        if(dest == this || dest == that) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        multiply(this, that, dest);
+        return dest;
+    }
+
+    /**
+     * Stores product of given matrices into given destination of matching dimensions, which is not an
+     * operand. Product is calculated for blocks of {@link MatrixMultiplication#getBlockSize()} rows in
+     * i-k-j order, so only rows of the current block of left operand and product and a single row of
+     * right operand are held on the heap. Elements accumulate in the same order as in the blocked kernel
+     * of {@link MatrixMultiplication}, so results are equal.
+     *
+     * @param left left operand
+     * @param right right operand
+     * @param dest destination matrix
+     */
+    static void multiply(IMatrix left, IMatrix right, IMatrix dest) {
+        int rowsCount = left.getRowsCount();
+        int inner = left.getColsCount();
+        int resultCols = right.getColsCount();
+        int blockRows = Math.max(1, Math.min(rowsCount, MatrixMultiplication.getBlockSize()));
+        Kernels kernels = Kernels.get();
+
+        double[] a = new double[blockRows * inner];
+        double[] b = new double[resultCols];
+        double[] c = new double[blockRows * resultCols];
+        for(int from = 0; from < rowsCount; from += blockRows) {
+            int count = Math.min(blockRows, rowsCount - from);
+            for(int i = 0; i < count; ++i) {
+                readRow(left, from + i, a, i * inner);
+            }
+            Arrays.fill(c, 0, count * resultCols, 0.0);
+
+            for(int k = 0; k < inner; ++k) {
+                readRow(right, k, b, 0);
+                for(int i = 0; i < count; ++i) {
+                    kernels.axpy(a[i * inner + k], b, 0, c, i * resultCols, resultCols);
+                }
+            }
+
+            for(int i = 0; i < count; ++i) {
+                writeRow(dest, from + i, c, i * resultCols);
+            }
+        }
+    }
+
+    private static void readRow(IMatrix matrix, int i, double[] row, int offset) {
+        int cols = matrix.getColsCount();
+        if(matrix instanceof OffHeapMatrix) {
+            ((OffHeapMatrix) matrix).data().get((long) i * cols, row, offset, cols);
+        } else if(matrix instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) matrix;
+            System.arraycopy(dense.getElements(), dense.getOffset() + i * dense.getStride(), row, offset, cols);
+        } else {
+            for(int j = 0; j < cols; ++j) {
+                row[offset + j] = matrix.get(i, j);
+            }
+        }
+    }
+
+    private static void writeRow(IMatrix matrix, int i, double[] row, int offset) {
+        int cols = matrix.getColsCount();
+        if(matrix instanceof OffHeapMatrix) {
+            ((OffHeapMatrix) matrix).data().put((long) i * cols, row, offset, cols);
+        } else if(matrix instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) matrix;
+            System.arraycopy(row, offset, dense.getElements(), dense.getOffset() + i * dense.getStride(), cols);
+        } else {
+            for(int j = 0; j < cols; ++j) {
+                matrix.set(i, j, row[offset + j]);
+            }
+        }
+    }
+
+    /**
+     * Calculates determinant using LU decomposition with partial pivoting, as
+     * {@link AbstractMatrix#determinant()} does, but on an off-heap copy of this matrix whose rows are
+     * updated one at a time.
+     *
+     * @throws UnsupportedOperationException if this is a non-square matrix
+     * @return determinant, or NaN for 0x0 matrix
+     */
+    @Override
+    public double determinant() {
+        if(rows != cols) {
+            throw new UnsupportedOperationException("Determinant is defined for square matrices only.");
+        }
+
+        int n = rows;
+        if(n < 3) {
+            return super.determinant();
+        }
+
+        try(OffHeapMatrix copy = (OffHeapMatrix) copy()) {
+            DoubleBufferSegments lu = copy.data;
+            Kernels kernels = Kernels.get();
+            double[] rowK = new double[n];
+            double[] rowI = new double[n];
+            double result = 1;
+
+            for(int k = 0; k < n; ++k) {
+                int pivotRow = pivotRow(lu, n, k);
+                lu.get((long) pivotRow * n, rowK, 0, n);
+                if(pivotRow != k) {
+                    lu.get((long) k * n, rowI, 0, n);
+                    lu.put((long) pivotRow * n, rowI, 0, n);
+                    result = -result;
+                }
+
+                double pivot = rowK[k];
+                result *= pivot;
+                if(pivot == 0) {
+                    continue;
+                }
+
+                for(int i = k + 1; i < n; ++i) {
+                    long rowStart = (long) i * n;
+                    double factor = lu.get(rowStart + k) / pivot;
+                    if(factor == 0) continue;
+
+                    lu.get(rowStart + k + 1, rowI, k + 1, n - k - 1);
+                    kernels.axpy(-factor, rowK, k + 1, rowI, k + 1, n - k - 1);
+                    lu.put(rowStart + k + 1, rowI, k + 1, n - k - 1);
+                }
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Calculates inverse matrix using in-place Gauss-Jordan elimination with partial pivoting, as
+     * {@link AbstractMatrix#nInvert()} does, but on an off-heap copy of this matrix whose rows are updated
+     * one at a time. The copy becomes the returned inverse.
+     *
+     * @throws UnsupportedOperationException if this is a singular matrix or a non-square matrix
+     * @return off-heap inverse matrix
+     */
+    @Override
+    public IMatrix nInvert() {
+        if(rows != cols) {
+            throw new UnsupportedOperationException("Cannot calculate inverse of non-square matrix.");
+        }
+
+        int n = rows;
+        OffHeapMatrix inverse = (OffHeapMatrix) copy();
+        try {
+            DoubleBufferSegments a = inverse.data;
+            Kernels kernels = Kernels.get();
+            double[] rowK = new double[n];
+            double[] rowI = new double[n];
+
+            double scale = 0.0;
+            for(int i = 0; i < n; ++i) {
+                a.get((long) i * n, rowI, 0, n);
+                for(double element : rowI) {
+                    scale = Math.max(scale, Math.abs(element));
+                }
+            }
+            double tolerance = SINGULARITY_TOLERANCE * scale;
+
+            int[] pivotRows = new int[n];
+            boolean swapped = false;
+            for(int k = 0; k < n; ++k) {
+                int pivotRow = pivotRow(a, n, k);
+                if(!(Math.abs(a.get((long) pivotRow * n + k)) > tolerance)) {
+                    throw new UnsupportedOperationException("Cannot calculate inverse of singular matrix.");
+                }
+
+                pivotRows[k] = pivotRow;
+                a.get((long) pivotRow * n, rowK, 0, n);
+                if(pivotRow != k) {
+                    a.get((long) k * n, rowI, 0, n);
+                    a.put((long) pivotRow * n, rowI, 0, n);
+                    swapped = true;
+                }
+
+                double pivotInverse = 1.0 / rowK[k];
+                rowK[k] = 1.0;
+                for(int j = 0; j < n; ++j) {
+                    rowK[j] *= pivotInverse;
+                }
+                a.put((long) k * n, rowK, 0, n);
+
+                for(int i = 0; i < n; ++i) {
+                    if(i == k) continue;
+
+                    long rowStart = (long) i * n;
+                    double factor = a.get(rowStart + k);
+                    if(factor == 0) continue;
+
+                    a.get(rowStart, rowI, 0, n);
+                    rowI[k] = 0.0;
+                    kernels.axpy(-factor, rowK, 0, rowI, 0, n);
+                    a.put(rowStart, rowI, 0, n);
+                }
+            }
+
+            if(swapped) {
+                for(int i = 0; i < n; ++i) {
+                    a.get((long) i * n, rowI, 0, n);
+                    for(int k = n - 1; k >= 0; --k) {
+                        int pivotRow = pivotRows[k];
+                        double tmp = rowI[k];
+                        rowI[k] = rowI[pivotRow];
+                        rowI[pivotRow] = tmp;
+                    }
+                    a.put((long) i * n, rowI, 0, n);
+                }
+            }
+
+            return inverse;
+        } catch(RuntimeException e) {
+            inverse.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Finds row in range [k, n) whose element in column k has the largest absolute value.
+     */
+    private static int pivotRow(DoubleBufferSegments a, int n, int k) {
+        int pivotRow = k;
+        double pivotAbs = Math.abs(a.get((long) k * n + k));
+        for(int i = k + 1; i < n; ++i) {
+            double candidate = Math.abs(a.get((long) i * n + k));
+            if(candidate > pivotAbs) {
+                pivotAbs = candidate;
+                pivotRow = i;
+            }
+        }
+
+        return pivotRow;
+    }
+
+    @Override
+    public double[][] toArray() {
+        DoubleBufferSegments data = data();
+        double[][] array = new double[rows][cols];
+        for(int i = 0; i < rows; ++i) {
+            data.get((long) i * cols, array[i], 0, cols);
+        }
+
+        return array;
+    }
+
+    /**
+     * Releases memory of this matrix. Any further access to elements of this matrix throws
+     * {@link IllegalStateException}. Live views of this matrix must not be used by other threads while it
+     * is being closed.
+     */
+    @Override
+    public void close() {
+        DoubleBufferSegments data = this.data;
+        if(data == null) {
+            return;
+        }
+
+        this.data = null;
+        data.release();
+    }
+}
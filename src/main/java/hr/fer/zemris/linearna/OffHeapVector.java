@@ -0,0 +1,126 @@
+package hr.fer.zemris.linearna;
+
+import java.io.Closeable;
+import java.util.Objects;
+
+/**
+ * Vector whose elements are stored in direct byte buffers outside of the Java heap, so the garbage
+ * collector never scans them. Vectors with more than 2<sup>27</sup> elements are split into several
+ * buffers of 1GB. New vectors created through {@link #copy()} and {@link #newInstance(int)} are off-heap as well,
+ * which lets {@link AbstractVector} algorithms run on them unchanged.
+ * <p>Memory is released by {@link #close()}. Vectors which are never closed are released when they are
+ * garbage collected.
+ *
+ * @author filip
+ *
+ */
+public class OffHeapVector extends AbstractVector implements Closeable {
+
+    private final int dimension;
+    private DoubleBufferSegments data;
+
+    /**
+     * Constructs a vector of given dimension with all elements set to 0.
+     *
+     * @param dimension number of elements
+     * @throws IllegalArgumentException if dimension is negative
+     */
+    public OffHeapVector(int dimension) {
+        if(dimension < 0) {
+            throw new IllegalArgumentException("Expected dimension >= 0, got " + dimension);
+        }
+
+        this.dimension = dimension;
+        this.data = DoubleBufferSegments.allocateDirect(dimension);
+    }
+
+    /**
+     * Creates an off-heap copy of given vector.
+     *
+     * @param vector vector to copy
+     * @throws NullPointerException if given vector is null
+     * @return off-heap copy
+     */
+    public static OffHeapVector from(IVector vector) {
+        Objects.requireNonNull(vector);
+        if(vector instanceof OffHeapVector) {
+            return (OffHeapVector) vector.copy();
+        }
+
+        double[] elements = vector.toArray();
+        OffHeapVector result = new OffHeapVector(elements.length);
+        result.data.put(0, elements, 0, elements.length);
+
+        return result;
+    }
+
+    @Override
+    public double get(int i) {
+        if(i < 0 || i >= dimension) {
+            throw new IllegalArgumentException("Expected number from range [0," + (dimension - 1) + "].");
+        }
+
+        return data().get(i);
+    }
+
+    @Override
+    public IVector set(int i, double value) {
+        if(i < 0 || i >= dimension) {
+            throw new IllegalArgumentException("Expected number from range [0," + (dimension - 1) + "].");
+        }
+
+        data().put(i, value);
+        return this;
+    }
+
+    private DoubleBufferSegments data() {
+        DoubleBufferSegments data = this.data;
+        if(data == null) {
+            throw new IllegalStateException("Vector is closed.");
+        }
+
+        return data;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public IVector copy() {
+        OffHeapVector result = new OffHeapVector(dimension);
+        result.data.copyFrom(data());
+
+        return result;
+    }
+
+    @Override
+    public IVector newInstance(int n) {
+        return new OffHeapVector(n);
+    }
+
+    @Override
+    public double[] toArray() {
+        double[] array = new double[dimension];
+        data().get(0, array, 0, dimension);
+
+        return array;
+    }
+
+    /**
+     * Releases memory of this vector. Any further access to elements of this vector throws
+     * {@link IllegalStateException}. Live views of this vector must not be used by other threads while it
+     * is being closed.
+     */
+    @Override
+    public void close() {
+        DoubleBufferSegments data = this.data;
+        if(data == null) {
+            return;
+        }
+
+        this.data = null;
+        data.release();
+    }
+}
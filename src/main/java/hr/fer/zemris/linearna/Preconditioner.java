@@ -0,0 +1,25 @@
+package hr.fer.zemris.linearna;
+
+/**
+ * Approximation M of a system matrix A whose systems M * z = r are cheap to solve. Iterative solvers apply
+ * it in every iteration to reduce the number of iterations needed.
+ *
+ * @author filip
+ *
+ */
+@FunctionalInterface
+public interface Preconditioner {
+
+    /**
+     * Preconditioner which leaves residuals unchanged.
+     */
+    public static final Preconditioner IDENTITY = (r, z) -> System.arraycopy(r, 0, z, 0, r.length);
+
+    /**
+     * Stores solution of M * z = r into array z. Arrays must not be the same.
+     *
+     * @param r residual
+     * @param z result
+     */
+    public void apply(double[] r, double[] z);
+}
@@ -0,0 +1,211 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * QR decomposition A = Q * R of a m x n matrix with m &gt;= n, calculated with Householder reflections.
+ * Solutions minimize the Euclidean norm of residual A * x - b, which makes this decomposition suitable for
+ * overdetermined (least squares) systems. Decomposition is calculated on a dense copy of given matrix, so it
+ * works with every {@link IMatrix} implementation.
+ *
+ * @author filip
+ *
+ */
+public final class QRDecomposition implements Decomposition {
+
+    /**
+     * Householder vectors below and on the diagonal, R above the diagonal.
+     */
+    private final double[][] qr;
+    private final double[] rDiagonal;
+    private final int m;
+    private final int n;
+    private final boolean fullRank;
+
+    /**
+     * Decomposes given matrix.
+     *
+     * @param matrix matrix to decompose
+     * @throws NullPointerException if given matrix is null
+     * @throws UnsupportedOperationException if given matrix has fewer rows than columns
+     */
+    public QRDecomposition(IMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        if(matrix.getRowsCount() < matrix.getColsCount()) {
+            throw new UnsupportedOperationException(
+                    "QR decomposition is defined for matrices with at least as many rows as columns only.");
+        }
+
+        this.m = matrix.getRowsCount();
+        this.n = matrix.getColsCount();
+        this.qr = matrix.toArray();
+        this.rDiagonal = new double[n];
+
+        for(int k = 0; k < n; ++k) {
+            double norm = 0;
+            for(int i = k; i < m; ++i) {
+                norm = Math.hypot(norm, qr[i][k]);
+            }
+
+            if(norm != 0) {
+                if(qr[k][k] < 0) {
+                    norm = -norm;
+                }
+                for(int i = k; i < m; ++i) {
+                    qr[i][k] /= norm;
+                }
+                qr[k][k] += 1;
+
+                for(int j = k + 1; j < n; ++j) {
+                    double s = 0;
+                    for(int i = k; i < m; ++i) {
+                        s += qr[i][k] * qr[i][j];
+                    }
+                    s = -s / qr[k][k];
+                    for(int i = k; i < m; ++i) {
+                        qr[i][j] += s * qr[i][k];
+                    }
+                }
+            }
+
+            rDiagonal[k] = -norm;
+        }
+
+        double maxDiagonal = 0;
+        for(double d : rDiagonal) {
+            maxDiagonal = Math.max(maxDiagonal, Math.abs(d));
+        }
+        boolean fullRank = true;
+        for(double d : rDiagonal) {
+            if(!(Math.abs(d) > AbstractMatrix.SINGULARITY_TOLERANCE * maxDiagonal)) {
+                fullRank = false;
+            }
+        }
+        this.fullRank = fullRank;
+    }
+
+    @Override
+    public int getRowsCount() {
+        return m;
+    }
+
+    @Override
+    public int getColsCount() {
+        return n;
+    }
+
+    /**
+     * Checks whether columns of decomposed matrix are linearly independent.
+     *
+     * @return true if decomposed matrix has full column rank
+     */
+    public boolean isFullRank() {
+        return fullRank;
+    }
+
+    /**
+     * Gets upper triangular factor R.
+     *
+     * @return n x n matrix R
+     */
+    public DenseMatrix getR() {
+        DenseMatrix r = new DenseMatrix(n, n);
+        for(int i = 0; i < n; ++i) {
+            r.set(i, i, rDiagonal[i]);
+            for(int j = i + 1; j < n; ++j) {
+                r.set(i, j, qr[i][j]);
+            }
+        }
+
+        return r;
+    }
+
+    /**
+     * Solves system A * X = B in the least squares sense.
+     *
+     * @param b right-hand sides, one per column
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if given matrix's row count differs from decomposed matrix's
+     * @throws UnsupportedOperationException if decomposed matrix does not have full column rank
+     * @return n x k matrix of solutions, one per column
+     */
+    @Override
+    public DenseMatrix solve(IMatrix b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(b).getRowsCount() != m) {
+            throw new IncompatibleOperandException();
+        }
+
+        int k = b.getColsCount();
+        double[] x = new double[m * k];
+        for(int i = 0; i < m; ++i) {
+            for(int j = 0; j < k; ++j) {
+                x[i * k + j] = b.get(i, j);
+            }
+        }
+
+        solveInPlace(x, k);
+        return new DenseMatrix(n, k, Arrays.copyOf(x, n * k));
+    }
+
+    /**
+     * Solves system A * x = b in the least squares sense.
+     *
+     * @param b right-hand side
+     * @throws NullPointerException if given vector is null
+     * @throws IncompatibleOperandException if given vector's dimension differs from decomposed matrix's
+     *         row count
+     * @throws UnsupportedOperationException if decomposed matrix does not have full column rank
+     * @return solution of dimension n
+     */
+    @Override
+    public IVector solve(IVector b) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(b).getDimension() != m) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[] x = b.toArray();
+        solveInPlace(x, 1);
+        return Vector.adopt(Arrays.copyOf(x, n));
+    }
+
+    /**
+     * Replaces right-hand sides stored row-major in x, k per row, with Q<sup>T</sup> * b, and its first n
+     * rows with solutions of R * x = Q<sup>T</sup> * b.
+     */
+    private void solveInPlace(double[] x, int k) {
+        if(!fullRank) {
+            throw new UnsupportedOperationException("Cannot solve system with rank deficient matrix.");
+        }
+
+        for(int c = 0; c < n; ++c) {
+            double pivot = qr[c][c];
+            for(int j = 0; j < k; ++j) {
+                double s = 0;
+                for(int i = c; i < m; ++i) {
+                    s += qr[i][c] * x[i * k + j];
+                }
+                s = -s / pivot;
+                for(int i = c; i < m; ++i) {
+                    x[i * k + j] += s * qr[i][c];
+                }
+            }
+        }
+
+        for(int c = n - 1; c >= 0; --c) {
+            int rowC = c * k;
+            for(int j = 0; j < k; ++j) {
+                x[rowC + j] /= rDiagonal[c];
+            }
+            for(int i = 0; i < c; ++i) {
+                double factor = qr[i][c];
+                int rowI = i * k;
+                for(int j = 0; j < k; ++j) {
+                    x[rowI + j] -= factor * x[rowC + j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package hr.fer.zemris.linearna;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single-pass parser of the simple matrix and vector representation, in which numbers are separated by
+ * whitespaces and matrix rows are separated by '|' character surrounded by whitespaces
+ * (e.g. <code>3 44 -2 | 5 1 0</code>). A '|' which touches a number is read as a part of that number, so
+ * <code>1 2|3 4</code> is rejected, and a vector representation has no separators at all.
+ * Input is read in chunks from a {@link CharSequence}, a {@link Reader} or a {@link ByteBuffer} of
+ * ASCII/UTF-8 bytes, and numbers are converted directly from characters. Numbers with at most 15
+ * significant digits and a small decimal exponent are converted exactly with a single multiplication or
+ * division, others are handed to {@link Double#parseDouble(String)}, so results are always equal to it.
+ * Invalid numbers are reported with the message of {@link NumberFormatException} for matrices and with
+ * the invalid number itself for vectors.
+ *
+ * @author filip
+ *
+ */
+public final class SimpleFormatParser {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private SimpleFormatParser() {
+    }
+
+    /**
+     * Parses matrix from given characters.
+     *
+     * @param input matrix representation
+     * @throws NullPointerException if given input is null
+     * @throws IllegalArgumentException if given input is not a valid representation
+     * @return parsed matrix
+     */
+    public static Matrix parseMatrix(CharSequence input) {
+        return parseMatrix(new CharSequenceSource(Objects.requireNonNull(input)));
+    }
+
+    /**
+     * Parses matrix from given reader, which is read until its end but not closed.
+     *
+     * @param input matrix representation
+     * @throws NullPointerException if given reader is null
+     * @throws IllegalArgumentException if read input is not a valid representation
+     * @throws IOException if reading fails
+     * @return parsed matrix
+     */
+    public static Matrix parseMatrix(Reader input) throws IOException {
+        try {
+            return parseMatrix(new ReaderSource(Objects.requireNonNull(input)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses matrix from remaining bytes of given buffer, advancing its position to its limit.
+     *
+     * @param input matrix representation
+     * @throws NullPointerException if given buffer is null
+     * @throws IllegalArgumentException if given input is not a valid representation
+     * @return parsed matrix
+     */
+    public static Matrix parseMatrix(ByteBuffer input) {
+        return parseMatrix(new ByteBufferSource(Objects.requireNonNull(input)));
+    }
+
+    /**
+     * Parses vector from given characters.
+     *
+     * @param input vector representation
+     * @throws NullPointerException if given input is null
+     * @throws IllegalArgumentException if given input is not a valid representation
+     * @return parsed vector
+     */
+    public static Vector parseVector(CharSequence input) {
+        return parseVector(new CharSequenceSource(Objects.requireNonNull(input)));
+    }
+
+    /**
+     * Parses vector from given reader, which is read until its end but not closed.
+     *
+     * @param input vector representation
+     * @throws NullPointerException if given reader is null
+     * @throws IllegalArgumentException if read input is not a valid representation
+     * @throws IOException if reading fails
+     * @return parsed vector
+     */
+    public static Vector parseVector(Reader input) throws IOException {
+        try {
+            return parseVector(new ReaderSource(Objects.requireNonNull(input)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses vector from remaining bytes of given buffer, advancing its position to its limit.
+     *
+     * @param input vector representation
+     * @throws NullPointerException if given buffer is null
+     * @throws IllegalArgumentException if given input is not a valid representation
+     * @return parsed vector
+     */
+    public static Vector parseVector(ByteBuffer input) {
+        return parseVector(new ByteBufferSource(Objects.requireNonNull(input)));
+    }
+
+    private static Matrix parseMatrix(Source source) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        Matrix result = readMatrix(source);
+
+        if(Metrics.ENABLED) {
+            long length = (long) result.getRowsCount() * result.getColsCount();
+            Metrics.record(Metrics.Operation.PARSE, start, length, Double.BYTES * length);
+        }
+        return result;
+    }
+
+    private static Vector parseVector(Source source) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        Vector result = readVector(source);
+
+        if(Metrics.ENABLED) {
+            long length = result.getDimension();
+            Metrics.record(Metrics.Operation.PARSE, start, length, Double.BYTES * length);
+        }
+        return result;
+    }
+
+    /**
+     * Reads matrix rows. Rows of unequal length are reported only after the whole input is read, so that
+     * invalid numbers and separators anywhere in the input are reported first.
+     */
+    private static Matrix readMatrix(Source source) {
+        Tokenizer tokenizer = new Tokenizer(source);
+        List<double[]> rows = new ArrayList<>();
+        double[] row = new double[16];
+        int cols = -1;
+        int length = 0;
+        boolean unequal = false;
+
+        try {
+            while(true) {
+                int token = tokenizer.next();
+                if(token == Tokenizer.NUMBER) {
+                    if(length == row.length) {
+                        row = Arrays.copyOf(row, length * 2);
+                    }
+                    row[length++] = tokenizer.value;
+                    continue;
+                }
+
+                if(length == 0) {
+                    if(token == Tokenizer.END && rows.isEmpty()) {
+                        return Matrix.adopt(new double[0][0]);
+                    }
+                    throw new IllegalArgumentException(
+                            "Invalid number representation: For input string: \"|\"");
+                }
+                if(cols < 0) {
+                    cols = length;
+                } else if(length != cols) {
+                    unequal = true;
+                }
+                if(!unequal) {
+                    rows.add(row.length == cols ? row : Arrays.copyOf(row, cols));
+                    row = new double[cols];
+                }
+
+                if(token == Tokenizer.END) {
+                    if(unequal) {
+                        throw new IllegalArgumentException("All matrix rows must be of equal length.");
+                    }
+                    return Matrix.adopt(rows.toArray(new double[0][]));
+                }
+                length = 0;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number representation: " + e.getMessage());
+        }
+    }
+
+    private static Vector readVector(Source source) {
+        Tokenizer tokenizer = new Tokenizer(source);
+        double[] elements = new double[16];
+        int length = 0;
+
+        try {
+            while(true) {
+                int token = tokenizer.next();
+                if(token == Tokenizer.END) {
+                    return Vector.adopt(Arrays.copyOf(elements, length));
+                }
+                if(token == Tokenizer.SEPARATOR) {
+                    throw new IllegalArgumentException("Invalid number representation: |");
+                }
+
+                if(length == elements.length) {
+                    elements = Arrays.copyOf(elements, length * 2);
+                }
+                elements[length++] = tokenizer.value;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number representation: " + tokenizer.text());
+        }
+    }
+
+    /**
+     * Splits input at whitespaces into numbers and row separators, converting numbers as their characters
+     * are read.
+     */
+    private static final class Tokenizer {
+
+        static final int NUMBER = 0;
+        static final int SEPARATOR = 1;
+        static final int END = 2;
+
+        private final Source source;
+        private final char[] buffer = new char[CHUNK_SIZE];
+        private int position;
+        private int limit;
+
+        private char[] token = new char[32];
+        private int tokenLength;
+
+        double value;
+
+        Tokenizer(Source source) {
+            this.source = source;
+        }
+
+        private int read() {
+            if(position == limit) {
+                limit = source.read(buffer);
+                position = 0;
+                if(limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+
+            return buffer[position++];
+        }
+
+        /**
+         * Reads next token, storing value of a number in {@link #value}.
+         *
+         * @throws NumberFormatException if token is neither a number nor a separator
+         * @return type of read token
+         */
+        int next() {
+            int c = read();
+            while(isWhitespace(c)) {
+                c = read();
+            }
+
+            if(c == -1) {
+                return END;
+            }
+
+            tokenLength = 0;
+            if(c == '|') {
+                c = append(c);
+                if(c == -1 || isWhitespace(c)) {
+                    return SEPARATOR;
+                }
+
+                while(!(c == -1 || isWhitespace(c))) {
+                    c = append(c);
+                }
+                value = Double.parseDouble(text());
+                return NUMBER;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean negative = false;
+            boolean exact = true;
+            boolean digitSeen = false;
+
+            if(c == '-' || c == '+') {
+                negative = c == '-';
+                c = append(c);
+            }
+            while(c >= '0' && c <= '9') {
+                digitSeen = true;
+                if(mantissa != 0 || c != '0') {
+                    if(digits < MAX_EXACT_DIGITS) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                    } else {
+                        exact = false;
+                    }
+                }
+                c = append(c);
+            }
+            if(c == '.') {
+                c = append(c);
+                while(c >= '0' && c <= '9') {
+                    digitSeen = true;
+                    if(mantissa != 0 || c != '0') {
+                        if(digits < MAX_EXACT_DIGITS) {
+                            mantissa = mantissa * 10 + (c - '0');
+                            digits++;
+                        } else {
+                            exact = false;
+                        }
+                    }
+                    exponent--;
+                    c = append(c);
+                }
+                if(!exact) {
+                    exponent = 0;
+                }
+            }
+            if(digitSeen && (c == 'e' || c == 'E')) {
+                c = append(c);
+                boolean negativeExponent = false;
+                if(c == '-' || c == '+') {
+                    negativeExponent = c == '-';
+                    c = append(c);
+                }
+
+                int explicitExponent = 0;
+                boolean exponentDigitSeen = false;
+                while(c >= '0' && c <= '9') {
+                    exponentDigitSeen = true;
+                    if(explicitExponent < 10000) {
+                        explicitExponent = explicitExponent * 10 + (c - '0');
+                    }
+                    c = append(c);
+                }
+                digitSeen = exponentDigitSeen;
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+            }
+
+            boolean delimited = c == -1 || isWhitespace(c);
+            while(!(c == -1 || isWhitespace(c))) {
+                c = append(c);
+            }
+
+            if(digitSeen && delimited && exact && mantissa < MAX_EXACT_MANTISSA
+                    && exponent >= -22 && exponent <= 22) {
+                double result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                                             : mantissa * POWERS_OF_TEN[exponent];
+                value = negative ? -result : result;
+                return NUMBER;
+            }
+
+            value = Double.parseDouble(text());
+            return NUMBER;
+        }
+
+        /**
+         * @return characters of the last read token
+         */
+        String text() {
+            return new String(token, 0, tokenLength);
+        }
+
+        private int append(int c) {
+            if(tokenLength == token.length) {
+                token = Arrays.copyOf(token, tokenLength * 2);
+            }
+            token[tokenLength++] = (char) c;
+
+            return read();
+        }
+
+        private static boolean isWhitespace(int c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
+        }
+    }
+
+    /**
+     * Source of input characters which fills given buffer with the next chunk.
+     */
+    private interface Source {
+
+        /**
+         * @return number of characters written to buffer, or -1 at the end of input
+         */
+        int read(char[] buffer);
+    }
+
+    private static final class CharSequenceSource implements Source {
+
+        private final CharSequence input;
+        private int position;
+
+        CharSequenceSource(CharSequence input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] buffer) {
+            int length = Math.min(buffer.length, input.length() - position);
+            if(length <= 0) {
+                return -1;
+            }
+
+            if(input instanceof String) {
+                ((String) input).getChars(position, position + length, buffer, 0);
+            } else {
+                for(int i = 0; i < length; ++i) {
+                    buffer[i] = input.charAt(position + i);
+                }
+            }
+            position += length;
+
+            return length;
+        }
+    }
+
+    private static final class ReaderSource implements Source {
+
+        private final Reader input;
+
+        ReaderSource(Reader input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] buffer) {
+            try {
+                int length;
+                do {
+                    length = input.read(buffer, 0, buffer.length);
+                } while(length == 0);
+
+                return length;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class ByteBufferSource implements Source {
+
+        private final ByteBuffer input;
+
+        ByteBufferSource(ByteBuffer input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] buffer) {
+            int length = Math.min(buffer.length, input.remaining());
+            if(length <= 0) {
+                return -1;
+            }
+
+            for(int i = 0; i < length; ++i) {
+                buffer[i] = (char) (input.get() & 0xFF);
+            }
+
+            return length;
+        }
+    }
+}
@@ -6,14 +6,34 @@ import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
 import java.util.Arrays;
 import java.util.Objects;
 
+/**
+ * Vector whose elements are stored in an array. Copies of vectors which own their array are
+ * copy-on-write: {@link #copy()} shares the array with the copied vector and both vectors clone it before
+ * their first modification, so copies which are only read never pay for cloning. An array used through
+ * {@link #Vector(boolean, boolean, double[])} stays visible to the caller, so it is cloned when the vector
+ * is copied.
+ * <p>Vector is not thread-safe, and neither is copying: a vector must not be modified while it is being
+ * copied, and a copy has to be safely published before it is used in another thread.
+ *
+ * @author filip
+ *
+ */
 public class Vector extends AbstractVector {
 
-    private final double[] elements;
+    private double[] elements;
     private final int dimension;
     /**
      * If true prevents users from modifying this vector's elements.
      */
     private final boolean readOnly;
+    /**
+     * If true, elements may be shared with other vectors and must be cloned before modification.
+     */
+    private boolean shared;
+    /**
+     * If false, elements belong to the caller of the constructor, who may still modify them.
+     */
+    private final boolean owned;
 
     /**
      * Constructs instance of this class from given array of elements.
@@ -27,6 +47,7 @@ public class Vector extends AbstractVector {
         this.dimension = elements.length;
         this.elements = Arrays.copyOf(elements, dimension);
         readOnly = false;
+        owned = true;
     }
 
     /**
@@ -44,6 +65,44 @@ public class Vector extends AbstractVector {
         this.elements = useArgumentArray ? elements : Arrays.copyOf(elements, dimension);
 
         this.readOnly = readOnly;
+        this.owned = !useArgumentArray;
+    }
+
+    /**
+     * Constructs a vector of given dimension with all elements set to 0.
+     *
+     * @param dimension number of elements
+     * @throws IllegalArgumentException if dimension is negative
+     */
+    public Vector(int dimension) {
+        this(false, new double[checkDimension(dimension)]);
+    }
+
+    private static int checkDimension(int dimension) {
+        if(dimension < 0) {
+            throw new IllegalArgumentException("Expected dimension >= 0, got " + dimension);
+        }
+
+        return dimension;
+    }
+
+    /**
+     * Creates a vector which takes ownership of given array. Unlike arrays given to
+     * {@link #Vector(boolean, boolean, double[])}, the array is shared with copies until first
+     * modification, so it must not be used by the caller afterwards.
+     *
+     * @param elements newly allocated elements
+     * @return vector owning given array
+     */
+    static Vector adopt(double[] elements) {
+        return new Vector(false, elements);
+    }
+
+    private Vector(boolean readOnly, double[] elements) {
+        this.dimension = elements.length;
+        this.elements = elements;
+        this.readOnly = readOnly;
+        this.owned = true;
     }
 
     @Override
@@ -64,7 +123,7 @@ public class Vector extends AbstractVector {
             throw new UnsupportedOperationException("Cannot modify read-only vector.");
         }
 
-        this.elements[i] = value;
+        writableElements(dimension)[i] = value;
         return this;
     }
 
@@ -73,41 +132,35 @@ public class Vector extends AbstractVector {
         return dimension;
     }
 
+    /**
+     * Copies this vector. Elements are shared with the copy until either vector is modified, unless the
+     * array was given to the constructor for direct use, in which case it is cloned immediately.
+     */
     @Override
     public IVector copy() {
-        return new Vector(readOnly, false, elements);
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        Vector result;
+        if(owned) {
+            result = new Vector(readOnly, elements);
+            result.shared = true;
+            shared = true;
+        } else {
+            result = new Vector(readOnly, cloneElements());
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.COPY, start, dimension, 0);
+        }
+        return result;
     }
 
     @Override
     public IVector newInstance(int n) {
-        return new Vector(false, true, new double[n]);
+        return new Vector(false, new double[n]);
     }
 
     public static Vector parseSimple(String string) {
-        Objects.requireNonNull(string);
-
-        double[] numbers = parseForDoubles(string);
-
-        return new Vector(false, true, numbers);
-    }
-
-    private static double[] parseForDoubles(String string) {
-        if(string.trim().isEmpty()) {
-            return new double[0];
-        }
-
-        String[] numberStrings = string.trim().replaceAll("\\s+", " ").split(" ");
-        double[] numbers = new double[numberStrings.length];
-
-        for(int i = 0, length = numberStrings.length; i < length; ++i) {
-            try {
-                numbers[i] = Double.parseDouble(numberStrings[i]);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException("Invalid number representation: " + numberStrings[i]);
-            }
-        }
-
-        return numbers;
+        return SimpleFormatParser.parseVector(Objects.requireNonNull(string));
     }
 
     @Override
@@ -115,6 +168,9 @@ public class Vector extends AbstractVector {
         if(readOnly) {
             throw new UnsupportedOperationException("Cannot modify read-only vector.");
         }
+        if(that instanceof Vector) {
+            return nAdd(that, this);
+        }
 
         return super.add(that);
     }
@@ -124,17 +180,39 @@ public class Vector extends AbstractVector {
         if(readOnly) {
             throw new UnsupportedOperationException("Cannot modify read-only vector.");
         }
+        if(that instanceof Vector) {
+            return nSub(that, this);
+        }
 
         return super.sub(that);
     }
 
+    @Override
+    public double norm() {
+        return Math.sqrt(Kernels.get().dot(elements, 0, elements, 0, dimension));
+    }
+
+    @Override
+    public double scalarProduct(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector)) {
+            return super.scalarProduct(that);
+        }
+
+        double[] other = ((Vector) that).elements;
+        if(other.length != dimension) {
+            throw new IncompatibleOperandException();
+        }
+
+        return Kernels.get().dot(elements, 0, other, 0, dimension);
+    }
+
     @Override
     public IVector scalarMultiply(double x) {
         if(readOnly) {
             throw new UnsupportedOperationException("Cannot modify read-only vector.");
         }
 
-        return super.scalarMultiply(x);
+        return nScalarMultiply(x, this);
     }
 
     @Override
@@ -145,4 +223,122 @@ public class Vector extends AbstractVector {
 
         return super.normalize();
     }
+
+    @Override
+    public IVector nAdd(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector) || !(dest instanceof Vector)) {
+            return super.nAdd(that, dest);
+        }
+
+        double[] other = ((Vector) that).elements;
+        if(other.length != dimension) {
+            throw new IncompatibleOperandException();
+        }
+        double[] result = ((Vector) dest).writableElements(dimension);
+
+        Kernels.get().add(elements, 0, other, 0, result, 0, dimension);
+
+        return dest;
+    }
+
+    @Override
+    public IVector nSub(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector) || !(dest instanceof Vector)) {
+            return super.nSub(that, dest);
+        }
+
+        double[] other = ((Vector) that).elements;
+        if(other.length != dimension) {
+            throw new IncompatibleOperandException();
+        }
+        double[] result = ((Vector) dest).writableElements(dimension);
+
+        Kernels.get().sub(elements, 0, other, 0, result, 0, dimension);
+
+        return dest;
+    }
+
+    @Override
+    public IVector nScalarMultiply(double x, IVector dest) {
+        if(!(dest instanceof Vector)) {
+            return super.nScalarMultiply(x, dest);
+        }
+
+        double[] result = ((Vector) dest).writableElements(dimension);
+        Kernels.get().scale(x, elements, 0, result, 0, dimension);
+
+        return dest;
+    }
+
+    @Override
+    public IVector nNormalize(IVector dest) throws DegenerateCaseException {
+        if(!(dest instanceof Vector)) {
+            return super.nNormalize(dest);
+        }
+
+        double[] result = ((Vector) dest).writableElements(dimension);
+        double norm = this.norm();
+        if(Double.compare(norm, 0) == 0) {
+            throw new DegenerateCaseException("Cannot normalize zero vector.");
+        }
+
+        for(int i = 0; i < dimension; ++i) {
+            result[i] = elements[i] / norm;
+        }
+
+        return dest;
+    }
+
+    @Override
+    public IVector nVectorProduct(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector) || !(dest instanceof Vector) || dimension != 3) {
+            return super.nVectorProduct(that, dest);
+        }
+
+        double[] b = ((Vector) that).elements;
+        if(b.length != 3) {
+            throw new IncompatibleOperandException();
+        }
+        double[] result = ((Vector) dest).writableElements(3);
+
+        double[] a = elements;
+        double x = a[1] * b[2] - a[2] * b[1];
+        double y = -1 * (a[0] * b[2] - a[2] * b[0]);
+        double z = a[0] * b[1] - a[1] * b[0];
+        result[0] = x;
+        result[1] = y;
+        result[2] = z;
+
+        return dest;
+    }
+
+    /**
+     * Gets backing array of this vector for writing a result of given dimension into it, cloning it first
+     * if it is shared.
+     *
+     * @param dimension result dimension
+     * @throws IllegalArgumentException if this vector's dimension differs from given dimension
+     * @throws UnsupportedOperationException if this is a read-only vector
+     * @return backing array
+     */
+    private double[] writableElements(int dimension) {
+        checkDestination(this, dimension);
+        if(readOnly) {
+            throw new UnsupportedOperationException("Cannot modify read-only vector.");
+        }
+        if(shared) {
+            elements = cloneElements();
+            shared = false;
+        }
+
+        return elements;
+    }
+
+    private double[] cloneElements() {
+        if(Metrics.ENABLED) {
+            Metrics.recordAllocation(Metrics.Operation.COPY, (long) Double.BYTES * dimension);
+        }
+
+        return elements.clone();
+    }
 }
@@ -0,0 +1,305 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.DegenerateCaseException;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * Three-dimensional vector whose elements are stored in fields. Operations with other three-dimensional
+ * vectors are unrolled, and methods which take a destination vector write their result into it instead of
+ * allocating a new vector. Destination may be the same object as any of the operands.
+ *
+ * @author filip
+ *
+ */
+public final class Vector3 extends AbstractVector {
+
+    private double x;
+    private double y;
+    private double z;
+
+    /**
+     * Constructs a zero vector.
+     */
+    public Vector3() {
+    }
+
+    /**
+     * Constructs a vector with given elements.
+     *
+     * @param x first element
+     * @param y second element
+     * @param z third element
+     */
+    public Vector3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Sets all elements of this vector.
+     *
+     * @param x first element
+     * @param y second element
+     * @param z third element
+     * @return this vector
+     */
+    public Vector3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    @Override
+    public double get(int i) {
+        switch(i) {
+            case 0: return x;
+            case 1: return y;
+            case 2: return z;
+            default:
+                throw new IllegalArgumentException("Expected number from range [0,2].");
+        }
+    }
+
+    @Override
+    public IVector set(int i, double value) {
+        switch(i) {
+            case 0: x = value; break;
+            case 1: y = value; break;
+            case 2: z = value; break;
+            default:
+                throw new IllegalArgumentException("Expected number from range [0,2].");
+        }
+
+        return this;
+    }
+
+    @Override
+    public int getDimension() {
+        return 3;
+    }
+
+    @Override
+    public IVector copy() {
+        return new Vector3(x, y, z);
+    }
+
+    @Override
+    public IVector newInstance(int n) {
+        if(n == 3) {
+            return new Vector3();
+        }
+        if(n == 4) {
+            return new Vector4();
+        }
+
+        return Vector.adopt(new double[n]);
+    }
+
+    @Override
+    public IVector add(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3)) {
+            return super.add(that);
+        }
+
+        Vector3 other = (Vector3) that;
+        return set(x + other.x, y + other.y, z + other.z);
+    }
+
+    @Override
+    public IVector nAdd(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3)) {
+            return super.nAdd(that);
+        }
+
+        return nAdd((Vector3) that, new Vector3());
+    }
+
+    /**
+     * Stores sum of this and given vector into destination vector.
+     *
+     * @param that vector to add
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector3 nAdd(Vector3 that, Vector3 dest) {
+        return dest.set(x + that.x, y + that.y, z + that.z);
+    }
+
+    @Override
+    public IVector nAdd(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3) || !(dest instanceof Vector3)) {
+            return super.nAdd(that, dest);
+        }
+
+        return nAdd((Vector3) that, (Vector3) dest);
+    }
+
+    @Override
+    public IVector sub(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3)) {
+            return super.sub(that);
+        }
+
+        Vector3 other = (Vector3) that;
+        return set(x - other.x, y - other.y, z - other.z);
+    }
+
+    @Override
+    public IVector nSub(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3)) {
+            return super.nSub(that);
+        }
+
+        return nSub((Vector3) that, new Vector3());
+    }
+
+    /**
+     * Stores difference of this and given vector into destination vector.
+     *
+     * @param that vector to subtract
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector3 nSub(Vector3 that, Vector3 dest) {
+        return dest.set(x - that.x, y - that.y, z - that.z);
+    }
+
+    @Override
+    public IVector nSub(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3) || !(dest instanceof Vector3)) {
+            return super.nSub(that, dest);
+        }
+
+        return nSub((Vector3) that, (Vector3) dest);
+    }
+
+    @Override
+    public IVector scalarMultiply(double factor) {
+        return set(x * factor, y * factor, z * factor);
+    }
+
+    @Override
+    public IVector nScalarMultiply(double factor) {
+        return new Vector3(x * factor, y * factor, z * factor);
+    }
+
+    /**
+     * Stores this vector multiplied with given scalar into destination vector.
+     *
+     * @param factor scalar
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector3 nScalarMultiply(double factor, Vector3 dest) {
+        return dest.set(x * factor, y * factor, z * factor);
+    }
+
+    @Override
+    public IVector nScalarMultiply(double factor, IVector dest) {
+        if(!(dest instanceof Vector3)) {
+            return super.nScalarMultiply(factor, dest);
+        }
+
+        return nScalarMultiply(factor, (Vector3) dest);
+    }
+
+    @Override
+    public double norm() {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    @Override
+    public IVector normalize() throws DegenerateCaseException {
+        return nNormalize(this);
+    }
+
+    @Override
+    public IVector nNormalize() throws DegenerateCaseException {
+        return nNormalize(new Vector3());
+    }
+
+    /**
+     * Stores normalized version of this vector into destination vector.
+     *
+     * @param dest destination vector
+     * @throws DegenerateCaseException if this is a zero vector
+     * @return destination vector
+     */
+    public Vector3 nNormalize(Vector3 dest) throws DegenerateCaseException {
+        double norm = norm();
+        if(Double.compare(norm, 0) == 0) {
+            throw new DegenerateCaseException("Cannot normalize zero vector.");
+        }
+
+        return dest.set(x / norm, y / norm, z / norm);
+    }
+
+    @Override
+    public IVector nNormalize(IVector dest) throws DegenerateCaseException {
+        if(!(dest instanceof Vector3)) {
+            return super.nNormalize(dest);
+        }
+
+        return nNormalize((Vector3) dest);
+    }
+
+    @Override
+    public double scalarProduct(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3)) {
+            return super.scalarProduct(that);
+        }
+
+        Vector3 other = (Vector3) that;
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    @Override
+    public IVector nVectorProduct(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3)) {
+            return super.nVectorProduct(that);
+        }
+
+        return nVectorProduct((Vector3) that, new Vector3());
+    }
+
+    /**
+     * Stores vector product of this and given vector into destination vector.
+     *
+     * @param that right operand
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector3 nVectorProduct(Vector3 that, Vector3 dest) {
+        return dest.set(y * that.z - z * that.y,
+                        z * that.x - x * that.z,
+                        x * that.y - y * that.x);
+    }
+
+    @Override
+    public IVector nVectorProduct(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector3) || !(dest instanceof Vector3)) {
+            return super.nVectorProduct(that, dest);
+        }
+
+        return nVectorProduct((Vector3) that, (Vector3) dest);
+    }
+
+    @Override
+    public double[] toArray() {
+        return new double[] {x, y, z};
+    }
+}
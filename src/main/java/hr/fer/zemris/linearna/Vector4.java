@@ -0,0 +1,307 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.DegenerateCaseException;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * Four-dimensional vector whose elements are stored in fields, usually used as a point or a direction in
+ * homogeneous coordinates. Operations with other four-dimensional vectors are unrolled, and methods which
+ * take a destination vector write their result into it instead of allocating a new vector. Destination may
+ * be the same object as any of the operands.
+ *
+ * @author filip
+ *
+ */
+public final class Vector4 extends AbstractVector {
+
+    private double x;
+    private double y;
+    private double z;
+    private double w;
+
+    /**
+     * Constructs a zero vector.
+     */
+    public Vector4() {
+    }
+
+    /**
+     * Constructs a vector with given elements.
+     *
+     * @param x first element
+     * @param y second element
+     * @param z third element
+     * @param w fourth element
+     */
+    public Vector4(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public double getW() {
+        return w;
+    }
+
+    /**
+     * Sets all elements of this vector.
+     *
+     * @param x first element
+     * @param y second element
+     * @param z third element
+     * @param w fourth element
+     * @return this vector
+     */
+    public Vector4 set(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    @Override
+    public double get(int i) {
+        switch(i) {
+            case 0: return x;
+            case 1: return y;
+            case 2: return z;
+            case 3: return w;
+            default:
+                throw new IllegalArgumentException("Expected number from range [0,3].");
+        }
+    }
+
+    @Override
+    public IVector set(int i, double value) {
+        switch(i) {
+            case 0: x = value; break;
+            case 1: y = value; break;
+            case 2: z = value; break;
+            case 3: w = value; break;
+            default:
+                throw new IllegalArgumentException("Expected number from range [0,3].");
+        }
+
+        return this;
+    }
+
+    @Override
+    public int getDimension() {
+        return 4;
+    }
+
+    @Override
+    public IVector copy() {
+        return new Vector4(x, y, z, w);
+    }
+
+    @Override
+    public IVector newInstance(int n) {
+        if(n == 3) {
+            return new Vector3();
+        }
+        if(n == 4) {
+            return new Vector4();
+        }
+
+        return Vector.adopt(new double[n]);
+    }
+
+    @Override
+    public IVector add(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4)) {
+            return super.add(that);
+        }
+
+        Vector4 other = (Vector4) that;
+        return set(x + other.x, y + other.y, z + other.z, w + other.w);
+    }
+
+    @Override
+    public IVector nAdd(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4)) {
+            return super.nAdd(that);
+        }
+
+        return nAdd((Vector4) that, new Vector4());
+    }
+
+    /**
+     * Stores sum of this and given vector into destination vector.
+     *
+     * @param that vector to add
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector4 nAdd(Vector4 that, Vector4 dest) {
+        return dest.set(x + that.x, y + that.y, z + that.z, w + that.w);
+    }
+
+    @Override
+    public IVector nAdd(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4) || !(dest instanceof Vector4)) {
+            return super.nAdd(that, dest);
+        }
+
+        return nAdd((Vector4) that, (Vector4) dest);
+    }
+
+    @Override
+    public IVector sub(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4)) {
+            return super.sub(that);
+        }
+
+        Vector4 other = (Vector4) that;
+        return set(x - other.x, y - other.y, z - other.z, w - other.w);
+    }
+
+    @Override
+    public IVector nSub(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4)) {
+            return super.nSub(that);
+        }
+
+        return nSub((Vector4) that, new Vector4());
+    }
+
+    /**
+     * Stores difference of this and given vector into destination vector.
+     *
+     * @param that vector to subtract
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector4 nSub(Vector4 that, Vector4 dest) {
+        return dest.set(x - that.x, y - that.y, z - that.z, w - that.w);
+    }
+
+    @Override
+    public IVector nSub(IVector that, IVector dest) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4) || !(dest instanceof Vector4)) {
+            return super.nSub(that, dest);
+        }
+
+        return nSub((Vector4) that, (Vector4) dest);
+    }
+
+    @Override
+    public IVector scalarMultiply(double factor) {
+        return set(x * factor, y * factor, z * factor, w * factor);
+    }
+
+    @Override
+    public IVector nScalarMultiply(double factor) {
+        return new Vector4(x * factor, y * factor, z * factor, w * factor);
+    }
+
+    /**
+     * Stores this vector multiplied with given scalar into destination vector.
+     *
+     * @param factor scalar
+     * @param dest destination vector
+     * @return destination vector
+     */
+    public Vector4 nScalarMultiply(double factor, Vector4 dest) {
+        return dest.set(x * factor, y * factor, z * factor, w * factor);
+    }
+
+    @Override
+    public IVector nScalarMultiply(double factor, IVector dest) {
+        if(!(dest instanceof Vector4)) {
+            return super.nScalarMultiply(factor, dest);
+        }
+
+        return nScalarMultiply(factor, (Vector4) dest);
+    }
+
+    @Override
+    public double norm() {
+        return Math.sqrt(x * x + y * y + z * z + w * w);
+    }
+
+    @Override
+    public IVector normalize() throws DegenerateCaseException {
+        return nNormalize(this);
+    }
+
+    @Override
+    public IVector nNormalize() throws DegenerateCaseException {
+        return nNormalize(new Vector4());
+    }
+
+    /**
+     * Stores normalized version of this vector into destination vector.
+     *
+     * @param dest destination vector
+     * @throws DegenerateCaseException if this is a zero vector
+     * @return destination vector
+     */
+    public Vector4 nNormalize(Vector4 dest) throws DegenerateCaseException {
+        double norm = norm();
+        if(Double.compare(norm, 0) == 0) {
+            throw new DegenerateCaseException("Cannot normalize zero vector.");
+        }
+
+        return dest.set(x / norm, y / norm, z / norm, w / norm);
+    }
+
+    @Override
+    public IVector nNormalize(IVector dest) throws DegenerateCaseException {
+        if(!(dest instanceof Vector4)) {
+            return super.nNormalize(dest);
+        }
+
+        return nNormalize((Vector4) dest);
+    }
+
+    @Override
+    public double scalarProduct(IVector that) throws IncompatibleOperandException {
+        if(!(that instanceof Vector4)) {
+            return super.scalarProduct(that);
+        }
+
+        Vector4 other = (Vector4) that;
+        return x * other.x + y * other.y + z * other.z + w * other.w;
+    }
+
+    @Override
+    public IVector nFromHomogeneus() throws DegenerateCaseException {
+        return nFromHomogeneus(new Vector3());
+    }
+
+    /**
+     * Stores three-dimensional vector obtained by dividing first three elements with the fourth
+     * (homogeneous) element into destination vector.
+     *
+     * @param dest destination vector
+     * @throws DegenerateCaseException if homogeneous element is equal to 0
+     * @return destination vector
+     */
+    public Vector3 nFromHomogeneus(Vector3 dest) throws DegenerateCaseException {
+        if(Double.compare(w, 0) == 0) {
+            throw new DegenerateCaseException("Homogeneus component is equal to 0.");
+        }
+
+        return dest.set(x / w, y / w, z / w);
+    }
+
+    @Override
+    public double[] toArray() {
+        return new double[] {x, y, z, w};
+    }
+}
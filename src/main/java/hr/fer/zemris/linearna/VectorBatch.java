@@ -0,0 +1,483 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.DegenerateCaseException;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batch of vectors of the same dimension stored in structure-of-arrays layout: component c of all vectors
+ * is stored in array <code>getColumn(c)</code>. Bulk operations process each component array in a single
+ * tight loop over all vectors, which avoids per-vector objects and virtual calls. Batches with at least
+ * {@link #getParallelThreshold()} vectors are processed in parallel on
+ * {@link MatrixMultiplication#getPool()}. Single vectors are accessible as live {@link IVector} views
+ * through {@link #getVector(int)}.
+ * <p>Like vectors, batches offer operations which modify this batch and operations prefixed with 'n' which
+ * return a new batch.
+ *
+ * @author filip
+ *
+ */
+public class VectorBatch {
+
+    /**
+     * Defines default number of vectors from which bulk operations run in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 15;
+
+    private static final int CHUNK_SIZE = 1 << 12;
+    private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private final int dimension;
+    private final int size;
+    private final double[][] columns;
+
+    /**
+     * Constructs a batch of given number of zero vectors of given dimension.
+     *
+     * @param dimension dimension of vectors
+     * @param size number of vectors
+     * @throws IllegalArgumentException if dimension or size is negative
+     */
+    public VectorBatch(int dimension, int size) {
+        if(dimension < 0) {
+            throw new IllegalArgumentException("Expected dimension >= 0, got " + dimension);
+        }
+        if(size < 0) {
+            throw new IllegalArgumentException("Expected size >= 0, got " + size);
+        }
+
+        this.dimension = dimension;
+        this.size = size;
+        this.columns = new double[dimension][size];
+    }
+
+    /**
+     * Creates a batch with copies of given vectors.
+     *
+     * @param vectors vectors of equal dimension
+     * @throws NullPointerException if any vector is null
+     * @throws IllegalArgumentException if no vector is given
+     * @throws IncompatibleOperandException if dimensions of vectors differ
+     * @return batch of given vectors
+     */
+    public static VectorBatch of(IVector... vectors) throws IncompatibleOperandException {
+        if(vectors.length == 0) {
+            throw new IllegalArgumentException("Expected at least one vector.");
+        }
+
+        int dimension = Objects.requireNonNull(vectors[0]).getDimension();
+        VectorBatch result = new VectorBatch(dimension, vectors.length);
+        for(int k = 0; k < vectors.length; ++k) {
+            if(Objects.requireNonNull(vectors[k]).getDimension() != dimension) {
+                throw new IncompatibleOperandException();
+            }
+            for(int c = 0; c < dimension; ++c) {
+                result.columns[c][k] = vectors[k].get(c);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets number of vectors from which bulk operations run in parallel.
+     *
+     * @return parallel threshold
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets number of vectors from which bulk operations run in parallel.
+     *
+     * @param parallelThreshold new threshold, or {@link Integer#MAX_VALUE} to never run in parallel
+     * @throws IllegalArgumentException if given threshold is less than 1
+     */
+    public static void setParallelThreshold(int parallelThreshold) {
+        if(parallelThreshold < 1) {
+            throw new IllegalArgumentException("Expected parallel threshold >= 1, got " + parallelThreshold);
+        }
+
+        VectorBatch.parallelThreshold = parallelThreshold;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets array which holds given component of all vectors.
+     * NOTE: Array is not copied, so changes to it are visible through this batch.
+     *
+     * @param c component index
+     * @throws IllegalArgumentException if component index is out of range
+     * @return component array of length equal to size
+     */
+    public double[] getColumn(int c) {
+        if(c < 0 || c >= dimension) {
+            throw new IllegalArgumentException("Expected c in range [0, " + dimension + "), got " + c);
+        }
+
+        return columns[c];
+    }
+
+    /**
+     * Gets component c of vector k.
+     *
+     * @param k vector index
+     * @param c component index
+     * @throws IllegalArgumentException if any index is out of range
+     * @return component value
+     */
+    public double get(int k, int c) {
+        checkIndexes(k, c);
+        return columns[c][k];
+    }
+
+    /**
+     * Sets component c of vector k.
+     *
+     * @param k vector index
+     * @param c component index
+     * @param value new component value
+     * @throws IllegalArgumentException if any index is out of range
+     * @return this batch
+     */
+    public VectorBatch set(int k, int c, double value) {
+        checkIndexes(k, c);
+        columns[c][k] = value;
+        return this;
+    }
+
+    private void checkIndexes(int k, int c) {
+        if(k < 0 || k >= size) {
+            throw new IllegalArgumentException("Expected k in range [0, " + size + "), got " + k);
+        }
+        if(c < 0 || c >= dimension) {
+            throw new IllegalArgumentException("Expected c in range [0, " + dimension + "), got " + c);
+        }
+    }
+
+    /**
+     * Gets live view of vector k, through which its components can be read and changed.
+     *
+     * @param k vector index
+     * @throws IllegalArgumentException if vector index is out of range
+     * @return vector view
+     */
+    public IVector getVector(int k) {
+        return new VectorBatchView(this, k);
+    }
+
+    public VectorBatch copy() {
+        VectorBatch result = new VectorBatch(dimension, size);
+        for(int c = 0; c < dimension; ++c) {
+            System.arraycopy(columns[c], 0, result.columns[c], 0, size);
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds vectors of given batch to vectors of this batch pairwise.
+     *
+     * @param that batch to add
+     * @throws NullPointerException if given batch is null
+     * @throws IncompatibleOperandException if dimensions or sizes of batches differ
+     * @return this batch
+     */
+    public VectorBatch add(VectorBatch that) throws IncompatibleOperandException {
+        return combine(that, this, false);
+    }
+
+    public VectorBatch nAdd(VectorBatch that) throws IncompatibleOperandException {
+        return combine(that, new VectorBatch(dimension, size), false);
+    }
+
+    /**
+     * Subtracts vectors of given batch from vectors of this batch pairwise.
+     *
+     * @param that batch to subtract
+     * @throws NullPointerException if given batch is null
+     * @throws IncompatibleOperandException if dimensions or sizes of batches differ
+     * @return this batch
+     */
+    public VectorBatch sub(VectorBatch that) throws IncompatibleOperandException {
+        return combine(that, this, true);
+    }
+
+    public VectorBatch nSub(VectorBatch that) throws IncompatibleOperandException {
+        return combine(that, new VectorBatch(dimension, size), true);
+    }
+
+    private VectorBatch combine(VectorBatch that, VectorBatch dest, boolean subtract) throws IncompatibleOperandException {
+        checkCompatible(that);
+
+        forEachRange((from, to) -> {
+            for(int c = 0; c < dimension; ++c) {
+                double[] a = columns[c];
+                double[] b = that.columns[c];
+                double[] d = dest.columns[c];
+                if(subtract) {
+                    for(int k = from; k < to; ++k) {
+                        d[k] = a[k] - b[k];
+                    }
+                } else {
+                    for(int k = from; k < to; ++k) {
+                        d[k] = a[k] + b[k];
+                    }
+                }
+            }
+        });
+
+        return dest;
+    }
+
+    private void checkCompatible(VectorBatch that) throws IncompatibleOperandException {
+        if(dimension != Objects.requireNonNull(that).dimension || size != that.size) {
+            throw new IncompatibleOperandException();
+        }
+    }
+
+    /**
+     * Multiplies all vectors of this batch with given scalar.
+     *
+     * @param factor scalar
+     * @return this batch
+     */
+    public VectorBatch scalarMultiply(double factor) {
+        forEachRange((from, to) -> {
+            for(double[] column : columns) {
+                for(int k = from; k < to; ++k) {
+                    column[k] *= factor;
+                }
+            }
+        });
+
+        return this;
+    }
+
+    /**
+     * Calculates scalar products of vectors of this and given batch pairwise.
+     *
+     * @param that right operand
+     * @throws NullPointerException if given batch is null
+     * @throws IncompatibleOperandException if dimensions or sizes of batches differ
+     * @return array of scalar products
+     */
+    public double[] scalarProducts(VectorBatch that) throws IncompatibleOperandException {
+        checkCompatible(that);
+
+        double[] result = new double[size];
+        forEachRange((from, to) -> {
+            for(int c = 0; c < dimension; ++c) {
+                double[] a = columns[c];
+                double[] b = that.columns[c];
+                for(int k = from; k < to; ++k) {
+                    result[k] += a[k] * b[k];
+                }
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Calculates Euclidean norms of all vectors of this batch.
+     *
+     * @return array of norms
+     */
+    public double[] norms() {
+        double[] result = new double[size];
+        forEachRange((from, to) -> {
+            for(double[] column : columns) {
+                for(int k = from; k < to; ++k) {
+                    result[k] += column[k] * column[k];
+                }
+            }
+            for(int k = from; k < to; ++k) {
+                result[k] = Math.sqrt(result[k]);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Normalizes all vectors of this batch.
+     *
+     * @throws DegenerateCaseException if any vector is a zero vector
+     * @return this batch
+     */
+    public VectorBatch normalize() throws DegenerateCaseException {
+        return normalize(this);
+    }
+
+    public VectorBatch nNormalize() throws DegenerateCaseException {
+        return normalize(new VectorBatch(dimension, size));
+    }
+
+    private VectorBatch normalize(VectorBatch dest) throws DegenerateCaseException {
+        double[] norms = norms();
+        for(double norm : norms) {
+            if(Double.compare(norm, 0) == 0) {
+                throw new DegenerateCaseException("Cannot normalize zero vector.");
+            }
+        }
+
+        forEachRange((from, to) -> {
+            for(int c = 0; c < dimension; ++c) {
+                double[] a = columns[c];
+                double[] d = dest.columns[c];
+                for(int k = from; k < to; ++k) {
+                    d[k] = a[k] / norms[k];
+                }
+            }
+        });
+
+        return dest;
+    }
+
+    /**
+     * Calculates vector products of three-dimensional vectors of this and given batch pairwise.
+     *
+     * @param that right operand
+     * @throws NullPointerException if given batch is null
+     * @throws IncompatibleOperandException if batches are not three-dimensional or their sizes differ
+     * @return batch of vector products
+     */
+    public VectorBatch nVectorProduct(VectorBatch that) throws IncompatibleOperandException {
+        checkCompatible(that);
+        if(dimension != 3) {
+            throw new IncompatibleOperandException();
+        }
+
+        VectorBatch result = new VectorBatch(3, size);
+        double[] ax = columns[0], ay = columns[1], az = columns[2];
+        double[] bx = that.columns[0], by = that.columns[1], bz = that.columns[2];
+        double[] rx = result.columns[0], ry = result.columns[1], rz = result.columns[2];
+        forEachRange((from, to) -> {
+            for(int k = from; k < to; ++k) {
+                rx[k] = ay[k] * bz[k] - az[k] * by[k];
+                ry[k] = az[k] * bx[k] - ax[k] * bz[k];
+                rz[k] = ax[k] * by[k] - ay[k] * bx[k];
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Divides all but the last component of each vector with its last (homogeneous) component.
+     *
+     * @throws UnsupportedOperationException if dimension of vectors is less than 2
+     * @throws DegenerateCaseException if homogeneous component of any vector is equal to 0
+     * @return batch of vectors with dimension decreased by 1
+     */
+    public VectorBatch nFromHomogeneus() throws DegenerateCaseException {
+        if(dimension < 2) {
+            throw new UnsupportedOperationException("Expected dimension >= 2, got " + dimension);
+        }
+
+        double[] w = columns[dimension - 1];
+        for(double value : w) {
+            if(Double.compare(value, 0) == 0) {
+                throw new DegenerateCaseException("Homogeneus component is equal to 0.");
+            }
+        }
+
+        VectorBatch result = new VectorBatch(dimension - 1, size);
+        forEachRange((from, to) -> {
+            for(int c = 0; c < dimension - 1; ++c) {
+                double[] a = columns[c];
+                double[] d = result.columns[c];
+                for(int k = from; k < to; ++k) {
+                    d[k] = a[k] / w[k];
+                }
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Multiplies given matrix with each vector of this batch, treated as a column vector.
+     *
+     * @param matrix r x d matrix, where d is dimension of this batch
+     * @throws NullPointerException if given matrix is null
+     * @throws IncompatibleOperandException if matrix's column count differs from dimension
+     * @return batch of r-dimensional products
+     */
+    public VectorBatch nTransform(IMatrix matrix) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(matrix).getColsCount() != dimension) {
+            throw new IncompatibleOperandException();
+        }
+
+        double[][] m = matrix.toArray();
+        VectorBatch result = new VectorBatch(matrix.getRowsCount(), size);
+        forEachRange((from, to) -> {
+            for(int r = 0; r < m.length; ++r) {
+                double[] d = result.columns[r];
+                for(int c = 0; c < dimension; ++c) {
+                    double factor = m[r][c];
+                    double[] a = columns[c];
+                    for(int k = from; k < to; ++k) {
+                        d[k] += factor * a[k];
+                    }
+                }
+            }
+        });
+
+        return result;
+    }
+
+    private void forEachRange(RangeKernel kernel) {
+        if(size >= parallelThreshold && size > CHUNK_SIZE) {
+            MatrixMultiplication.getPool().invoke(new RangeTask(kernel, 0, size));
+        } else {
+            kernel.run(0, size);
+        }
+    }
+
+    /**
+     * Operation applied to vectors with indexes in range [from, to).
+     */
+    @FunctionalInterface
+    private interface RangeKernel {
+
+        void run(int from, int to);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeKernel kernel;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeKernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= CHUNK_SIZE) {
+                kernel.run(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(kernel, from, middle), new RangeTask(kernel, middle, to));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package hr.fer.zemris.linearna;
+
+import java.util.Objects;
+
+/**
+ * Live view of a single vector of a {@link VectorBatch}.
+ *
+ * @author filip
+ *
+ */
+public class VectorBatchView extends AbstractVector {
+
+    private final VectorBatch batch;
+    private final int index;
+
+    /**
+     * Constructs view of vector with given index in given batch.
+     *
+     * @param batch batch of vectors
+     * @param index vector index
+     * @throws NullPointerException if given batch is null
+     * @throws IllegalArgumentException if vector index is out of range
+     */
+    public VectorBatchView(VectorBatch batch, int index) {
+        this.batch = Objects.requireNonNull(batch);
+        if(index < 0 || index >= batch.getSize()) {
+            throw new IllegalArgumentException("Expected index in range [0, " + batch.getSize() + "), got " + index);
+        }
+
+        this.index = index;
+    }
+
+    @Override
+    public double get(int i) {
+        return batch.get(index, i);
+    }
+
+    @Override
+    public IVector set(int i, double value) {
+        batch.set(index, i, value);
+        return this;
+    }
+
+    @Override
+    public int getDimension() {
+        return batch.getDimension();
+    }
+
+    @Override
+    public IVector copy() {
+        return Vector.adopt(toArray());
+    }
+
+    @Override
+    public IVector newInstance(int n) {
+        return Vector.adopt(new double[n]);
+    }
+}
@@ -0,0 +1,161 @@
+package hr.fer.zemris.linearna;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * Live view of a single row or column of a matrix as a vector. Unlike {@link VectorMatrixView}, the
+ * matrix may have any number of rows and columns. Elements of a backing {@link DenseMatrix} are accessed
+ * straight through its array, and rows are copied into and out of it with {@link System#arraycopy}.
+ *
+ * @author filip
+ *
+ */
+public class VectorMatrixLineView extends AbstractVector {
+
+    private final IMatrix matrix;
+    private final int index;
+    private final boolean row;
+    private final int dimension;
+
+    /**
+     * Array of backing dense matrix, or null if backing matrix is not dense.
+     */
+    private final double[] elements;
+    /**
+     * Array position of this vector's first element and distance between positions of consecutive
+     * elements in backing dense matrix.
+     */
+    private final int start;
+    private final int step;
+
+    /**
+     * Constructs a view of given row or column of given matrix.
+     *
+     * @param matrix backing matrix
+     * @param index index of row or column
+     * @param row true for a row, false for a column
+     * @throws NullPointerException if given matrix is null
+     * @throws IllegalArgumentException if index is out of range
+     */
+    public VectorMatrixLineView(IMatrix matrix, int index, boolean row) {
+        long startTime = Metrics.ENABLED ? System.nanoTime() : 0;
+        int lines = row ? Objects.requireNonNull(matrix).getRowsCount() : matrix.getColsCount();
+        if(index < 0 || index >= lines) {
+            throw new IllegalArgumentException(
+                    "Expected " + (row ? "row" : "col") + " in range [0, " + lines + "), got " + index);
+        }
+
+        this.matrix = matrix;
+        this.index = index;
+        this.row = row;
+        this.dimension = row ? matrix.getColsCount() : matrix.getRowsCount();
+
+        if(matrix instanceof DenseMatrix) {
+            DenseMatrix dense = (DenseMatrix) matrix;
+            this.elements = dense.getElements();
+            this.start = row ? dense.getOffset() + index * dense.getStride() : dense.getOffset() + index;
+            this.step = row ? 1 : dense.getStride();
+        } else {
+            this.elements = null;
+            this.start = 0;
+            this.step = 0;
+        }
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.LINE_VIEW, startTime, dimension, 0);
+        }
+    }
+
+    @Override
+    public double get(int i) {
+        if(i < 0 || i >= dimension) {
+            throw new IllegalArgumentException("Expected i in [0, " + dimension + ") range, got " + i);
+        }
+
+        if(elements != null) {
+            return elements[start + i * step];
+        }
+
+        return row ? matrix.get(index, i) : matrix.get(i, index);
+    }
+
+    @Override
+    public IVector set(int i, double value) {
+        if(i < 0 || i >= dimension) {
+            throw new IllegalArgumentException("Expected i in [0, " + dimension + ") range, got " + i);
+        }
+
+        if(elements != null) {
+            elements[start + i * step] = value;
+        } else if(row) {
+            matrix.set(index, i, value);
+        } else {
+            matrix.set(i, index, value);
+        }
+        return this;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Copies all elements of given vector into this view, and so into the backing matrix.
+     *
+     * @param source vector to copy
+     * @throws NullPointerException if given vector is null
+     * @throws IncompatibleOperandException if dimension of given vector differs from this view's
+     * @return this view
+     */
+    public VectorMatrixLineView assign(IVector source) throws IncompatibleOperandException {
+        if(Objects.requireNonNull(source).getDimension() != dimension) {
+            throw new IncompatibleOperandException();
+        }
+
+        if(elements != null && step == 1) {
+            System.arraycopy(source.toArray(), 0, elements, start, dimension);
+            return this;
+        }
+
+        for(int i = 0; i < dimension; ++i) {
+            set(i, source.get(i));
+        }
+
+        return this;
+    }
+
+    @Override
+    public double[] toArray() {
+        if(elements == null) {
+            return super.toArray();
+        }
+
+        double[] array = new double[dimension];
+        if(step == 1) {
+            System.arraycopy(elements, start, array, 0, dimension);
+        } else {
+            for(int i = 0, position = start; i < dimension; ++i, position += step) {
+                array[i] = elements[position];
+            }
+        }
+
+        return array;
+    }
+
+    @Override
+    public IVector copy() {
+        return Vector.adopt(toArray());
+    }
+
+    @Override
+    public IVector newInstance(int i) {
+        if(i < 0) {
+            throw new IllegalArgumentException("Expected i >= 0, got " + i);
+        }
+
+        return Vector.adopt(new double[i]);
+    }
+}
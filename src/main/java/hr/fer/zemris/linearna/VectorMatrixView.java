@@ -9,9 +9,14 @@ public class VectorMatrixView extends AbstractVector {
     private final boolean rowMatrix;
 
     public VectorMatrixView(IMatrix matrix, boolean rowMatrix) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
         this.matrix = Objects.requireNonNull(matrix);
-        this.dimension = rowMatrix ? matrix.getRowsCount() : matrix.getColsCount();
+        this.dimension = rowMatrix ? matrix.getColsCount() : matrix.getRowsCount();
         this.rowMatrix = rowMatrix;
+
+        if(Metrics.ENABLED) {
+            Metrics.record(Metrics.Operation.VECTOR_VIEW, start, dimension, 0);
+        }
     }
 
     @Override
@@ -2,6 +2,7 @@ package hr.fer.zemris.linearna.examples;
 
 import hr.fer.zemris.linearna.IMatrix;
 import hr.fer.zemris.linearna.IVector;
+import hr.fer.zemris.linearna.LinearSolver;
 import hr.fer.zemris.linearna.Matrix;
 import hr.fer.zemris.linearna.Vector;
 import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
@@ -29,7 +30,7 @@ public class BarycentricCoordinates {
     public static void secondTechnique() throws IncompatibleOperandException {
         IMatrix triangleCoords = Matrix.parseSimple("1 5 3 | 0 0 8 | 1 1 1");
         IMatrix pointCoords = Matrix.parseSimple("3 | 4 | 1");
-        IMatrix result = triangleCoords.nInvert().nMultiply(pointCoords);
+        IMatrix result = LinearSolver.solve(triangleCoords, pointCoords);
 
         System.out.println(
                 " Barycentric coordinates are : (" +
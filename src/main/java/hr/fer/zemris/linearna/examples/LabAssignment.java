@@ -2,6 +2,7 @@ package hr.fer.zemris.linearna.examples;
 
 import hr.fer.zemris.linearna.IMatrix;
 import hr.fer.zemris.linearna.IVector;
+import hr.fer.zemris.linearna.LinearSolver;
 import hr.fer.zemris.linearna.Matrix;
 import hr.fer.zemris.linearna.Vector;
 import hr.fer.zemris.linearna.exceptions.DegenerateCaseException;
@@ -43,7 +44,7 @@ public class LabAssignment {
         IMatrix linearEquationResults = readMatrixFromUser(sc, 3, 1, "linear equation results");
 
         System.out.println("[x, y, z] = " +
-                linearEquationValues.nInvert().nMultiply(linearEquationResults).nTransponse(false));
+                LinearSolver.solve(linearEquationValues, linearEquationResults).nTransponse(false));
     }
 
     private static IMatrix readMatrixFromUser(Scanner sc, int rows, int cols, String matrixKind) {
@@ -61,7 +62,7 @@ public class LabAssignment {
 
         IMatrix verticesCoords = readMatrixFromUser(sc, 3, 3, "triangle vertex coordinates");
         IMatrix pointCoord = readMatrixFromUser(sc, 1, 3, "point T coordinates");
-        IMatrix result = verticesCoords.nInvert().nMultiply(pointCoord.nTransponse(false));
+        IMatrix result = LinearSolver.solve(verticesCoords, pointCoord.nTransponse(false));
 
         System.out.println("Barycentric coordinates are: " + result.nTransponse(false));
     }
@@ -0,0 +1,43 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+
+/**
+ * Expression which inverts a square expression.
+ *
+ * @author filip
+ *
+ */
+final class InverseExpression extends MatrixExpression {
+
+    private final MatrixExpression operand;
+
+    InverseExpression(MatrixExpression operand) {
+        super(operand.getRowsCount(), operand.getColsCount());
+        this.operand = operand;
+    }
+
+    MatrixExpression getOperand() {
+        return operand;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        return new InverseExpression(operand.optimize());
+    }
+
+    @Override
+    Element compile() {
+        return materialize()::get;
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return operand.references(matrix);
+    }
+
+    @Override
+    IMatrix materialize() {
+        return operand.materialize().nInvert();
+    }
+}
@@ -0,0 +1,39 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+
+/**
+ * Expression which represents an existing matrix.
+ *
+ * @author filip
+ *
+ */
+final class LeafExpression extends MatrixExpression {
+
+    private final IMatrix matrix;
+
+    LeafExpression(IMatrix matrix) {
+        super(matrix.getRowsCount(), matrix.getColsCount());
+        this.matrix = matrix;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        return this;
+    }
+
+    @Override
+    Element compile() {
+        return matrix::get;
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return this.matrix == matrix;
+    }
+
+    @Override
+    IMatrix materialize() {
+        return matrix;
+    }
+}
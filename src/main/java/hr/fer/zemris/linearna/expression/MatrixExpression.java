@@ -0,0 +1,273 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.DenseMatrix;
+import hr.fer.zemris.linearna.IMatrix;
+import hr.fer.zemris.linearna.IVector;
+import hr.fer.zemris.linearna.Vector;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+import java.util.Objects;
+
+/**
+ * Lazily evaluated matrix expression. Operations on expressions only build a tree of nodes, whose
+ * dimensions are checked immediately, and no element is calculated until {@link #evaluate()} is called.
+ * <p>During evaluation the tree is rewritten first: a multiplication with an inverse, <code>inv(A) * B</code>,
+ * becomes a solution of system <code>A * X = B</code> through LU decomposition, and double transposes are
+ * removed. Elementwise nodes (addition, subtraction, scaling, transposing and submatrices) are then fused,
+ * so a chain of them is calculated in a single pass over the result without intermediate matrices. Only
+ * products, inverses and solutions are materialized.
+ * <p>Here is an example which solves a linear system without calculating the inverse:
+ * <pre>
+ * IMatrix x = MatrixExpression.of(a).inverse().multiply(MatrixExpression.of(r)).evaluate();
+ * </pre>
+ * Leaf matrices are read during evaluation, so changes made to them before {@link #evaluate()} is called
+ * are visible in the result.
+ *
+ * @author filip
+ *
+ */
+public abstract class MatrixExpression {
+
+    private final int rows;
+    private final int cols;
+
+    MatrixExpression(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Creates expression which represents given matrix.
+     *
+     * @param matrix matrix
+     * @throws NullPointerException if given matrix is null
+     * @return leaf expression
+     */
+    public static MatrixExpression of(IMatrix matrix) {
+        return new LeafExpression(Objects.requireNonNull(matrix));
+    }
+
+    /**
+     * Creates expression which represents given vector as a column matrix.
+     *
+     * @param vector vector
+     * @throws NullPointerException if given vector is null
+     * @return leaf expression
+     */
+    public static MatrixExpression of(IVector vector) {
+        return new LeafExpression(Objects.requireNonNull(vector).toColumnMatrix(true));
+    }
+
+    public int getRowsCount() {
+        return rows;
+    }
+
+    public int getColsCount() {
+        return cols;
+    }
+
+    /**
+     * Creates expression which adds given expression to this one.
+     *
+     * @param that right operand
+     * @throws NullPointerException if given expression is null
+     * @throws IncompatibleOperandException if dimensions of expressions differ
+     * @return sum expression
+     */
+    public MatrixExpression add(MatrixExpression that) throws IncompatibleOperandException {
+        checkSameDimensions(that);
+        return new SumExpression(this, that, false);
+    }
+
+    /**
+     * Creates expression which subtracts given expression from this one.
+     *
+     * @param that right operand
+     * @throws NullPointerException if given expression is null
+     * @throws IncompatibleOperandException if dimensions of expressions differ
+     * @return difference expression
+     */
+    public MatrixExpression sub(MatrixExpression that) throws IncompatibleOperandException {
+        checkSameDimensions(that);
+        return new SumExpression(this, that, true);
+    }
+
+    private void checkSameDimensions(MatrixExpression that) throws IncompatibleOperandException {
+        if(rows != Objects.requireNonNull(that).rows || cols != that.cols) {
+            throw new IncompatibleOperandException();
+        }
+    }
+
+    /**
+     * Creates expression which multiplies this expression with given scalar.
+     *
+     * @param factor scalar
+     * @return scaled expression
+     */
+    public MatrixExpression scale(double factor) {
+        return new ScaleExpression(this, factor);
+    }
+
+    /**
+     * Creates expression which multiplies this expression with given one.
+     *
+     * @param that right operand
+     * @throws NullPointerException if given expression is null
+     * @throws IncompatibleOperandException if this expression's column count differs from given
+     *         expression's row count
+     * @return product expression
+     */
+    public MatrixExpression multiply(MatrixExpression that) throws IncompatibleOperandException {
+        if(cols != Objects.requireNonNull(that).rows) {
+            throw new IncompatibleOperandException();
+        }
+
+        return new ProductExpression(this, that);
+    }
+
+    /**
+     * Creates expression which transposes this expression.
+     *
+     * @return transposed expression
+     */
+    public MatrixExpression transpose() {
+        return new TransposeExpression(this);
+    }
+
+    /**
+     * Creates expression which removes given row and column from this expression, like
+     * {@link IMatrix#subMatrix(int, int, boolean)}.
+     *
+     * @param row row to remove
+     * @param col column to remove
+     * @throws IllegalArgumentException if row or column is out of range
+     * @return submatrix expression
+     */
+    public MatrixExpression subMatrix(int row, int col) {
+        if(row < 0 || row >= rows) {
+            throw new IllegalArgumentException("Expected rows in range [0, " + rows +  "), got " + row);
+        }
+        if(col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Expected cols in range [0, " + cols +  "), got " + col);
+        }
+
+        return new SubMatrixExpression(this, row, col);
+    }
+
+    /**
+     * Creates expression which inverts this expression.
+     *
+     * @throws UnsupportedOperationException if this expression is not square
+     * @return inverse expression
+     */
+    public MatrixExpression inverse() {
+        if(rows != cols) {
+            throw new UnsupportedOperationException("Cannot calculate inverse of non-square matrix.");
+        }
+
+        return new InverseExpression(this);
+    }
+
+    /**
+     * Evaluates this expression into a new matrix.
+     *
+     * @throws UnsupportedOperationException if an inverted or solved matrix is singular
+     * @return result matrix
+     */
+    public IMatrix evaluate() {
+        MatrixExpression optimized = optimize();
+        IMatrix result = optimized.materialize();
+
+        return optimized instanceof LeafExpression ? result.copy() : result;
+    }
+
+    /**
+     * Evaluates this expression into given destination matrix.
+     *
+     * @param dest destination matrix
+     * @throws NullPointerException if destination is null
+     * @throws IllegalArgumentException if destination's dimensions differ from this expression's
+     *         dimensions or if destination is a leaf of this expression
+     * @throws UnsupportedOperationException if an inverted or solved matrix is singular
+     * @return destination matrix
+     */
+    public IMatrix evaluate(IMatrix dest) {
+        if(Objects.requireNonNull(dest).getRowsCount() != rows || dest.getColsCount() != cols) {
+            throw new IllegalArgumentException("Expected " + rows + "x" + cols + " destination, got "
+                    + dest.getRowsCount() + "x" + dest.getColsCount());
+        }
+        if(references(dest)) {
+            throw new IllegalArgumentException("Destination must not be an operand.");
+        }
+
+        Element element = optimize().compile();
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                dest.set(i, j, element.get(i, j));
+            }
+        }
+
+        return dest;
+    }
+
+    /**
+     * Evaluates this single-column expression into a new vector.
+     *
+     * @throws UnsupportedOperationException if this expression has more than one column or if an
+     *         inverted or solved matrix is singular
+     * @return result vector
+     */
+    public IVector evaluateVector() {
+        if(cols != 1) {
+            throw new UnsupportedOperationException("Only single-column expressions can be evaluated as vectors.");
+        }
+
+        Element element = optimize().compile();
+        Vector result = new Vector(rows);
+        for(int i = 0; i < rows; ++i) {
+            result.set(i, element.get(i, 0));
+        }
+
+        return result;
+    }
+
+    /**
+     * Rewrites this expression into an equivalent one which is cheaper to evaluate.
+     */
+    abstract MatrixExpression optimize();
+
+    /**
+     * Prepares elementwise access to this expression's value, materializing nodes which cannot be
+     * calculated element by element.
+     */
+    abstract Element compile();
+
+    /**
+     * Checks whether given matrix is a leaf of this expression.
+     */
+    abstract boolean references(IMatrix matrix);
+
+    /**
+     * Calculates this expression's value as a matrix.
+     */
+    IMatrix materialize() {
+        Element element = compile();
+        double[] elements = new double[rows * cols];
+        for(int i = 0, index = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                elements[index++] = element.get(i, j);
+            }
+        }
+
+        return new DenseMatrix(rows, cols, elements);
+    }
+
+    /**
+     * Access to elements of an evaluated expression.
+     */
+    @FunctionalInterface
+    interface Element {
+
+        double get(int i, int j);
+    }
+}
@@ -0,0 +1,54 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+import hr.fer.zemris.linearna.MatrixMultiplication;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * Expression which multiplies two expressions. A product with an inverse on the left side is rewritten into
+ * a solution of a linear system.
+ *
+ * @author filip
+ *
+ */
+final class ProductExpression extends MatrixExpression {
+
+    private final MatrixExpression left;
+    private final MatrixExpression right;
+
+    ProductExpression(MatrixExpression left, MatrixExpression right) {
+        super(left.getRowsCount(), right.getColsCount());
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        MatrixExpression left = this.left.optimize();
+        MatrixExpression right = this.right.optimize();
+        if(left instanceof InverseExpression) {
+            return new SolveExpression(((InverseExpression) left).getOperand(), right);
+        }
+
+        return new ProductExpression(left, right);
+    }
+
+    @Override
+    Element compile() {
+        return materialize()::get;
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return left.references(matrix) || right.references(matrix);
+    }
+
+    @Override
+    IMatrix materialize() {
+        try {
+            return MatrixMultiplication.multiply(left.materialize(), right.materialize());
+        } catch (IncompatibleOperandException e) {
+            throw new AssertionError("Dimensions are checked when expression is built.", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+
+/**
+ * Expression which multiplies an expression with a scalar.
+ *
+ * @author filip
+ *
+ */
+final class ScaleExpression extends MatrixExpression {
+
+    private final MatrixExpression operand;
+    private final double factor;
+
+    ScaleExpression(MatrixExpression operand, double factor) {
+        super(operand.getRowsCount(), operand.getColsCount());
+        this.operand = operand;
+        this.factor = factor;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        return new ScaleExpression(operand.optimize(), factor);
+    }
+
+    @Override
+    Element compile() {
+        Element operand = this.operand.compile();
+        double factor = this.factor;
+
+        return (i, j) -> operand.get(i, j) * factor;
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return operand.references(matrix);
+    }
+}
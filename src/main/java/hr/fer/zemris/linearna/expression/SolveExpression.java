@@ -0,0 +1,48 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+import hr.fer.zemris.linearna.LUDecomposition;
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * Expression which solves system A * X = B through LU decomposition of A. It replaces products of the form
+ * <code>inv(A) * B</code>.
+ *
+ * @author filip
+ *
+ */
+final class SolveExpression extends MatrixExpression {
+
+    private final MatrixExpression system;
+    private final MatrixExpression rightHandSides;
+
+    SolveExpression(MatrixExpression system, MatrixExpression rightHandSides) {
+        super(system.getColsCount(), rightHandSides.getColsCount());
+        this.system = system;
+        this.rightHandSides = rightHandSides;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        return this;
+    }
+
+    @Override
+    Element compile() {
+        return materialize()::get;
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return system.references(matrix) || rightHandSides.references(matrix);
+    }
+
+    @Override
+    IMatrix materialize() {
+        try {
+            return new LUDecomposition(system.materialize()).solve(rightHandSides.materialize());
+        } catch (IncompatibleOperandException e) {
+            throw new AssertionError("Dimensions are checked when expression is built.", e);
+        }
+    }
+}
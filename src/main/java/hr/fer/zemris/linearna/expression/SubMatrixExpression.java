@@ -0,0 +1,42 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+
+/**
+ * Expression which removes one row and one column from an expression.
+ *
+ * @author filip
+ *
+ */
+final class SubMatrixExpression extends MatrixExpression {
+
+    private final MatrixExpression operand;
+    private final int row;
+    private final int col;
+
+    SubMatrixExpression(MatrixExpression operand, int row, int col) {
+        super(operand.getRowsCount() - 1, operand.getColsCount() - 1);
+        this.operand = operand;
+        this.row = row;
+        this.col = col;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        return new SubMatrixExpression(operand.optimize(), row, col);
+    }
+
+    @Override
+    Element compile() {
+        Element operand = this.operand.compile();
+        int row = this.row;
+        int col = this.col;
+
+        return (i, j) -> operand.get(i < row ? i : i + 1, j < col ? j : j + 1);
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return operand.references(matrix);
+    }
+}
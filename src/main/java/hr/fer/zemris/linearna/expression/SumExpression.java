@@ -0,0 +1,44 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+
+/**
+ * Expression which adds or subtracts two expressions of equal dimensions.
+ *
+ * @author filip
+ *
+ */
+final class SumExpression extends MatrixExpression {
+
+    private final MatrixExpression left;
+    private final MatrixExpression right;
+    private final boolean subtract;
+
+    SumExpression(MatrixExpression left, MatrixExpression right, boolean subtract) {
+        super(left.getRowsCount(), left.getColsCount());
+        this.left = left;
+        this.right = right;
+        this.subtract = subtract;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        return new SumExpression(left.optimize(), right.optimize(), subtract);
+    }
+
+    @Override
+    Element compile() {
+        Element left = this.left.compile();
+        Element right = this.right.compile();
+
+        if(subtract) {
+            return (i, j) -> left.get(i, j) - right.get(i, j);
+        }
+        return (i, j) -> left.get(i, j) + right.get(i, j);
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return left.references(matrix) || right.references(matrix);
+    }
+}
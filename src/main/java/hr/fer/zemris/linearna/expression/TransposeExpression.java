@@ -0,0 +1,41 @@
+package hr.fer.zemris.linearna.expression;
+
+import hr.fer.zemris.linearna.IMatrix;
+
+/**
+ * Expression which transposes an expression.
+ *
+ * @author filip
+ *
+ */
+final class TransposeExpression extends MatrixExpression {
+
+    private final MatrixExpression operand;
+
+    TransposeExpression(MatrixExpression operand) {
+        super(operand.getColsCount(), operand.getRowsCount());
+        this.operand = operand;
+    }
+
+    @Override
+    MatrixExpression optimize() {
+        MatrixExpression operand = this.operand.optimize();
+        if(operand instanceof TransposeExpression) {
+            return ((TransposeExpression) operand).operand;
+        }
+
+        return new TransposeExpression(operand);
+    }
+
+    @Override
+    Element compile() {
+        Element operand = this.operand.compile();
+
+        return (i, j) -> operand.get(j, i);
+    }
+
+    @Override
+    boolean references(IMatrix matrix) {
+        return operand.references(matrix);
+    }
+}
@@ -0,0 +1,101 @@
+package hr.fer.zemris.linearna;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels implemented with the incubating Java Vector API, using the widest vector shape supported by
+ * the CPU. Loaded reflectively by {@link Kernels#get()}; compiled only with the <code>simd</code> profile.
+ *
+ * @author filip
+ *
+ */
+final class VectorApiKernels extends Kernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    String getName() {
+        return "vector-api-" + SPECIES.length() + "x64";
+    }
+
+    @Override
+    double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < upperBound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            sum = sum.add(va.mul(vb));
+        }
+
+        double result = sum.reduceLanes(VectorOperators.ADD);
+        for(; i < length; ++i) {
+            result += a[aOffset + i] * b[bOffset + i];
+        }
+
+        return result;
+    }
+
+    @Override
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        DoubleVector factor = DoubleVector.broadcast(SPECIES, alpha);
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < upperBound; i += SPECIES.length()) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOffset + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOffset + i);
+            vy.add(vx.mul(factor)).intoArray(y, yOffset + i);
+        }
+
+        for(; i < length; ++i) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    void add(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset, int length) {
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < upperBound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            va.add(vb).intoArray(result, resultOffset + i);
+        }
+
+        for(; i < length; ++i) {
+            result[resultOffset + i] = a[aOffset + i] + b[bOffset + i];
+        }
+    }
+
+    @Override
+    void sub(double[] a, int aOffset, double[] b, int bOffset, double[] result, int resultOffset, int length) {
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < upperBound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            va.sub(vb).intoArray(result, resultOffset + i);
+        }
+
+        for(; i < length; ++i) {
+            result[resultOffset + i] = a[aOffset + i] - b[bOffset + i];
+        }
+    }
+
+    @Override
+    void scale(double factor, double[] a, int aOffset, double[] result, int resultOffset, int length) {
+        DoubleVector vFactor = DoubleVector.broadcast(SPECIES, factor);
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for(; i < upperBound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, aOffset + i).mul(vFactor).intoArray(result, resultOffset + i);
+        }
+
+        for(; i < length; ++i) {
+            result[resultOffset + i] = a[aOffset + i] * factor;
+        }
+    }
+}
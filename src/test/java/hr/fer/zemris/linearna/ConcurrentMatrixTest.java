@@ -0,0 +1,154 @@
+package hr.fer.zemris.linearna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs writers of {@link ConcurrentMatrix} against concurrent snapshots.
+ *
+ * @author filip
+ *
+ */
+public class ConcurrentMatrixTest {
+
+    private static final int STRIPES = 4;
+    private static final int ROWS = 8;
+    private static final int COLS = 16;
+    private static final int ROUNDS = 20000;
+
+    private ExecutorService executor;
+
+    @Before
+    public void startExecutor() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void stopExecutor() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Every writer adds 1 to each element of its own stripe in the order in which snapshots copy them, round
+     * after round. Counts in a stripe copied between two writes therefore never increase along that order and
+     * differ by at most 1, while a stripe copied during writes would show later elements ahead of earlier ones.
+     */
+    @Test(timeout = 60000)
+    public void snapshotStripesShowWholeWrites() throws Exception {
+        ConcurrentMatrix matrix = new ConcurrentMatrix(ROWS, COLS, STRIPES);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for(int stripe = 0; stripe < STRIPES; ++stripe) {
+            int writerStripe = stripe;
+            writers.add(executor.submit(() -> {
+                for(int round = 0; round < ROUNDS; ++round) {
+                    for(int i = writerStripe; i < ROWS; i += STRIPES) {
+                        for(int j = 0; j < COLS; ++j) {
+                            matrix.addTo(i, j, 1);
+                        }
+                    }
+                }
+            }));
+        }
+
+        Callable<Integer> snapshots = () -> {
+            int count = 0;
+            do {
+                DenseMatrix snapshot = matrix.snapshot();
+                for(int stripe = 0; stripe < STRIPES; ++stripe) {
+                    assertWholeWrites(snapshot, stripe);
+                }
+                count++;
+            } while(writing.get());
+            return count;
+        };
+        Future<Integer> first = executor.submit(snapshots);
+        Future<Integer> second = executor.submit(snapshots);
+
+        for(Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        assertTrue(first.get() > 0);
+        assertTrue(second.get() > 0);
+
+        DenseMatrix result = matrix.snapshot();
+        for(int i = 0; i < ROWS; ++i) {
+            for(int j = 0; j < COLS; ++j) {
+                assertEquals(ROUNDS, result.get(i, j), 0);
+            }
+        }
+    }
+
+    private static void assertWholeWrites(DenseMatrix snapshot, int stripe) {
+        double first = snapshot.get(stripe, 0);
+        double previous = first;
+        for(int i = stripe; i < ROWS; i += STRIPES) {
+            for(int j = 0; j < COLS; ++j) {
+                double current = snapshot.get(i, j);
+                if(current > previous || first - current > 1) {
+                    fail("Stripe " + stripe + " was copied during a write: (" + i + ", " + j + ") = " + current
+                            + " after " + previous + ", first " + first);
+                }
+                previous = current;
+            }
+        }
+    }
+
+    /**
+     * Writers of all threads add to the same elements while snapshots are taken without pause, so that
+     * snapshots fall back to pausing writers, who must still finish with every addition counted.
+     */
+    @Test(timeout = 60000)
+    public void contendedAdditionsAreExact() throws Exception {
+        int writersCount = 2 * STRIPES;
+        ConcurrentMatrix matrix = new ConcurrentMatrix(ROWS, COLS, STRIPES);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for(int w = 0; w < writersCount; ++w) {
+            writers.add(executor.submit(() -> {
+                for(int round = 0; round < ROUNDS; ++round) {
+                    matrix.addTo(round % ROWS, round % COLS, 1);
+                    matrix.addTo(0, 0, 0.5);
+                }
+            }));
+        }
+        Future<?> snapshots = executor.submit(() -> {
+            while(writing.get()) {
+                matrix.snapshot();
+            }
+        });
+
+        for(Future<?> writer : writers) {
+            writer.get();
+        }
+        writing.set(false);
+        snapshots.get();
+
+        DenseMatrix result = matrix.snapshot();
+        double sum = 0;
+        for(int i = 0; i < ROWS; ++i) {
+            for(int j = 0; j < COLS; ++j) {
+                sum += result.get(i, j);
+            }
+        }
+        assertEquals(writersCount * ROUNDS * 1.5, sum, 0);
+    }
+}
@@ -0,0 +1,124 @@
+package hr.fer.zemris.linearna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that copies of {@link Matrix} and {@link Vector} are independent of their originals and of
+ * arrays given to constructors.
+ *
+ * @author filip
+ *
+ */
+public class CopyOnWriteTest {
+
+    @Before
+    public void resetMetrics() {
+        assertTrue("Tests must run with metrics enabled.", Metrics.ENABLED);
+        Metrics.reset();
+    }
+
+    private static long clonedBytes() {
+        return Metrics.getBytes(Metrics.Operation.COPY);
+    }
+
+    @Test
+    public void parsedMatrixCopyClonesOnlyOnFirstWrite() {
+        IMatrix parsed = Matrix.parseSimple("1 2 | 3 4");
+        IMatrix copy = parsed.copy();
+        assertEquals(0, clonedBytes());
+
+        copy.set(0, 0, 10);
+        assertEquals(4 * Double.BYTES, clonedBytes());
+        assertEquals(1, parsed.get(0, 0), 0);
+        assertEquals(10, copy.get(0, 0), 0);
+    }
+
+    @Test
+    public void parsedVectorCopyClonesOnlyOnFirstWrite() {
+        IVector parsed = Vector.parseSimple("1 2 3");
+        IVector copy = parsed.copy();
+        assertEquals(0, clonedBytes());
+
+        parsed.set(2, 30);
+        assertEquals(3 * Double.BYTES, clonedBytes());
+        assertEquals(3, copy.get(2), 0);
+    }
+
+    @Test
+    public void solutionCopyClonesOnlyOnFirstWrite() throws Exception {
+        IVector x = LinearSolver.solve(Matrix.parseSimple("2 0 | 0 4"), Vector.parseSimple("2 8"));
+        Metrics.reset();
+        IVector copy = x.copy();
+        assertEquals(0, clonedBytes());
+
+        copy.set(0, 5);
+        assertEquals(2 * Double.BYTES, clonedBytes());
+        assertEquals(1, x.get(0), 0);
+    }
+
+    @Test
+    public void matrixCopyIsNotAffectedByConstructorArray() {
+        double[][] raw = {{1, 2}, {3, 4}};
+        IMatrix copy = new Matrix(raw).copy();
+        assertEquals(4 * Double.BYTES, clonedBytes());
+
+        raw[0][0] = 99;
+
+        assertEquals(1, copy.get(0, 0), 0);
+    }
+
+    @Test
+    public void matrixStillUsesConstructorArray() {
+        double[][] raw = {{1, 2}, {3, 4}};
+        Matrix matrix = new Matrix(raw);
+        matrix.copy();
+
+        raw[0][0] = 99;
+        matrix.set(1, 1, 42);
+
+        assertEquals(99, matrix.get(0, 0), 0);
+        assertEquals(42, raw[1][1], 0);
+    }
+
+    @Test
+    public void matrixCopiesAreIndependent() {
+        IMatrix original = new Matrix(new double[][] {{1, 2}, {3, 4}}).copy();
+        IMatrix copy = original.copy();
+
+        original.set(0, 0, 10);
+        copy.set(1, 1, 40);
+
+        assertEquals(10, original.get(0, 0), 0);
+        assertEquals(4, original.get(1, 1), 0);
+        assertEquals(1, copy.get(0, 0), 0);
+        assertEquals(40, copy.get(1, 1), 0);
+    }
+
+    @Test
+    public void vectorCopyIsNotAffectedByConstructorArray() {
+        double[] raw = {1, 2, 3};
+        IVector copy = new Vector(false, true, raw).copy();
+
+        raw[0] = 99;
+
+        assertEquals(1, copy.get(0), 0);
+    }
+
+    @Test
+    public void vectorCopiesAreIndependent() {
+        IVector original = new Vector(new double[] {1, 2, 3});
+        IVector copy = original.copy();
+
+        original.set(0, 10);
+        copy.set(2, 30);
+
+        assertEquals(10, original.get(0), 0);
+        assertEquals(3, original.get(2), 0);
+        assertEquals(1, copy.get(0), 0);
+        assertEquals(30, copy.get(2), 0);
+    }
+}
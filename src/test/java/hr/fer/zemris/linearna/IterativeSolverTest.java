@@ -0,0 +1,127 @@
+package hr.fer.zemris.linearna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link ConjugateGradient}, {@link BiCGStab} and {@link GMRES} converge to solutions of direct
+ * solvers with every preconditioner, and how they report systems they cannot solve.
+ *
+ * @author filip
+ *
+ */
+public class IterativeSolverTest {
+
+    private static final int GRID = 7;
+    private static final int N = GRID * GRID;
+
+    /**
+     * Creates five-point discretization of convection-diffusion on a square grid, which is symmetric
+     * positive definite if convection is 0.
+     */
+    private static CsrMatrix grid(double convection) {
+        CooMatrix matrix = new CooMatrix(N, N);
+        for(int i = 0; i < GRID; ++i) {
+            for(int j = 0; j < GRID; ++j) {
+                int row = i * GRID + j;
+                matrix.set(row, row, 4);
+                if(j > 0) matrix.set(row, row - 1, -1 - convection);
+                if(j < GRID - 1) matrix.set(row, row + 1, -1 + convection);
+                if(i > 0) matrix.set(row, row - GRID, -1);
+                if(i < GRID - 1) matrix.set(row, row + GRID, -1);
+            }
+        }
+        return matrix.toCsr();
+    }
+
+    private static IVector randomVector(long seed) {
+        Random random = new Random(seed);
+        IVector vector = new Vector(N);
+        for(int i = 0; i < N; ++i) {
+            vector.set(i, random.nextDouble() * 2 - 1);
+        }
+        return vector;
+    }
+
+    private static Preconditioner[] preconditioners(IMatrix a) {
+        return new Preconditioner[] {Preconditioner.IDENTITY, new JacobiPreconditioner(a), new ILU0Preconditioner(a)};
+    }
+
+    private static void assertSolves(IterativeSolver solver, IMatrix a, IVector b) throws Exception {
+        IVector expected = LinearSolver.solve(a, b);
+        for(Preconditioner preconditioner : preconditioners(a)) {
+            IterativeResult result = solver.setPreconditioner(preconditioner).solve(a, b);
+            String message = solver.getClass().getSimpleName() + " with " + preconditioner.getClass().getSimpleName();
+
+            assertTrue(message, result.isConverged());
+            assertTrue(message, result.getRelativeResidual() <= solver.getTolerance());
+            for(int i = 0; i < N; ++i) {
+                assertEquals(message, expected.get(i), result.getSolution().get(i), 1e-8);
+            }
+        }
+    }
+
+    @Test
+    public void conjugateGradientConverges() throws Exception {
+        assertSolves(new ConjugateGradient(), grid(0), randomVector(1));
+    }
+
+    @Test
+    public void biCGStabConverges() throws Exception {
+        assertSolves(new BiCGStab(), grid(0.4), randomVector(2));
+    }
+
+    @Test
+    public void gmresConverges() throws Exception {
+        assertSolves(new GMRES(), grid(0.4), randomVector(3));
+    }
+
+    @Test
+    public void restartedGmresConverges() throws Exception {
+        GMRES gmres = new GMRES().setRestart(5);
+        gmres.setMaxIterations(5000);
+        assertSolves(gmres, grid(0.4), randomVector(4));
+
+        IterativeResult result = gmres.setPreconditioner(Preconditioner.IDENTITY).solve(grid(0.4), randomVector(4));
+        assertTrue(result.getIterations() > gmres.getRestart());
+    }
+
+    @Test
+    public void zeroRightHandSideGivesZeroSolution() throws Exception {
+        IterativeSolver[] solvers = {new ConjugateGradient(), new BiCGStab(), new GMRES()};
+        for(IterativeSolver solver : solvers) {
+            IterativeResult result = solver.solve(grid(0), new Vector(N));
+
+            assertTrue(result.isConverged());
+            assertEquals(0, result.getIterations());
+            assertEquals(0, result.getSolution().norm(), 0);
+        }
+    }
+
+    @Test
+    public void iterationLimitIsReported() throws Exception {
+        IterativeSolver[] solvers = {new ConjugateGradient(), new BiCGStab(), new GMRES()};
+        for(IterativeSolver solver : solvers) {
+            IterativeResult result = solver.setMaxIterations(2).solve(grid(0), randomVector(5));
+
+            assertFalse(result.isConverged());
+            assertTrue(result.getIterations() <= 2);
+            assertTrue(result.getRelativeResidual() > solver.getTolerance());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void ilu0RejectsMissingDiagonal() {
+        new ILU0Preconditioner(CsrMatrix.of(2, 2, new int[] {0, 1, 2}, new int[] {1, 0}, new double[] {1, 1}));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void ilu0RejectsZeroPivot() {
+        new ILU0Preconditioner(Matrix.parseSimple("1 1 | 1 1"));
+    }
+}
@@ -0,0 +1,205 @@
+package hr.fer.zemris.linearna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hr.fer.zemris.linearna.exceptions.IncompatibleOperandException;
+
+/**
+ * Checks solutions of {@link LinearSolver}, {@link LUDecomposition}, {@link QRDecomposition} and
+ * {@link CholeskyDecomposition} against the systems they solve, and that unsolvable systems are rejected.
+ *
+ * @author filip
+ *
+ */
+public class LinearSolverTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    private static DenseMatrix random(Random random, int rows, int cols) {
+        DenseMatrix matrix = new DenseMatrix(rows, cols);
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                matrix.set(i, j, random.nextDouble() * 2 - 1);
+            }
+        }
+        return matrix;
+    }
+
+    private static void assertMatrixEquals(IMatrix expected, IMatrix actual, double tolerance) {
+        assertEquals(expected.getRowsCount(), actual.getRowsCount());
+        assertEquals(expected.getColsCount(), actual.getColsCount());
+        for(int i = 0; i < expected.getRowsCount(); ++i) {
+            for(int j = 0; j < expected.getColsCount(); ++j) {
+                assertEquals("(" + i + ", " + j + ")", expected.get(i, j), actual.get(i, j), tolerance);
+            }
+        }
+    }
+
+    private static void assertVectorEquals(IVector expected, IVector actual, double tolerance) {
+        assertEquals(expected.getDimension(), actual.getDimension());
+        for(int i = 0; i < expected.getDimension(); ++i) {
+            assertEquals("[" + i + "]", expected.get(i), actual.get(i), tolerance);
+        }
+    }
+
+    private static IVector multiply(IMatrix a, IVector x) {
+        double[] result = new double[a.getRowsCount()];
+        for(int i = 0; i < result.length; ++i) {
+            for(int j = 0; j < a.getColsCount(); ++j) {
+                result[i] += a.get(i, j) * x.get(j);
+            }
+        }
+        return new Vector(result);
+    }
+
+    @Test
+    public void squareSystemResidualIsSmall() throws Exception {
+        Random random = new Random(14);
+        for(int n : new int[] {1, 2, 5, 30}) {
+            DenseMatrix a = random(random, n, n);
+            DenseMatrix b = random(random, n, 3);
+
+            DenseMatrix x = LinearSolver.solve(a, b);
+            assertMatrixEquals(b, a.nMultiply(x), TOLERANCE);
+            assertTrue(LinearSolver.factorize(a) instanceof LUDecomposition);
+        }
+    }
+
+    @Test
+    public void luSolvesVectorsAndMatricesAlike() throws Exception {
+        Random random = new Random(15);
+        DenseMatrix a = random(random, 8, 8);
+        DenseMatrix b = random(random, 8, 2);
+        LUDecomposition lu = new LUDecomposition(a);
+
+        DenseMatrix x = lu.solve(b);
+        for(int j = 0; j < b.getColsCount(); ++j) {
+            IVector column = new Vector(b.getRowsCount());
+            for(int i = 0; i < b.getRowsCount(); ++i) {
+                column.set(i, b.get(i, j));
+            }
+            IVector xColumn = lu.solve(column);
+
+            assertVectorEquals(column, multiply(a, xColumn), TOLERANCE);
+            for(int i = 0; i < x.getRowsCount(); ++i) {
+                assertEquals(x.get(i, j), xColumn.get(i), TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void luSolvesSystemRequiringPivoting() throws Exception {
+        IMatrix a = Matrix.parseSimple("0 1 | 1 0");
+        IVector x = new LUDecomposition(a).solve(Vector.parseSimple("2 3"));
+
+        assertVectorEquals(Vector.parseSimple("3 2"), x, 0);
+    }
+
+    @Test
+    public void tallSystemSatisfiesNormalEquations() throws Exception {
+        Random random = new Random(16);
+        DenseMatrix a = random(random, 20, 4);
+        DenseMatrix b = random(random, 20, 2);
+        IMatrix aT = a.nTransponse(false);
+
+        DenseMatrix x = LinearSolver.solve(a, b);
+        assertTrue(LinearSolver.factorize(a) instanceof QRDecomposition);
+        assertMatrixEquals(LinearSolver.solve(aT.nMultiply(a), aT.nMultiply(b)), x, TOLERANCE);
+
+        IMatrix residual = a.nMultiply(x).sub(b);
+        assertMatrixEquals(new DenseMatrix(4, 2), aT.nMultiply(residual), TOLERANCE);
+    }
+
+    @Test
+    public void qrSolvesConsistentTallSystemExactly() throws Exception {
+        IMatrix a = Matrix.parseSimple("1 0 | 0 1 | 1 1");
+        QRDecomposition qr = new QRDecomposition(a);
+
+        assertTrue(qr.isFullRank());
+        assertVectorEquals(Vector.parseSimple("2 3"), qr.solve(Vector.parseSimple("2 3 5")), TOLERANCE);
+    }
+
+    @Test
+    public void choleskySolvesSymmetricPositiveDefiniteSystem() throws Exception {
+        Random random = new Random(17);
+        int n = 12;
+        DenseMatrix m = random(random, n, n);
+        IMatrix a = m.nTransponse(false).nMultiply(m);
+        for(int i = 0; i < n; ++i) {
+            a.set(i, i, a.get(i, i) + n);
+        }
+        DenseMatrix b = random(random, n, 3);
+        CholeskyDecomposition cholesky = new CholeskyDecomposition(a);
+
+        DenseMatrix x = cholesky.solve(b);
+        assertMatrixEquals(b, a.nMultiply(x), TOLERANCE);
+        assertMatrixEquals(LinearSolver.solve(a, b), x, TOLERANCE);
+        assertEquals(new LUDecomposition(a).determinant(), cholesky.determinant(),
+                TOLERANCE * Math.abs(cholesky.determinant()));
+
+        IVector y = cholesky.solve(new Vector(new double[n]).set(0, 1));
+        assertVectorEquals(new Vector(new double[n]).set(0, 1), multiply(a, y), TOLERANCE);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void singularSystemIsRejected() throws Exception {
+        LinearSolver.solve(Matrix.parseSimple("1 2 | 2 4"), Vector.parseSimple("1 2"));
+    }
+
+    @Test
+    public void singularMatrixCanBeFactorized() {
+        LUDecomposition lu = new LUDecomposition(Matrix.parseSimple("1 2 3 | 4 5 6 | 7 8 9"));
+
+        assertTrue(lu.isSingular());
+        assertEquals(0, lu.determinant(), TOLERANCE);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void singularLUSolveIsRejected() throws Exception {
+        new LUDecomposition(Matrix.parseSimple("1 2 3 | 4 5 6 | 7 8 9")).solve(new DenseMatrix(3, 1));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void nonSquareLUIsRejected() {
+        new LUDecomposition(Matrix.parseSimple("1 2 | 3 4 | 5 6"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rankDeficientLeastSquaresIsRejected() throws Exception {
+        QRDecomposition qr = new QRDecomposition(Matrix.parseSimple("1 2 | 2 4 | 3 6"));
+
+        assertFalse(qr.isFullRank());
+        qr.solve(Vector.parseSimple("1 2 3"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void wideSystemIsRejected() throws Exception {
+        LinearSolver.solve(Matrix.parseSimple("1 2 3 | 4 5 6"), Vector.parseSimple("1 2"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void nonSymmetricCholeskyIsRejected() {
+        new CholeskyDecomposition(Matrix.parseSimple("2 1 | 0 2"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void indefiniteCholeskyIsRejected() {
+        new CholeskyDecomposition(Matrix.parseSimple("1 2 | 2 1"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void semidefiniteCholeskyIsRejected() {
+        new CholeskyDecomposition(Matrix.parseSimple("1 1 | 1 1"));
+    }
+
+    @Test(expected = IncompatibleOperandException.class)
+    public void mismatchedRightHandSideIsRejected() throws Exception {
+        LinearSolver.solve(Matrix.parseSimple("1 0 | 0 1"), Vector.parseSimple("1 2 3"));
+    }
+}
@@ -0,0 +1,139 @@
+package hr.fer.zemris.linearna;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link Matrix#parseSimple(String)} and {@link Vector#parseSimple(String)} with parsing which
+ * splits input with regular expressions and converts numbers with {@link Double#parseDouble(String)}.
+ *
+ * @author filip
+ *
+ */
+public class SimpleFormatParserTest {
+
+    private static final String[] MATRIX_INPUTS = {
+            "", "   ", "\t\n", "1", "1 2 | 3 4", "  1\t2 \n|\r\n3   4  ", "1 | 2 | 3",
+            "1 2|3 4", "1 2 |3 4", "1 2| 3 4", "| 1", "1 |", "1 2 | 3 4 |", "|", " | ", "1 | | 2",
+            "1 x | 3 4", "1 2 | 3 x", "1 2 | 3", "1 2 3 | 4 5", "1 2 | 3 4 5 x", "1 2 3 | 4 |",
+            "-0 +1 .5 | 5. 1e3 -2.5E-3", "1e 2 | 3 4", "1e+ 2", ". 1", "- 1", "+", "NaN -Infinity | Infinity 0",
+            "1d 2f | 3D 4F", "0x1p3 0x10 | 1 2", "1_0 2", "123456789012345678 0.1234567890123456789",
+            "1e22 1e23 | 1e-22 1e-23", "9007199254740993 4.9e-324", "1e400 -1e-400", "00012.5000 | 3 4"
+    };
+
+    private static final String[] VECTOR_INPUTS = {
+            "", "   ", "1", "1 2 3", "\t1\n 2  3 ", "1|2", "1 | 2", "|", "1 x 3", "x", "1e 2", "NaN Infinity",
+            "1d 2F", "0x1p-2", "-0 +.5 5.", "123456789012345678 0.1234567890123456789", "1e-400 1e400"
+    };
+
+    @Test
+    public void matrixMatchesDoubleParsing() {
+        for(String input : MATRIX_INPUTS) {
+            assertEquals(input, expectedMatrix(input), actualMatrix(input));
+        }
+    }
+
+    @Test
+    public void vectorMatchesDoubleParsing() {
+        for(String input : VECTOR_INPUTS) {
+            assertEquals(input, expectedVector(input), actualVector(input));
+        }
+    }
+
+    @Test
+    public void inputSpanningSeveralChunksMatchesDoubleParsing() {
+        StringBuilder matrix = new StringBuilder();
+        StringBuilder vector = new StringBuilder();
+        for(int i = 0; i < 5000; ++i) {
+            String number = (i % 7 - 3) + "." + i * 37 + "e" + (i % 5 - 2);
+            matrix.append(i == 0 ? "" : i % 4 == 0 ? " | " : " ").append(number);
+            vector.append(number).append(i % 3 == 0 ? "\n" : " ");
+        }
+
+        assertEquals(expectedMatrix(matrix.toString()), actualMatrix(matrix.toString()));
+        assertEquals(expectedVector(vector.toString()), actualVector(vector.toString()));
+    }
+
+    private static String actualMatrix(String input) {
+        try {
+            IMatrix matrix = Matrix.parseSimple(input);
+            List<String> rows = new ArrayList<>();
+            for(int i = 0; i < matrix.getRowsCount(); ++i) {
+                double[] row = new double[matrix.getColsCount()];
+                for(int j = 0; j < row.length; ++j) {
+                    row[j] = matrix.get(i, j);
+                }
+                rows.add(Arrays.toString(row));
+            }
+            return rows.toString();
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String actualVector(String input) {
+        try {
+            IVector vector = Vector.parseSimple(input);
+            double[] elements = new double[vector.getDimension()];
+            for(int i = 0; i < elements.length; ++i) {
+                elements[i] = vector.get(i);
+            }
+            return Arrays.toString(elements);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String expectedMatrix(String input) {
+        String[] rows = input.trim().replaceAll("\\s+", " ").split("\\s\\|\\s");
+        if(rows.length == 1 && rows[0].matches("|\\s")) {
+            return "[]";
+        }
+
+        List<double[]> elementsByRows = new ArrayList<>();
+        for(String row : rows) {
+            String[] stringRowElements = row.split(" ");
+            double[] rowElements = new double[stringRowElements.length];
+            for(int i = 0; i < stringRowElements.length; ++i) {
+                try {
+                    rowElements[i] = Double.parseDouble(stringRowElements[i]);
+                } catch (NumberFormatException e) {
+                    return "Invalid number representation: " + e.getMessage();
+                }
+            }
+            elementsByRows.add(rowElements);
+        }
+
+        if(elementsByRows.stream().map(t -> t.length).distinct().count() != 1) {
+            return "All matrix rows must be of equal length.";
+        }
+
+        List<String> result = new ArrayList<>();
+        for(double[] row : elementsByRows) {
+            result.add(Arrays.toString(row));
+        }
+        return result.toString();
+    }
+
+    private static String expectedVector(String input) {
+        if(input.trim().isEmpty()) {
+            return "[]";
+        }
+
+        String[] numberStrings = input.trim().replaceAll("\\s+", " ").split(" ");
+        double[] numbers = new double[numberStrings.length];
+        for(int i = 0; i < numberStrings.length; ++i) {
+            try {
+                numbers[i] = Double.parseDouble(numberStrings[i]);
+            } catch (NumberFormatException e) {
+                return "Invalid number representation: " + numberStrings[i];
+            }
+        }
+        return Arrays.toString(numbers);
+    }
+}
@@ -0,0 +1,219 @@
+package hr.fer.zemris.linearna;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares operations of {@link CsrMatrix} and {@link CooMatrix} with the same operations on dense arrays.
+ * Elements are small integers, so results are exact regardless of the order of additions.
+ *
+ * @author filip
+ *
+ */
+public class SparseMatrixTest {
+
+    private final Random random = new Random(9);
+
+    /**
+     * Creates random sparse elements in which every third row and every fourth column are empty.
+     */
+    private double[][] randomSparse(int rows, int cols) {
+        double[][] array = new double[rows][cols];
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                if(i % 3 != 1 && j % 4 != 2 && random.nextInt(4) == 0) {
+                    array[i][j] = random.nextInt(9) - 4;
+                }
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Creates COO matrix with given elements, set in random order after other values were set to some of
+     * them, so that it holds duplicate entries.
+     */
+    private CooMatrix coo(double[][] array) {
+        int rows = array.length;
+        int cols = rows == 0 ? 0 : array[0].length;
+        List<int[]> positions = new ArrayList<>();
+        for(int i = 0; i < rows; ++i) {
+            for(int j = 0; j < cols; ++j) {
+                if(array[i][j] != 0 || random.nextInt(8) == 0) {
+                    positions.add(new int[] {i, j});
+                }
+            }
+        }
+
+        CooMatrix matrix = new CooMatrix(rows, cols);
+        Collections.shuffle(positions, random);
+        for(int[] position : positions) {
+            if(random.nextBoolean()) {
+                matrix.set(position[0], position[1], random.nextInt(100) + 1);
+            }
+        }
+        Collections.shuffle(positions, random);
+        for(int[] position : positions) {
+            matrix.set(position[0], position[1], array[position[0]][position[1]]);
+        }
+        return matrix;
+    }
+
+    private CsrMatrix csr(double[][] array) {
+        return coo(array).toCsr();
+    }
+
+    private static double[][] multiply(double[][] a, double[][] b) {
+        double[][] result = new double[a.length][b[0].length];
+        for(int i = 0; i < a.length; ++i) {
+            for(int j = 0; j < b[0].length; ++j) {
+                for(int k = 0; k < b.length; ++k) {
+                    result[i][j] += a[i][k] * b[k][j];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double[][] combine(double[][] a, double[][] b, double sign) {
+        double[][] result = new double[a.length][a[0].length];
+        for(int i = 0; i < a.length; ++i) {
+            for(int j = 0; j < a[0].length; ++j) {
+                result[i][j] = a[i][j] + sign * b[i][j];
+            }
+        }
+        return result;
+    }
+
+    private static double[][] transpose(double[][] a) {
+        double[][] result = new double[a[0].length][a.length];
+        for(int i = 0; i < a.length; ++i) {
+            for(int j = 0; j < a[0].length; ++j) {
+                result[j][i] = a[i][j];
+            }
+        }
+        return result;
+    }
+
+    private static void assertMatrixEquals(double[][] expected, IMatrix actual) {
+        assertEquals(expected.length, actual.getRowsCount());
+        assertEquals(expected[0].length, actual.getColsCount());
+        for(int i = 0; i < expected.length; ++i) {
+            for(int j = 0; j < expected[0].length; ++j) {
+                assertEquals("(" + i + ", " + j + ")", expected[i][j], actual.get(i, j), 0);
+            }
+        }
+    }
+
+    @Test
+    public void cooCompactionKeepsLatestValue() {
+        double[][] expected = randomSparse(13, 11);
+        CooMatrix matrix = coo(expected);
+
+        assertMatrixEquals(expected, matrix);
+        assertMatrixEquals(expected, matrix.toCsr());
+        assertMatrixEquals(expected, new Matrix(matrix.toArray()));
+    }
+
+    @Test
+    public void cooSetAfterCompactionReplacesValue() {
+        CooMatrix matrix = new CooMatrix(2, 2);
+        matrix.set(1, 1, 5).set(0, 0, 1).set(1, 1, 7);
+        assertEquals(7, matrix.get(1, 1), 0);
+
+        matrix.set(1, 1, 9).set(0, 1, 2);
+        assertMatrixEquals(new double[][] {{1, 2}, {0, 9}}, matrix);
+    }
+
+    @Test
+    public void sparseProductMatchesDense() throws Exception {
+        double[][] a = randomSparse(14, 9);
+        double[][] b = randomSparse(9, 12);
+        double[][] expected = multiply(a, b);
+
+        IMatrix product = csr(a).nMultiply(csr(b));
+        assertTrue(product instanceof CsrMatrix);
+        assertMatrixEquals(expected, product);
+        assertMatrixEquals(expected, coo(a).nMultiply(coo(b)));
+        assertMatrixEquals(expected, csr(a).nMultiply(coo(b)));
+
+        assertMatrixEquals(expected, csr(a).nMultiply(csr(b), new CsrMatrix(14, 12)));
+        assertMatrixEquals(expected, csr(a).nMultiply(csr(b), new CooMatrix(14, 12)));
+        assertMatrixEquals(expected, csr(a).nMultiply(csr(b), new DenseMatrix(14, 12)));
+        assertMatrixEquals(expected, csr(a).nMultiply(csr(b), new Matrix(new double[14][12])));
+    }
+
+    @Test
+    public void sparseTimesDenseMatchesDense() throws Exception {
+        double[][] a = randomSparse(10, 7);
+        double[][] b = randomSparse(7, 5);
+        double[][] expected = multiply(a, b);
+
+        assertMatrixEquals(expected, csr(a).nMultiply(new Matrix(b)));
+        assertMatrixEquals(expected, csr(a).nMultiply(DenseMatrix.from(new Matrix(b))));
+        assertMatrixEquals(expected, csr(a).nMultiply(new Matrix(b), new DenseMatrix(10, 5)));
+    }
+
+    @Test
+    public void denseTimesSparseMatchesDense() throws Exception {
+        double[][] a = randomSparse(8, 11);
+        double[][] b = randomSparse(11, 6);
+        double[][] expected = multiply(a, b);
+
+        assertMatrixEquals(expected, new Matrix(a).nMultiply(csr(b)));
+        assertMatrixEquals(expected, DenseMatrix.from(new Matrix(a)).nMultiply(coo(b)));
+        assertMatrixEquals(expected, new Matrix(a).nMultiply(csr(b), new Matrix(new double[8][6])));
+        assertMatrixEquals(expected, DenseMatrix.from(new Matrix(a)).nMultiply(coo(b), new DenseMatrix(8, 6)));
+    }
+
+    @Test
+    public void mergedSumAndDifferenceMatchDense() throws Exception {
+        double[][] a = randomSparse(12, 10);
+        double[][] b = randomSparse(12, 10);
+        double[][] sum = combine(a, b, 1);
+        double[][] difference = combine(a, b, -1);
+
+        assertMatrixEquals(sum, csr(a).nAdd(csr(b)));
+        assertMatrixEquals(sum, csr(a).nAdd(coo(b)));
+        assertMatrixEquals(sum, coo(a).nAdd(csr(b)));
+        assertMatrixEquals(sum, csr(a).add(coo(b)));
+        assertMatrixEquals(sum, coo(a).add(coo(b)));
+        assertMatrixEquals(difference, csr(a).nSub(csr(b)));
+        assertMatrixEquals(difference, coo(a).nSub(coo(b)));
+        assertMatrixEquals(difference, csr(a).sub(csr(b)));
+        assertMatrixEquals(difference, coo(a).sub(csr(b)));
+
+        CsrMatrix left = csr(a);
+        left.nAdd(csr(b));
+        assertMatrixEquals(a, left);
+    }
+
+    @Test
+    public void transposeMatchesDense() {
+        double[][] a = randomSparse(9, 13);
+
+        assertMatrixEquals(transpose(a), csr(a).nTransponse(false));
+        assertMatrixEquals(transpose(a), coo(a).nTransponse(false));
+        assertMatrixEquals(a, csr(a).nTransponse(false).nTransponse(false));
+    }
+
+    @Test
+    public void emptyMatricesStayEmpty() throws Exception {
+        CsrMatrix empty = new CsrMatrix(5, 4);
+        CsrMatrix storedZeros = csr(new double[5][4]);
+
+        assertEquals(0, empty.getNonZerosCount());
+        assertMatrixEquals(new double[4][5], empty.nTransponse(false));
+        assertMatrixEquals(new double[5][3], empty.nMultiply(csr(randomSparse(4, 3))));
+        assertMatrixEquals(new double[5][3], storedZeros.nMultiply(csr(randomSparse(4, 3))));
+        assertMatrixEquals(new double[5][4], storedZeros.nAdd(empty));
+        assertMatrixEquals(new double[6][4], new Matrix(randomSparse(6, 5)).nMultiply(csr(new double[5][4])));
+    }
+}